@@ -0,0 +1,189 @@
+package com.zfb.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time for an embedded Tomcat to serve a burst of concurrent HTTP requests that spend most of their
+ * time blocked, at a fixed 256 MB heap. {@code platform} is Tomcat's default pool of 200 platform
+ * threads and {@code virtual} runs one virtual thread per request as with {@code
+ * spring.threads.virtual.enabled}.
+ *
+ * <p>{@code /io} blocks for {@value #BLOCKING_MILLIS} ms without any pool, like a call to another
+ * service, so only the request threads limit it. {@code /db} holds a connection of a Hikari pool of
+ * {@code poolSize} connections over H2 for the same time, like a query; 10 is the forex and 20 the
+ * current {@code maximum-pool-size} in prod. Once the pool is the limit, virtual threads only make
+ * waiting for a connection cheaper: the burst still takes {@code concurrentRequests / poolSize}
+ * rounds. Redisson's 64 connections bound lock and cache calls the same way.
+ *
+ * <p>This is not a load test of a service: the endpoints stand in for the service's blocking calls
+ * and do no serialization, security or transaction work, and the client shares the JVM, heap and
+ * cores with the server. Run it on a machine with several cores; on one core the client and the
+ * schedulers compete with the request threads and the results say little about production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(
+    value = 1,
+    jvmArgsAppend = {"-Xms256m", "-Xmx256m"})
+public class VirtualThreadCapacityBenchmark {
+
+  private static final int TOMCAT_MAX_THREADS = 200;
+  private static final long BLOCKING_MILLIS = 20;
+
+  @Param({"platform", "virtual"})
+  private String threads;
+
+  @Param({"io", "db"})
+  private String endpoint;
+
+  @Param({"10"})
+  private int poolSize;
+
+  @Param({"1000"})
+  private int concurrentRequests;
+
+  private HikariDataSource dataSource;
+  private Tomcat tomcat;
+  private ExecutorService requestThreads;
+  private HttpClient client;
+  private URI uri;
+
+  @Setup
+  public void setUp() throws IOException, LifecycleException {
+    HikariConfig config = new HikariConfig();
+    config.setJdbcUrl("jdbc:h2:mem:capacity;DB_CLOSE_DELAY=-1");
+    config.setMaximumPoolSize(poolSize);
+    config.setMinimumIdle(poolSize);
+    config.setConnectionTimeout(TimeUnit.MINUTES.toMillis(1));
+    dataSource = new HikariDataSource(config);
+
+    tomcat = new Tomcat();
+    tomcat.setBaseDir(Files.createTempDirectory("capacity-benchmark").toString());
+    Connector connector = new Connector();
+    connector.setPort(0);
+    connector.setProperty("maxThreads", String.valueOf(TOMCAT_MAX_THREADS));
+    connector.setProperty("maxConnections", String.valueOf(concurrentRequests * 2));
+    connector.setProperty("acceptCount", String.valueOf(concurrentRequests));
+    if ("virtual".equals(threads)) {
+      requestThreads = Executors.newVirtualThreadPerTaskExecutor();
+      connector.getProtocolHandler().setExecutor(requestThreads);
+    }
+    tomcat.setConnector(connector);
+
+    Context context = tomcat.addContext("", null);
+    Tomcat.addServlet(context, "io", new BlockingServlet(null));
+    Tomcat.addServlet(context, "db", new BlockingServlet(dataSource));
+    context.addServletMappingDecoded("/io", "io");
+    context.addServletMappingDecoded("/db", "db");
+    tomcat.start();
+
+    client =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    uri = URI.create("http://127.0.0.1:" + connector.getLocalPort() + "/" + endpoint);
+  }
+
+  @TearDown
+  public void tearDown() throws LifecycleException {
+    client.close();
+    tomcat.stop();
+    tomcat.destroy();
+    if (requestThreads != null) {
+      requestThreads.shutdownNow();
+    }
+    dataSource.close();
+  }
+
+  @Benchmark
+  public int burst() {
+    HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+    List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(concurrentRequests);
+    for (int i = 0; i < concurrentRequests; i++) {
+      responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+    }
+    int ok = 0;
+    for (CompletableFuture<HttpResponse<Void>> response : responses) {
+      if (response.join().statusCode() == HttpServletResponse.SC_OK) {
+        ok++;
+      }
+    }
+    if (ok != concurrentRequests) {
+      throw new IllegalStateException((concurrentRequests - ok) + " requests failed");
+    }
+    return ok;
+  }
+
+  /** blocks the request thread, holding a pooled connection when given a data source */
+  private static final class BlockingServlet extends HttpServlet {
+
+    private final transient HikariDataSource dataSource;
+
+    private BlockingServlet(HikariDataSource dataSource) {
+      this.dataSource = dataSource;
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+        throws IOException {
+      try {
+        if (dataSource == null) {
+          Thread.sleep(BLOCKING_MILLIS);
+        } else {
+          try (Connection connection = dataSource.getConnection();
+              Statement statement = connection.createStatement();
+              ResultSet resultSet = statement.executeQuery("SELECT 1")) {
+            resultSet.next();
+            Thread.sleep(BLOCKING_MILLIS);
+          }
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+      } catch (SQLException e) {
+        response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+      }
+    }
+  }
+}
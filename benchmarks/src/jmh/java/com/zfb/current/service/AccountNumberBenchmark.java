@@ -0,0 +1,27 @@
+package com.zfb.current.service;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Account number formatting of {@link AccountNumberGenerator}, the part of each allocation that
+ * runs per account; block leases hit the database once per block and are not measured here.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AccountNumberBenchmark {
+
+  private long sequence;
+
+  @Benchmark
+  public String format() {
+    sequence = (sequence + 1) % (AccountNumberGenerator.MAX_SEQUENCE + 1);
+    return AccountNumberGenerator.format(sequence);
+  }
+}
@@ -0,0 +1,162 @@
+package com.zfb.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Inserts 10k transaction rows in one transaction, once with an IDENTITY id and once with the
+ * pooled {@code zfb_id_seq} generator used by {@link BaseColumn}. Runs against H2 in MySQL mode
+ * with the MySQL dialect, so the sequence is emulated with a table as it is in production. Divide
+ * the row count by the score to get inserts per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class IdGenerationInsertBenchmark {
+
+  private static final int ROWS = 10_000;
+
+  @Param({"100"})
+  private int batchSize;
+
+  private SessionFactory sessionFactory;
+
+  @Setup
+  public void setUp() {
+    sessionFactory =
+        new Configuration()
+            .addAnnotatedClass(IdentityTransaction.class)
+            .addAnnotatedClass(PooledTransaction.class)
+            .setProperty(
+                "hibernate.connection.url",
+                "jdbc:h2:mem:id_generation;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+            .setProperty("hibernate.dialect", "org.hibernate.dialect.MySQLDialect")
+            .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+            .setProperty("hibernate.jdbc.batch_size", String.valueOf(batchSize))
+            .setProperty("hibernate.order_inserts", "true")
+            .buildSessionFactory();
+  }
+
+  @Setup(Level.Invocation)
+  public void truncate() {
+    sessionFactory.inTransaction(
+        session -> {
+          session.createMutationQuery("DELETE FROM IdentityTransaction").executeUpdate();
+          session.createMutationQuery("DELETE FROM PooledTransaction").executeUpdate();
+        });
+  }
+
+  @TearDown
+  public void tearDown() {
+    sessionFactory.close();
+  }
+
+  @Benchmark
+  public void identity() {
+    sessionFactory.inTransaction(
+        session -> {
+          for (int i = 0; i < ROWS; i++) {
+            session.persist(fill(new IdentityTransaction(), i));
+            flushEvery(session, i);
+          }
+        });
+  }
+
+  @Benchmark
+  public void pooledSequence() {
+    sessionFactory.inTransaction(
+        session -> {
+          for (int i = 0; i < ROWS; i++) {
+            session.persist(fill(new PooledTransaction(), i));
+            flushEvery(session, i);
+          }
+        });
+  }
+
+  private void flushEvery(org.hibernate.Session session, int i) {
+    if ((i + 1) % batchSize == 0) {
+      session.flush();
+      session.clear();
+    }
+  }
+
+  private static <T extends TransactionRow> T fill(T row, int i) {
+    LocalDateTime now = LocalDateTime.now();
+    row.uuid = UUID.randomUUID().toString();
+    row.accountUuid = "account-" + (i % 100);
+    row.type = "DEPOSIT";
+    row.amount = BigDecimal.valueOf(i, 2);
+    row.status = "COMPLETED";
+    row.createdAt = now;
+    row.updatedAt = now;
+    return row;
+  }
+
+  public abstract static class TransactionRow {
+    @Column(nullable = false, length = 36)
+    String uuid;
+
+    @Column(nullable = false, length = 36)
+    String accountUuid;
+
+    @Column(nullable = false, length = 20)
+    String type;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    BigDecimal amount;
+
+    @Column(nullable = false, length = 20)
+    String status;
+
+    @Column(nullable = false)
+    LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    LocalDateTime updatedAt;
+  }
+
+  @Entity(name = "IdentityTransaction")
+  @Table(name = "identity_transactions")
+  public static class IdentityTransaction extends TransactionRow {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+  }
+
+  @Entity(name = "PooledTransaction")
+  @Table(name = "pooled_transactions")
+  public static class PooledTransaction extends TransactionRow {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "zfb_id")
+    @SequenceGenerator(
+        name = "zfb_id",
+        sequenceName = "zfb_id_seq",
+        allocationSize = BaseColumn.ID_ALLOCATION_SIZE)
+    Long id;
+  }
+}
@@ -0,0 +1,78 @@
+package com.zfb.dto;
+
+import com.zfb.current.dto.CurrentTransactionDto;
+import com.zfb.forex.dto.ForexTransactionDto;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Response wrapping and JSON writing of a transaction, as done by the MVC message converter for
+ * every withdraw and deposit call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ApiResponseSerializationBenchmark {
+
+  private JsonMapper jsonMapper;
+  private ForexTransactionDto forexTransaction;
+  private CurrentTransactionDto currentTransaction;
+
+  @Setup
+  public void setUp() {
+    jsonMapper = JsonMapper.builder().build();
+    LocalDateTime createdAt = LocalDateTime.now();
+
+    forexTransaction =
+        ForexTransactionDto.builder()
+            .id(1L)
+            .uuid(UUID.randomUUID().toString())
+            .accountUuid(UUID.randomUUID().toString())
+            .type("DEPOSIT")
+            .amount(new BigDecimal("100.00"))
+            .balanceBefore(new BigDecimal("1250.50"))
+            .balanceAfter(new BigDecimal("1350.50"))
+            .status("COMPLETED")
+            .description("forex deposit")
+            .createdAt(createdAt)
+            .build();
+
+    currentTransaction =
+        CurrentTransactionDto.builder()
+            .uuid(UUID.randomUUID().toString())
+            .accountUuid(UUID.randomUUID().toString())
+            .type("WITHDRAWAL")
+            .amount(new BigDecimal("100.00"))
+            .balanceBefore(new BigDecimal("1350.50"))
+            .balanceAfter(new BigDecimal("1250.50"))
+            .status("COMPLETED")
+            .description("current withdrawal")
+            .createdAt(createdAt)
+            .build();
+  }
+
+  @Benchmark
+  public ApiResponse<ForexTransactionDto> wrap() {
+    return ApiResponse.of(forexTransaction);
+  }
+
+  @Benchmark
+  public byte[] forexTransaction() {
+    return jsonMapper.writeValueAsBytes(ApiResponse.of(forexTransaction));
+  }
+
+  @Benchmark
+  public byte[] currentTransaction() {
+    return jsonMapper.writeValueAsBytes(ApiResponse.of(currentTransaction));
+  }
+}
@@ -0,0 +1,52 @@
+package com.zfb.forex.domain;
+
+import com.zfb.domain.Currency;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Balance arithmetic of {@link ForexAccount}. The account is recreated every iteration with a
+ * balance large enough that withdrawals never run into the insufficient balance check.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ForexAccountBenchmark {
+
+  private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000000000000.00");
+
+  private final BigDecimal amount = new BigDecimal("10.25");
+
+  private ForexAccount account;
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    account =
+        ForexAccount.builder()
+            .accountNumber("FX-0000000001")
+            .userId(1L)
+            .balance(OPENING_BALANCE)
+            .currency(Currency.USD)
+            .build();
+  }
+
+  @Benchmark
+  public BigDecimal deposit() {
+    account.deposit(amount);
+    return account.getBalance();
+  }
+
+  @Benchmark
+  public BigDecimal withdraw() {
+    account.withdraw(amount);
+    return account.getBalance();
+  }
+}
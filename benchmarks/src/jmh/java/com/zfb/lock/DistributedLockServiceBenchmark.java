@@ -0,0 +1,88 @@
+package com.zfb.lock;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import redis.embedded.RedisServer;
+
+/**
+ * Lock round trip of {@link DistributedLockService} against an embedded Redis server on a random
+ * local port. {@code uncontended} uses one key per thread, {@code contended} makes all threads
+ * compete for the same account key, {@code contendedAsync} does the same through the async lock and
+ * {@code contendedBatched} hands the Redis lock between local callers in batches of up to 8.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DistributedLockServiceBenchmark {
+
+  private RedisServer redisServer;
+  private RedissonClient redissonClient;
+  private DistributedLockService lockService;
+  private DistributedLockService batchingLockService;
+
+  @State(Scope.Thread)
+  public static class ThreadKey {
+    private final String lockKey = "benchmark:account:" + Thread.currentThread().threadId();
+  }
+
+  @Setup
+  public void setUp() throws IOException {
+    int port;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      port = socket.getLocalPort();
+    }
+    redisServer = new RedisServer(port);
+    redisServer.start();
+
+    Config config = new Config();
+    config.useSingleServer().setAddress("redis://127.0.0.1:" + port);
+    redissonClient = Redisson.create(config);
+    lockService = new DistributedLockService(redissonClient);
+    batchingLockService =
+        new DistributedLockService(
+            redissonClient, new LockMetrics(new SimpleMeterRegistry()), 8, 20);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    redissonClient.shutdown();
+    redisServer.stop();
+  }
+
+  @Benchmark
+  public Boolean uncontended(ThreadKey threadKey) {
+    return lockService.executeWithLock(threadKey.lockKey, () -> Boolean.TRUE);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Boolean contended() {
+    return lockService.executeWithLock("benchmark:account:shared", () -> Boolean.TRUE);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Boolean contendedAsync() {
+    return lockService.executeWithLockAsync("benchmark:account:shared", () -> Boolean.TRUE).join();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Boolean contendedBatched() {
+    return batchingLockService.executeWithLock("benchmark:account:batched", () -> Boolean.TRUE);
+  }
+}
@@ -0,0 +1,99 @@
+package com.zfb.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.crypto.SecretKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Compares the per-request claims pipeline of the gateway before and after the parser and role
+ * table rework. Run with {@code ./gradlew :benchmarks:jmh}; the gc profiler reports {@code
+ * gc.alloc.rate.norm} as allocated bytes per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtClaimsPipelineBenchmark {
+
+  private static final String SECRET = "benchmark-secret-key-which-must-be-at-least-256-bits-long";
+
+  private JwtTokenProvider tokenProvider;
+  private JwtTokenProvider cachingTokenProvider;
+  private SecretKey secretKey;
+  private WebAuthenticationDetailsSource authenticationDetailsSource;
+  private MockHttpServletRequest request;
+  private String token;
+
+  @Setup
+  public void setUp() {
+    tokenProvider = newTokenProvider();
+    cachingTokenProvider = newTokenProvider();
+    ReflectionTestUtils.setField(
+        cachingTokenProvider, "claimsCache", new JwtClaimsCache(new SimpleMeterRegistry(), 10_000));
+
+    secretKey = (SecretKey) ReflectionTestUtils.getField(tokenProvider, "secretKey");
+    authenticationDetailsSource = new WebAuthenticationDetailsSource();
+    request = new MockHttpServletRequest();
+    token =
+        tokenProvider.generateToken(
+            "user123", "test@example.com", List.of("ROLE_USER", "ROLE_ADMIN"));
+  }
+
+  /** Pipeline as it was: new parser, split, per-request authorities and details source, join. */
+  @Benchmark
+  public void legacyPipeline(Blackhole blackhole) {
+    Claims claims =
+        Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload();
+    String rolesString = claims.get("roles", String.class);
+    List<String> roles = rolesString != null ? Arrays.asList(rolesString.split(",")) : List.of();
+
+    blackhole.consume(roles.stream().map(SimpleGrantedAuthority::new).collect(Collectors.toList()));
+    blackhole.consume(new WebAuthenticationDetailsSource().buildDetails(request));
+    blackhole.consume(String.join(",", roles));
+    blackhole.consume(claims.getSubject());
+    blackhole.consume(claims.get("email", String.class));
+  }
+
+  /** Reworked pipeline with the claims cache disabled: shared parser and interned roles. */
+  @Benchmark
+  public void parsePipeline(Blackhole blackhole) {
+    consume(tokenProvider.getAllClaimsFromToken(token), blackhole);
+  }
+
+  /** Reworked pipeline served from the verified claims cache. */
+  @Benchmark
+  public void cachedPipeline(Blackhole blackhole) {
+    consume(cachingTokenProvider.getAllClaimsFromToken(token), blackhole);
+  }
+
+  private void consume(JwtTokenClaims claims, Blackhole blackhole) {
+    JwtRoles roles = claims.getRoleSet();
+    blackhole.consume(new JwtUserDetails(claims.getUserId(), claims.getEmail(), roles));
+    blackhole.consume(authenticationDetailsSource.buildDetails(request));
+    blackhole.consume(roles.getValue());
+  }
+
+  private static JwtTokenProvider newTokenProvider() {
+    JwtTokenProvider provider = new JwtTokenProvider();
+    ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+    ReflectionTestUtils.setField(provider, "accessTokenValidity", 3600000L);
+    provider.init();
+    return provider;
+  }
+}
@@ -0,0 +1,46 @@
+package com.zfb.security;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Signature verification and token issuing of {@link JwtTokenProvider} without the claims cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtTokenProviderBenchmark {
+
+  private static final String SECRET = "benchmark-secret-key-which-must-be-at-least-256-bits-long";
+  private static final List<String> ROLES = List.of("ROLE_USER", "ROLE_ADMIN");
+
+  private JwtTokenProvider tokenProvider;
+  private String token;
+
+  @Setup
+  public void setUp() {
+    tokenProvider = new JwtTokenProvider();
+    ReflectionTestUtils.setField(tokenProvider, "jwtSecret", SECRET);
+    ReflectionTestUtils.setField(tokenProvider, "accessTokenValidity", 3600000L);
+    tokenProvider.init();
+    token = tokenProvider.generateToken("user123", "test@example.com", ROLES);
+  }
+
+  @Benchmark
+  public JwtTokenClaims parse() {
+    return tokenProvider.getAllClaimsFromToken(token);
+  }
+
+  @Benchmark
+  public String generate() {
+    return tokenProvider.generateToken("user123", "test@example.com", ROLES);
+  }
+}
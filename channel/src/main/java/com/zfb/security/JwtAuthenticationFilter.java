@@ -5,7 +5,6 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,6 +20,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
   private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
+  private final WebAuthenticationDetailsSource authenticationDetailsSource =
+      new WebAuthenticationDetailsSource();
+
   @Autowired private JwtTokenProvider tokenProvider;
 
   /**
@@ -46,19 +48,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (claims != null) {
           String userId = claims.getUserId();
           String email = claims.getEmail();
-          List<String> roles = claims.getRoles();
+          JwtRoles roles = claims.getRoleSet();
 
           JwtUserDetails userDetails = new JwtUserDetails(userId, email, roles);
           UsernamePasswordAuthenticationToken authentication =
               new UsernamePasswordAuthenticationToken(
                   userDetails, null, userDetails.getAuthorities());
-          authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+          authentication.setDetails(authenticationDetailsSource.buildDetails(request));
 
           SecurityContextHolder.getContext().setAuthentication(authentication);
 
           response.setHeader(SecurityConstants.HEADER_USER_ID, userId);
           response.setHeader(SecurityConstants.HEADER_USER_EMAIL, email);
-          response.setHeader(SecurityConstants.HEADER_USER_ROLES, String.join(",", roles));
+          response.setHeader(SecurityConstants.HEADER_USER_ROLES, roles.getValue());
         }
       }
     } catch (Exception ex) {
@@ -0,0 +1,107 @@
+package com.zfb.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded in-process cache of verified JWT claims.
+ *
+ * <p>Entries are keyed by the SHA-256 digest of the token, so raw bearer tokens are never retained,
+ * and each entry expires at the token's own {@code exp} claim. Hit, miss and eviction counts are
+ * published to Micrometer under the {@code jwt.claims} cache name.
+ */
+@Component
+@ConditionalOnProperty(
+    prefix = "jwt.claims-cache",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class JwtClaimsCache {
+
+  static final String CACHE_NAME = "jwt.claims";
+
+  private final Cache<String, JwtTokenClaims> cache;
+
+  public JwtClaimsCache(
+      MeterRegistry meterRegistry,
+      @Value("${jwt.claims-cache.maximum-size:10000}") long maximumSize) {
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(new TokenExpiry())
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+  }
+
+  /**
+   * get verified claims for the token if they are cached and the token has not expired
+   *
+   * @param token
+   * @return JwtTokenClaims or null if not cached
+   */
+  public JwtTokenClaims get(String token) {
+    return cache.getIfPresent(digest(token));
+  }
+
+  /**
+   * cache verified claims until the token expires. tokens without expiration are not cached.
+   *
+   * @param token
+   * @param claims verified claims of the token
+   */
+  public void put(String token, JwtTokenClaims claims) {
+    Instant expiration = claims.getExpiration();
+    if (expiration == null || !expiration.isAfter(Instant.now())) {
+      return;
+    }
+    cache.put(digest(token), claims);
+  }
+
+  long estimatedSize() {
+    cache.cleanUp();
+    return cache.estimatedSize();
+  }
+
+  private static String digest(String token) {
+    try {
+      MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private static class TokenExpiry implements Expiry<String, JwtTokenClaims> {
+
+    @Override
+    public long expireAfterCreate(String key, JwtTokenClaims claims, long currentTime) {
+      long remaining = Duration.between(Instant.now(), claims.getExpiration()).toNanos();
+      return Math.max(remaining, 0L);
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        String key, JwtTokenClaims claims, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, claims, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(
+        String key, JwtTokenClaims claims, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
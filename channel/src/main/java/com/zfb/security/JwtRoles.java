@@ -0,0 +1,95 @@
+package com.zfb.security;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Immutable set of roles carried by a JWT, holding the raw claim value, the role names and the
+ * granted authorities together.
+ *
+ * <p>Role combinations built from {@link SecurityConstants#KNOWN_ROLES} are created once and
+ * shared, so parsing the claim of a typical token allocates nothing. Unknown combinations are
+ * parsed on demand and are not retained.
+ */
+@Getter
+public final class JwtRoles {
+
+  private static final char DELIMITER = ',';
+
+  private static final JwtRoles EMPTY = new JwtRoles("", List.of());
+
+  private static final Map<String, JwtRoles> KNOWN = buildKnownRoles();
+
+  private final String value;
+  private final List<String> names;
+  private final List<GrantedAuthority> authorities;
+
+  private JwtRoles(String value, List<String> names) {
+    this.value = value;
+    this.names = names;
+    List<GrantedAuthority> grantedAuthorities = new ArrayList<>(names.size());
+    for (String name : names) {
+      grantedAuthorities.add(new SimpleGrantedAuthority(name));
+    }
+    this.authorities = Collections.unmodifiableList(grantedAuthorities);
+  }
+
+  /**
+   * get roles from the comma separated roles claim
+   *
+   * @param value roles claim value
+   * @return JwtRoles
+   */
+  public static JwtRoles of(String value) {
+    if (value == null || value.isEmpty()) {
+      return EMPTY;
+    }
+    JwtRoles known = KNOWN.get(value);
+    return known != null ? known : new JwtRoles(value, split(value));
+  }
+
+  /**
+   * get roles from role names
+   *
+   * @param names role names
+   * @return JwtRoles
+   */
+  public static JwtRoles of(List<String> names) {
+    if (names == null || names.isEmpty()) {
+      return EMPTY;
+    }
+    return of(String.join(String.valueOf(DELIMITER), names));
+  }
+
+  private static List<String> split(String value) {
+    List<String> names = new ArrayList<>(2);
+    int start = 0;
+    int end;
+    while ((end = value.indexOf(DELIMITER, start)) >= 0) {
+      names.add(value.substring(start, end));
+      start = end + 1;
+    }
+    names.add(value.substring(start));
+    return Collections.unmodifiableList(names);
+  }
+
+  private static Map<String, JwtRoles> buildKnownRoles() {
+    Map<String, JwtRoles> known = new HashMap<>();
+    for (String first : SecurityConstants.KNOWN_ROLES) {
+      known.put(first, new JwtRoles(first, List.of(first)));
+      for (String second : SecurityConstants.KNOWN_ROLES) {
+        if (!first.equals(second)) {
+          String value = first + DELIMITER + second;
+          known.put(value, new JwtRoles(value, List.of(first, second)));
+        }
+      }
+    }
+    return Map.copyOf(known);
+  }
+}
@@ -1,13 +1,36 @@
 package com.zfb.security;
 
+import java.time.Instant;
 import java.util.List;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Getter;
 
 @Getter
-@AllArgsConstructor
 public class JwtTokenClaims {
   private final String userId;
   private final String email;
-  private final List<String> roles;
+
+  @Getter(AccessLevel.NONE)
+  private final JwtRoles roles;
+
+  private final Instant expiration;
+
+  public JwtTokenClaims(String userId, String email, List<String> roles) {
+    this(userId, email, JwtRoles.of(roles), null);
+  }
+
+  public JwtTokenClaims(String userId, String email, JwtRoles roles, Instant expiration) {
+    this.userId = userId;
+    this.email = email;
+    this.roles = roles;
+    this.expiration = expiration;
+  }
+
+  public List<String> getRoles() {
+    return roles.getNames();
+  }
+
+  public JwtRoles getRoleSet() {
+    return roles;
+  }
 }
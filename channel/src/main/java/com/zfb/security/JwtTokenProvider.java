@@ -2,6 +2,7 @@ package com.zfb.security;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
@@ -9,12 +10,12 @@ import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
 import jakarta.annotation.PostConstruct;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import javax.crypto.SecretKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -29,31 +30,61 @@ public class JwtTokenProvider {
   @Value("${jwt.access-token-validity:3600000}")
   private long accessTokenValidity;
 
+  @Autowired(required = false)
+  private JwtClaimsCache claimsCache;
+
   private SecretKey secretKey;
 
-  /** Initialize the secret key after properties are set */
+  private JwtParser jwtParser;
+
+  /** Initialize the secret key and the thread-safe parser after properties are set */
   @PostConstruct
   public void init() {
     this.secretKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    this.jwtParser = Jwts.parser().verifyWith(secretKey).build();
   }
 
   /**
-   * Parse the token once and extract all claims.
+   * Parse the token once and extract all claims. Claims of previously verified tokens are served
+   * from the claims cache until the token expires.
    *
    * @param token
    * @return JwtTokenClaims (with userId, email, roles) or null if token is invalid
    */
   public JwtTokenClaims getAllClaimsFromToken(String token) {
+    if (claimsCache == null || token == null) {
+      return parseClaims(token);
+    }
+
+    JwtTokenClaims cached = claimsCache.get(token);
+    if (cached != null) {
+      return cached;
+    }
+
+    JwtTokenClaims claims = parseClaims(token);
+    if (claims != null) {
+      claimsCache.put(token, claims);
+    }
+    return claims;
+  }
+
+  /**
+   * Verify the signature of the token and extract all claims.
+   *
+   * @param token
+   * @return JwtTokenClaims or null if token is invalid
+   */
+  private JwtTokenClaims parseClaims(String token) {
     try {
-      Claims claims =
-          Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload();
+      Claims claims = jwtParser.parseSignedClaims(token).getPayload();
 
       String userId = claims.getSubject();
       String email = claims.get("email", String.class);
-      String rolesString = claims.get("roles", String.class);
-      List<String> roles = rolesString != null ? Arrays.asList(rolesString.split(",")) : List.of();
+      JwtRoles roles = JwtRoles.of(claims.get("roles", String.class));
+      Date expiration = claims.getExpiration();
 
-      return new JwtTokenClaims(userId, email, roles);
+      return new JwtTokenClaims(
+          userId, email, roles, expiration != null ? expiration.toInstant() : null);
     } catch (SignatureException e) {
       logger.error("Invalid JWT signature: {}", e.getMessage());
     } catch (MalformedJwtException e) {
@@ -93,7 +124,7 @@ public class JwtTokenProvider {
     return Jwts.builder()
         .subject(userId)
         .claim("email", email)
-        .claim("roles", String.join(",", roles))
+        .claim("roles", JwtRoles.of(roles).getValue())
         .issuedAt(now)
         .expiration(expiryDate)
         .signWith(secretKey)
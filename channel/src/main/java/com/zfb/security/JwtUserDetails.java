@@ -2,10 +2,8 @@ package com.zfb.security;
 
 import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
 import lombok.Getter;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 @Getter
@@ -17,10 +15,14 @@ public class JwtUserDetails implements UserDetails {
   private final Collection<? extends GrantedAuthority> authorities;
 
   public JwtUserDetails(String userId, String email, List<String> roles) {
+    this(userId, email, JwtRoles.of(roles));
+  }
+
+  public JwtUserDetails(String userId, String email, JwtRoles roles) {
     this.userId = userId;
     this.email = email;
-    this.roles = roles;
-    this.authorities = roles.stream().map(SimpleGrantedAuthority::new).collect(Collectors.toList());
+    this.roles = roles.getNames();
+    this.authorities = roles.getAuthorities();
   }
 
   @Override
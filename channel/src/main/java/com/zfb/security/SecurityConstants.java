@@ -1,5 +1,7 @@
 package com.zfb.security;
 
+import java.util.List;
+
 public class SecurityConstants {
 
   public static final String[] PUBLIC_PATHS = {
@@ -21,5 +23,10 @@ public class SecurityConstants {
   public static final String HEADER_USER_EMAIL = "X-User-Email";
   public static final String HEADER_USER_ROLES = "X-User-Roles";
 
+  public static final String ROLE_USER = "ROLE_USER";
+  public static final String ROLE_ADMIN = "ROLE_ADMIN";
+
+  public static final List<String> KNOWN_ROLES = List.of(ROLE_USER, ROLE_ADMIN);
+
   private SecurityConstants() {}
 }
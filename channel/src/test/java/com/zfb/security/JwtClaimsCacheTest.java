@@ -0,0 +1,116 @@
+package com.zfb.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class JwtClaimsCacheTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private JwtClaimsCache claimsCache;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    claimsCache = new JwtClaimsCache(meterRegistry, 100);
+  }
+
+  @Test
+  @DisplayName("put and get cached claims success")
+  void putAndGet_Success() {
+    // given
+    JwtTokenClaims claims =
+        new JwtTokenClaims(
+            "user123", "test@example.com", JwtRoles.of("ROLE_USER"), Instant.now().plusSeconds(60));
+
+    // when
+    claimsCache.put("token", claims);
+
+    // then
+    assertThat(claimsCache.get("token")).isSameAs(claims);
+    assertThat(claimsCache.get("other-token")).isNull();
+  }
+
+  @Test
+  @DisplayName("put expired or non-expiring claims not cached")
+  void put_ExpiredClaims_NotCached() {
+    // given
+    JwtTokenClaims expired =
+        new JwtTokenClaims(
+            "user123", "test@example.com", JwtRoles.of("ROLE_USER"), Instant.now().minusSeconds(1));
+    JwtTokenClaims noExpiration =
+        new JwtTokenClaims("user123", "test@example.com", List.of("ROLE_USER"));
+
+    // when
+    claimsCache.put("expired", expired);
+    claimsCache.put("no-expiration", noExpiration);
+
+    // then
+    assertThat(claimsCache.get("expired")).isNull();
+    assertThat(claimsCache.get("no-expiration")).isNull();
+    assertThat(claimsCache.estimatedSize()).isZero();
+  }
+
+  @Test
+  @DisplayName("cache hits and misses published to meter registry")
+  void metrics_Published() {
+    // given
+    JwtTokenClaims claims =
+        new JwtTokenClaims(
+            "user123", "test@example.com", JwtRoles.of("ROLE_USER"), Instant.now().plusSeconds(60));
+    claimsCache.put("token", claims);
+
+    // when
+    claimsCache.get("token");
+    claimsCache.get("missing");
+
+    // then
+    assertThat(
+            meterRegistry
+                .get("cache.gets")
+                .tag("cache", JwtClaimsCache.CACHE_NAME)
+                .tag("result", "hit")
+                .functionCounter()
+                .count())
+        .isEqualTo(1.0);
+    assertThat(
+            meterRegistry
+                .get("cache.gets")
+                .tag("cache", JwtClaimsCache.CACHE_NAME)
+                .tag("result", "miss")
+                .functionCounter()
+                .count())
+        .isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("token provider serves verified claims from cache")
+  void tokenProvider_UsesCache() {
+    // given
+    JwtTokenProvider jwtTokenProvider = new JwtTokenProvider();
+    ReflectionTestUtils.setField(
+        jwtTokenProvider, "jwtSecret", "test-secret-key-which-must-be-at-least-256-bits-long");
+    ReflectionTestUtils.setField(jwtTokenProvider, "accessTokenValidity", 3600000L);
+    ReflectionTestUtils.setField(jwtTokenProvider, "claimsCache", claimsCache);
+    jwtTokenProvider.init();
+    String token =
+        jwtTokenProvider.generateToken("user123", "test@example.com", List.of("ROLE_USER"));
+
+    // when
+    JwtTokenClaims first = jwtTokenProvider.getAllClaimsFromToken(token);
+    JwtTokenClaims second = jwtTokenProvider.getAllClaimsFromToken(token);
+
+    // then
+    assertThat(first).isNotNull();
+    assertThat(first.getExpiration()).isAfter(Instant.now());
+    assertThat(second).isSameAs(first);
+    assertThat(jwtTokenProvider.getAllClaimsFromToken("invalid.jwt.token")).isNull();
+    assertThat(claimsCache.estimatedSize()).isEqualTo(1);
+  }
+}
@@ -0,0 +1,47 @@
+package com.zfb.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+class JwtRolesTest {
+
+  @Test
+  @DisplayName("known roles are shared instances")
+  void of_KnownRoles_ReturnsSharedInstance() {
+    // when
+    JwtRoles first = JwtRoles.of("ROLE_USER,ROLE_ADMIN");
+    JwtRoles second = JwtRoles.of(List.of("ROLE_USER", "ROLE_ADMIN"));
+
+    // then
+    assertThat(first).isSameAs(second);
+    assertThat(first.getNames()).containsExactly("ROLE_USER", "ROLE_ADMIN");
+    assertThat(first.getAuthorities())
+        .extracting(GrantedAuthority::getAuthority)
+        .containsExactly("ROLE_USER", "ROLE_ADMIN");
+  }
+
+  @Test
+  @DisplayName("unknown roles are parsed")
+  void of_UnknownRoles_Parsed() {
+    // when
+    JwtRoles roles = JwtRoles.of("ROLE_USER,ROLE_AUDITOR,ROLE_ADMIN");
+
+    // then
+    assertThat(roles.getValue()).isEqualTo("ROLE_USER,ROLE_AUDITOR,ROLE_ADMIN");
+    assertThat(roles.getNames()).containsExactly("ROLE_USER", "ROLE_AUDITOR", "ROLE_ADMIN");
+    assertThat(roles.getAuthorities()).hasSize(3);
+  }
+
+  @Test
+  @DisplayName("empty roles claim returns empty roles")
+  void of_Empty_ReturnsEmpty() {
+    // then
+    assertThat(JwtRoles.of((String) null).getNames()).isEmpty();
+    assertThat(JwtRoles.of("").getAuthorities()).isEmpty();
+    assertThat(JwtRoles.of(List.of()).getValue()).isEmpty();
+  }
+}
@@ -0,0 +1,103 @@
+package com.zfb.cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+
+/**
+ * Cache that repeats every eviction after a delay. A read that loaded a row before a write
+ * committed can put the old value back after the write's eviction; the second eviction removes it,
+ * so the stale value is served for at most the delay instead of the whole ttl.
+ */
+public class DoubleEvictionCache implements Cache {
+
+  private static final Logger logger = LoggerFactory.getLogger(DoubleEvictionCache.class);
+
+  private final Cache delegate;
+  private final ScheduledExecutorService scheduler;
+  private final long delayMillis;
+
+  public DoubleEvictionCache(Cache delegate, ScheduledExecutorService scheduler, long delayMillis) {
+    this.delegate = delegate;
+    this.scheduler = scheduler;
+    this.delayMillis = delayMillis;
+  }
+
+  @Override
+  public String getName() {
+    return delegate.getName();
+  }
+
+  @Override
+  public Object getNativeCache() {
+    return delegate.getNativeCache();
+  }
+
+  @Override
+  public ValueWrapper get(Object key) {
+    return delegate.get(key);
+  }
+
+  @Override
+  public <T> T get(Object key, Class<T> type) {
+    return delegate.get(key, type);
+  }
+
+  @Override
+  public <T> T get(Object key, Callable<T> valueLoader) {
+    return delegate.get(key, valueLoader);
+  }
+
+  @Override
+  public void put(Object key, Object value) {
+    delegate.put(key, value);
+  }
+
+  @Override
+  public ValueWrapper putIfAbsent(Object key, Object value) {
+    return delegate.putIfAbsent(key, value);
+  }
+
+  @Override
+  public void evict(Object key) {
+    delegate.evict(key);
+    later(() -> delegate.evict(key));
+  }
+
+  @Override
+  public boolean evictIfPresent(Object key) {
+    boolean evicted = delegate.evictIfPresent(key);
+    later(() -> delegate.evict(key));
+    return evicted;
+  }
+
+  @Override
+  public void clear() {
+    delegate.clear();
+    later(delegate::clear);
+  }
+
+  @Override
+  public boolean invalidate() {
+    boolean invalidated = delegate.invalidate();
+    later(delegate::clear);
+    return invalidated;
+  }
+
+  private void later(Runnable eviction) {
+    scheduler.schedule(
+        () -> {
+          try {
+            eviction.run();
+          } catch (RuntimeException e) {
+            // the entry still expires with its ttl
+            logger.warn("Failed to repeat eviction in cache {}", getName(), e);
+          }
+        },
+        delayMillis,
+        TimeUnit.MILLISECONDS);
+  }
+}
@@ -0,0 +1,49 @@
+package com.zfb.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * Cache manager whose caches evict every entry a second time after {@code delay}, see {@link
+ * DoubleEvictionCache}. The repeated evictions run on one daemon thread.
+ */
+public class DoubleEvictionCacheManager implements CacheManager {
+
+  private final CacheManager delegate;
+  private final long delayMillis;
+  private final ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().name("cache-second-eviction").daemon().factory());
+  private final ConcurrentMap<String, DoubleEvictionCache> caches = new ConcurrentHashMap<>();
+
+  public DoubleEvictionCacheManager(CacheManager delegate, Duration delay) {
+    this.delegate = delegate;
+    this.delayMillis = delay.toMillis();
+  }
+
+  @Override
+  public Cache getCache(String name) {
+    DoubleEvictionCache cache = caches.get(name);
+    if (cache != null) {
+      return cache;
+    }
+
+    Cache delegateCache = delegate.getCache(name);
+    if (delegateCache == null) {
+      return null;
+    }
+    return caches.computeIfAbsent(
+        name, n -> new DoubleEvictionCache(delegateCache, scheduler, delayMillis));
+  }
+
+  @Override
+  public Collection<String> getCacheNames() {
+    return delegate.getCacheNames();
+  }
+}
@@ -0,0 +1,146 @@
+package com.zfb.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import java.util.concurrent.Callable;
+import java.util.function.BiConsumer;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+/**
+ * Cache that keeps recently read values in an in-process near cache in front of a shared remote
+ * cache. Reads are served from the near cache when possible and fall back to the remote cache,
+ * copying the value into the near cache. Evictions are applied to both tiers and announced to the
+ * other instances through the invalidation callback so they drop their near copy as well.
+ */
+public class TwoTierCache implements org.springframework.cache.Cache {
+
+  private final String name;
+  private final Cache<String, Object> nearCache;
+  private final org.springframework.cache.Cache remoteCache;
+  private final BiConsumer<String, String> invalidationPublisher;
+
+  public TwoTierCache(
+      String name,
+      Cache<String, Object> nearCache,
+      org.springframework.cache.Cache remoteCache,
+      BiConsumer<String, String> invalidationPublisher) {
+    this.name = name;
+    this.nearCache = nearCache;
+    this.remoteCache = remoteCache;
+    this.invalidationPublisher = invalidationPublisher;
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public Object getNativeCache() {
+    return remoteCache.getNativeCache();
+  }
+
+  @Override
+  public ValueWrapper get(Object key) {
+    String nearKey = nearKey(key);
+    Object value = nearCache.getIfPresent(nearKey);
+    if (value != null) {
+      return new SimpleValueWrapper(value);
+    }
+
+    ValueWrapper wrapper = remoteCache.get(key);
+    if (wrapper != null && wrapper.get() != null) {
+      nearCache.put(nearKey, wrapper.get());
+    }
+    return wrapper;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(Object key, Class<T> type) {
+    ValueWrapper wrapper = get(key);
+    Object value = wrapper != null ? wrapper.get() : null;
+    if (value != null && type != null && !type.isInstance(value)) {
+      throw new IllegalStateException(
+          "cached value is not of required type [" + type.getName() + "]: " + value);
+    }
+    return (T) value;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(Object key, Callable<T> valueLoader) {
+    String nearKey = nearKey(key);
+    Object value = nearCache.getIfPresent(nearKey);
+    if (value != null) {
+      return (T) value;
+    }
+
+    T loaded = remoteCache.get(key, valueLoader);
+    if (loaded != null) {
+      nearCache.put(nearKey, loaded);
+    }
+    return loaded;
+  }
+
+  @Override
+  public void put(Object key, Object value) {
+    remoteCache.put(key, value);
+    if (value != null) {
+      nearCache.put(nearKey(key), value);
+    }
+  }
+
+  @Override
+  public ValueWrapper putIfAbsent(Object key, Object value) {
+    ValueWrapper existing = remoteCache.putIfAbsent(key, value);
+    nearCache.invalidate(nearKey(key));
+    return existing;
+  }
+
+  @Override
+  public void evict(Object key) {
+    remoteCache.evict(key);
+    nearCache.invalidate(nearKey(key));
+    invalidationPublisher.accept(name, nearKey(key));
+  }
+
+  @Override
+  public boolean evictIfPresent(Object key) {
+    boolean evicted = remoteCache.evictIfPresent(key);
+    nearCache.invalidate(nearKey(key));
+    invalidationPublisher.accept(name, nearKey(key));
+    return evicted;
+  }
+
+  @Override
+  public void clear() {
+    remoteCache.clear();
+    nearCache.invalidateAll();
+    invalidationPublisher.accept(name, null);
+  }
+
+  @Override
+  public boolean invalidate() {
+    boolean invalidated = remoteCache.invalidate();
+    nearCache.invalidateAll();
+    invalidationPublisher.accept(name, null);
+    return invalidated;
+  }
+
+  /**
+   * drop the near copy of an entry after another instance evicted it
+   *
+   * @param key near cache key, null to drop every entry
+   */
+  void invalidateNear(String key) {
+    if (key == null) {
+      nearCache.invalidateAll();
+    } else {
+      nearCache.invalidate(key);
+    }
+  }
+
+  private static String nearKey(Object key) {
+    return String.valueOf(key);
+  }
+}
@@ -0,0 +1,85 @@
+package com.zfb.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.redisson.api.RTopic;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * Cache manager that puts a Caffeine near cache in front of every cache of the remote cache
+ * manager. Evictions are broadcast on a Redis topic so every instance drops its near copy; messages
+ * sent by this instance are ignored on receipt.
+ *
+ * <p>Message format: {@code origin \n cacheName [\n key]}, without a key when the whole cache is
+ * cleared.
+ */
+public class TwoTierCacheManager implements CacheManager {
+
+  private static final Logger logger = LoggerFactory.getLogger(TwoTierCacheManager.class);
+
+  private static final String SEPARATOR = "\n";
+
+  private final CacheManager remoteCacheManager;
+  private final Caffeine<Object, Object> nearCacheBuilder;
+  private final RTopic invalidationTopic;
+  private final String instanceId = UUID.randomUUID().toString();
+  private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+
+  public TwoTierCacheManager(
+      CacheManager remoteCacheManager,
+      Caffeine<Object, Object> nearCacheBuilder,
+      RTopic invalidationTopic) {
+    this.remoteCacheManager = remoteCacheManager;
+    this.nearCacheBuilder = nearCacheBuilder;
+    this.invalidationTopic = invalidationTopic;
+    invalidationTopic.addListener(String.class, (channel, message) -> onInvalidation(message));
+  }
+
+  @Override
+  public Cache getCache(String name) {
+    TwoTierCache cache = caches.get(name);
+    if (cache != null) {
+      return cache;
+    }
+
+    Cache remoteCache = remoteCacheManager.getCache(name);
+    if (remoteCache == null) {
+      return null;
+    }
+    return caches.computeIfAbsent(
+        name, n -> new TwoTierCache(n, nearCacheBuilder.build(), remoteCache, this::publish));
+  }
+
+  @Override
+  public Collection<String> getCacheNames() {
+    return remoteCacheManager.getCacheNames();
+  }
+
+  private void publish(String cacheName, String key) {
+    String message = instanceId + SEPARATOR + cacheName + (key != null ? SEPARATOR + key : "");
+    try {
+      invalidationTopic.publish(message);
+    } catch (Exception e) {
+      // remote instances fall back to the near cache ttl
+      logger.warn("Failed to publish cache invalidation for cache {}", cacheName, e);
+    }
+  }
+
+  void onInvalidation(String message) {
+    String[] parts = message.split(SEPARATOR, 3);
+    if (parts.length < 2 || instanceId.equals(parts[0])) {
+      return;
+    }
+
+    TwoTierCache cache = caches.get(parts[1]);
+    if (cache != null) {
+      cache.invalidateNear(parts.length == 3 ? parts[2] : null);
+    }
+  }
+}
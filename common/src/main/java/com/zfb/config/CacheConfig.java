@@ -1,10 +1,22 @@
 package com.zfb.config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zfb.cache.DoubleEvictionCacheManager;
+import com.zfb.cache.TwoTierCacheManager;
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
@@ -15,8 +27,38 @@ import org.springframework.data.redis.serializer.RedisSerializer;
 @EnableCaching
 public class CacheConfig {
 
+  private static final String INVALIDATION_TOPIC = "zfb:cache:invalidation";
+  private static final String CACHE_TTLS_PREFIX = "common.cache.ttls";
+
+  @Value("${common.cache.near.enabled:true}")
+  private boolean nearCacheEnabled;
+
+  @Value("${common.cache.near.ttl:10s}")
+  private Duration nearCacheTtl;
+
+  @Value("${common.cache.near.maximum-size:10000}")
+  private long nearCacheMaximumSize;
+
+  @Value("${common.cache.second-eviction-delay:1s}")
+  private Duration secondEvictionDelay;
+
+  /**
+   * Redis cache with an optional in-process near cache in front of it. Puts and evictions made
+   * inside a transaction are applied after commit, so readers never cache a value that is rolled
+   * back. A read that loaded the row before the commit can still put the old value back after the
+   * eviction, so every eviction is repeated after {@code common.cache.second-eviction-delay} (0
+   * turns this off); a stale value then lives for at most that delay, unless the read took longer
+   * than the delay between loading and caching, in which case it lives until its ttl.
+   *
+   * <p>Entries expire after one minute in Redis unless {@code common.cache.ttls} sets a ttl for the
+   * cache, e.g. {@code common.cache.ttls.[forex:verification]: 30s}. The near cache keeps entries
+   * for at most {@code common.cache.near.ttl}.
+   */
   @Bean
-  public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory) {
+  public CacheManager cacheManager(
+      RedisConnectionFactory redisConnectionFactory,
+      RedissonClient redissonClient,
+      Environment environment) {
     RedisCacheConfiguration defaultConfig =
         RedisCacheConfiguration.defaultCacheConfig()
             .entryTtl(Duration.ofMinutes(1))
@@ -24,12 +66,44 @@ public class CacheConfig {
                 RedisSerializationContext.SerializationPair.fromSerializer(
                     RedisSerializer.string()))
             .serializeValuesWith(
-                RedisSerializationContext.SerializationPair.fromSerializer(RedisSerializer.json()))
+                RedisSerializationContext.SerializationPair.fromSerializer(valueSerializer()))
             .disableCachingNullValues();
 
-    return RedisCacheManager.builder(redisConnectionFactory)
-        .cacheDefaults(defaultConfig)
-        .transactionAware()
-        .build();
+    Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
+    Binder.get(environment)
+        .bind(CACHE_TTLS_PREFIX, Bindable.mapOf(String.class, Duration.class))
+        .orElse(Map.of())
+        .forEach((name, ttl) -> cacheConfigurations.put(name, defaultConfig.entryTtl(ttl)));
+
+    RedisCacheManager redisCacheManager =
+        RedisCacheManager.builder(redisConnectionFactory)
+            .cacheDefaults(defaultConfig)
+            .withInitialCacheConfigurations(cacheConfigurations)
+            .build();
+    redisCacheManager.afterPropertiesSet();
+
+    CacheManager cacheManager = redisCacheManager;
+    if (nearCacheEnabled) {
+      Caffeine<Object, Object> nearCacheBuilder =
+          Caffeine.newBuilder().expireAfterWrite(nearCacheTtl).maximumSize(nearCacheMaximumSize);
+      cacheManager =
+          new TwoTierCacheManager(
+              redisCacheManager,
+              nearCacheBuilder,
+              redissonClient.getTopic(INVALIDATION_TOPIC, StringCodec.INSTANCE));
+    }
+    if (secondEvictionDelay.isPositive()) {
+      cacheManager = new DoubleEvictionCacheManager(cacheManager, secondEvictionDelay);
+    }
+    return new TransactionAwareCacheManagerProxy(cacheManager);
+  }
+
+  /**
+   * serializer of cached values, shared with tests that check cached dtos survive a round trip
+   *
+   * @return value serializer
+   */
+  public static RedisSerializer<Object> valueSerializer() {
+    return RedisSerializer.json();
   }
 }
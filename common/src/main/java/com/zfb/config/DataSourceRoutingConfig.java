@@ -0,0 +1,119 @@
+package com.zfb.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import com.zfb.datasource.DataSourceAspect;
+import com.zfb.datasource.DataSourceType;
+import com.zfb.datasource.ReadYourWritesTracker;
+import com.zfb.datasource.ReplicaBalancing;
+import com.zfb.datasource.ReplicaLagMonitor;
+import com.zfb.datasource.ReplicaRouter;
+import com.zfb.datasource.RoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+/**
+ * Read/write routing for services with read replicas, enabled by {@code
+ * common.datasource.routing.enabled}. The master pool is configured by the standard {@code
+ * spring.datasource.*} and {@code spring.datasource.hikari.*} properties; each entry of {@code
+ * spring.datasource.replicas} is a replica with its own Hikari pool settings.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "common.datasource.routing", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+  private static final String REPLICAS_PREFIX = "spring.datasource.replicas";
+
+  @Bean
+  @ConfigurationProperties(prefix = "spring.datasource.hikari")
+  public HikariDataSource masterDataSource(DataSourceProperties properties) {
+    HikariDataSource dataSource =
+        properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    dataSource.setPoolName("master");
+    return dataSource;
+  }
+
+  @Bean
+  public ReplicaRouter replicaRouter(
+      Environment environment,
+      @Value("${common.datasource.replica.balancing:LEAST_IN_FLIGHT}") ReplicaBalancing balancing,
+      MeterRegistry meterRegistry) {
+
+    List<HikariDataSource> dataSources =
+        Binder.get(environment)
+            .bind(REPLICAS_PREFIX, Bindable.listOf(HikariDataSource.class))
+            .orElse(List.of());
+
+    Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+    for (int i = 0; i < dataSources.size(); i++) {
+      HikariDataSource dataSource = dataSources.get(i);
+      if (!StringUtils.hasText(dataSource.getPoolName())) {
+        dataSource.setPoolName("replica-" + i);
+      }
+      dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+      replicas.put(dataSource.getPoolName(), dataSource);
+    }
+
+    if (replicas.isEmpty()) {
+      log.warn("no read replicas configured, read-only transactions use the master");
+    }
+    return new ReplicaRouter(replicas, balancing);
+  }
+
+  @Bean
+  public ReplicaLagMonitor replicaLagMonitor(
+      ReplicaRouter replicaRouter,
+      @Value("${common.datasource.replica.max-lag-seconds:2}") long maxLagSeconds) {
+    return new ReplicaLagMonitor(replicaRouter, maxLagSeconds);
+  }
+
+  @Bean
+  public DataSource routingDataSource(
+      @Qualifier("masterDataSource") DataSource masterDataSource,
+      ReplicaRouter replicaRouter,
+      ReadYourWritesTracker readYourWritesTracker,
+      MeterRegistry meterRegistry) {
+
+    RoutingDataSource routingDataSource =
+        new RoutingDataSource(replicaRouter, readYourWritesTracker, meterRegistry);
+
+    Map<Object, Object> dataSourceMap = new HashMap<>();
+    dataSourceMap.put(DataSourceType.MASTER, masterDataSource);
+    dataSourceMap.putAll(replicaRouter.getReplicas());
+
+    routingDataSource.setTargetDataSources(dataSourceMap);
+    routingDataSource.setDefaultTargetDataSource(masterDataSource);
+
+    return routingDataSource;
+  }
+
+  @Primary
+  @Bean
+  public DataSource dataSource(@Qualifier("routingDataSource") DataSource routingDataSource) {
+    return new LazyConnectionDataSourceProxy(routingDataSource);
+  }
+
+  @Bean
+  public DataSourceAspect dataSourceAspect() {
+    return new DataSourceAspect();
+  }
+}
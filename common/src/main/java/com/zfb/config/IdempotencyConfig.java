@@ -0,0 +1,22 @@
+package com.zfb.config;
+
+import com.zfb.idempotency.IdempotencyAspect;
+import com.zfb.idempotency.IdempotencyStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Deduplication of client requests marked {@code @Idempotent}, on unless disabled */
+@Configuration
+@ConditionalOnProperty(
+    prefix = "common.idempotency",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class IdempotencyConfig {
+
+  @Bean
+  public IdempotencyAspect idempotencyAspect(IdempotencyStore idempotencyStore) {
+    return new IdempotencyAspect(idempotencyStore);
+  }
+}
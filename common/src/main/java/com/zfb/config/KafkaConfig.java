@@ -8,12 +8,15 @@ import lombok.Getter;
 import lombok.Setter;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
@@ -21,15 +24,21 @@ import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.util.backoff.FixedBackOff;
 
 @EnableKafka
 @Configuration
 @EnableConfigurationProperties(KafkaConfig.KafkaProperties.class)
 public class KafkaConfig {
 
+  private static final String DEAD_LETTER_SUFFIX = ".DLT";
+
   @Getter
   @Setter
   @ConfigurationProperties(prefix = "spring.kafka")
@@ -60,6 +69,20 @@ public class KafkaConfig {
   @Bean
   @SuppressWarnings("deprecation")
   public ProducerFactory<String, Object> producerFactory(KafkaProperties kafkaProperties) {
+    Map<String, Object> props = producerProperties(kafkaProperties);
+
+    JsonSerializer<Object> valueSerializer = new JsonSerializer<>();
+
+    return new DefaultKafkaProducerFactory<>(props, new StringSerializer(), valueSerializer);
+  }
+
+  /**
+   * get the producer properties shared by all producer factories
+   *
+   * @param kafkaProperties
+   * @return bootstrap servers and {@code spring.kafka.producer.properties}
+   */
+  static Map<String, Object> producerProperties(KafkaProperties kafkaProperties) {
     Map<String, Object> props = new HashMap<>();
     if (!kafkaProperties.getBootstrapServers().isEmpty()) {
       props.put(
@@ -67,15 +90,89 @@ public class KafkaConfig {
           String.join(",", kafkaProperties.getBootstrapServers()));
     }
     props.putAll(kafkaProperties.getProducer().getProperties());
+    return props;
+  }
 
-    JsonSerializer<Object> valueSerializer = new JsonSerializer<>();
+  @Bean
+  public ConsumerFactory<String, Object> consumerFactory(KafkaProperties kafkaProperties) {
+    return consumerFactory(consumerProperties(kafkaProperties));
+  }
 
-    return new DefaultKafkaProducerFactory<>(props, new StringSerializer(), valueSerializer);
+  /**
+   * listener container factory. With {@code spring.threads.virtual.enabled} the consumer threads
+   * are virtual threads, as Boot would configure for its own factory.
+   */
+  @Bean
+  public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory(
+      KafkaProperties kafkaProperties,
+      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsEnabled) {
+    ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+        new ConcurrentKafkaListenerContainerFactory<>();
+    factory.setConsumerFactory(consumerFactory(kafkaProperties));
+    factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+    if (virtualThreadsEnabled) {
+      SimpleAsyncTaskExecutor listenerTaskExecutor = new SimpleAsyncTaskExecutor("kafka-listener-");
+      listenerTaskExecutor.setVirtualThreads(true);
+      factory.getContainerProperties().setListenerTaskExecutor(listenerTaskExecutor);
+    }
+    return factory;
   }
 
+  /**
+   * batch listener container factory for bulk consumers, e.g. {@code @KafkaListener(topics = ...,
+   * containerFactory = "batchKafkaListenerContainerFactory")} on a method taking a {@code
+   * List<ConsumerRecord<String, Object>>} and an {@code Acknowledgment}. One {@code acknowledge()}
+   * commits the whole poll.
+   *
+   * <p>A listener that fails part of a batch throws {@link BatchListenerFailedException} with the
+   * index of the failed record: the offsets before it are committed and the batch is redelivered
+   * from that record, so records already applied are not processed again. After {@code
+   * common.kafka.batch.retry.max-attempts} the record is published to {@code <topic>.DLT} and
+   * consumption continues. Any other exception retries the whole batch.
+   */
   @Bean
-  @SuppressWarnings("deprecation")
-  public ConsumerFactory<String, Object> consumerFactory(KafkaProperties kafkaProperties) {
+  public ConcurrentKafkaListenerContainerFactory<String, Object> batchKafkaListenerContainerFactory(
+      KafkaProperties kafkaProperties,
+      KafkaTemplate<String, Object> kafkaTemplate,
+      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsEnabled,
+      @Value("${common.kafka.batch.concurrency:3}") int concurrency,
+      @Value("${common.kafka.batch.max-poll-records:500}") int maxPollRecords,
+      @Value("${common.kafka.batch.retry.interval:1000}") long retryInterval,
+      @Value("${common.kafka.batch.retry.max-attempts:3}") long retryMaxAttempts) {
+    Map<String, Object> props = consumerProperties(kafkaProperties);
+    props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+
+    ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+        new ConcurrentKafkaListenerContainerFactory<>();
+    factory.setConsumerFactory(consumerFactory(props));
+    factory.setBatchListener(true);
+    factory.setConcurrency(concurrency);
+    factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+
+    DeadLetterPublishingRecoverer recoverer =
+        new DeadLetterPublishingRecoverer(
+            kafkaTemplate,
+            (record, e) -> new TopicPartition(record.topic() + DEAD_LETTER_SUFFIX, -1));
+    factory.setCommonErrorHandler(
+        new DefaultErrorHandler(
+            recoverer, new FixedBackOff(retryInterval, Math.max(0, retryMaxAttempts - 1))));
+
+    if (virtualThreadsEnabled) {
+      SimpleAsyncTaskExecutor listenerTaskExecutor =
+          new SimpleAsyncTaskExecutor("kafka-batch-listener-");
+      listenerTaskExecutor.setVirtualThreads(true);
+      factory.getContainerProperties().setListenerTaskExecutor(listenerTaskExecutor);
+    }
+    return factory;
+  }
+
+  /**
+   * get the consumer properties shared by all consumer factories
+   *
+   * @param kafkaProperties
+   * @return bootstrap servers, group id and {@code spring.kafka.consumer.properties}
+   */
+  static Map<String, Object> consumerProperties(KafkaProperties kafkaProperties) {
     Map<String, Object> props = new HashMap<>();
     if (!kafkaProperties.getBootstrapServers().isEmpty()) {
       props.put(
@@ -87,21 +184,15 @@ public class KafkaConfig {
       props.put(ConsumerConfig.GROUP_ID_CONFIG, kafkaProperties.getConsumer().getGroupId());
     }
     props.putAll(kafkaProperties.getConsumer().getProperties());
+    return props;
+  }
 
+  @SuppressWarnings("deprecation")
+  private static ConsumerFactory<String, Object> consumerFactory(Map<String, Object> props) {
     JsonDeserializer<Object> valueDeserializer = new JsonDeserializer<>();
     valueDeserializer.addTrustedPackages("*");
     valueDeserializer.setUseTypeMapperForKey(false);
 
     return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), valueDeserializer);
   }
-
-  @Bean
-  public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory(
-      KafkaProperties kafkaProperties) {
-    ConcurrentKafkaListenerContainerFactory<String, Object> factory =
-        new ConcurrentKafkaListenerContainerFactory<>();
-    factory.setConsumerFactory(consumerFactory(kafkaProperties));
-    factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
-    return factory;
-  }
 }
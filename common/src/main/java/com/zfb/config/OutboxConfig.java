@@ -0,0 +1,61 @@
+package com.zfb.config;
+
+import com.zfb.lock.DistributedLockService;
+import com.zfb.outbox.OutboxRelay;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+/**
+ * Relay of the transactional outbox, enabled by {@code common.outbox.enabled} in the services that
+ * write events. The relay has its own producer that sends the stored payload bytes as they are,
+ * with the batching, compression and idempotence settings of {@code spring.kafka.producer}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "common.outbox", name = "enabled", havingValue = "true")
+public class OutboxConfig {
+
+  @Bean
+  public KafkaTemplate<String, byte[]> outboxKafkaTemplate(
+      KafkaConfig.KafkaProperties kafkaProperties) {
+    return new KafkaTemplate<>(
+        new DefaultKafkaProducerFactory<>(
+            KafkaConfig.producerProperties(kafkaProperties),
+            new StringSerializer(),
+            new ByteArraySerializer()));
+  }
+
+  @Bean
+  public OutboxRelay outboxRelay(
+      JdbcTemplate jdbcTemplate,
+      DistributedLockService distributedLockService,
+      KafkaTemplate<String, byte[]> outboxKafkaTemplate,
+      MeterRegistry meterRegistry,
+      @Value("${common.outbox.table:outbox_events}") String table,
+      @Value("${common.outbox.relay.batch-size:500}") int batchSize,
+      @Value("${common.outbox.relay.max-batches:20}") int maxBatches,
+      @Value("${common.outbox.relay.send-timeout:10000}") long sendTimeoutMillis,
+      @Value("${common.outbox.initialize-schema:false}") boolean initializeSchema) {
+    OutboxRelay relay =
+        new OutboxRelay(
+            jdbcTemplate,
+            distributedLockService,
+            outboxKafkaTemplate,
+            meterRegistry,
+            table,
+            batchSize,
+            maxBatches,
+            sendTimeoutMillis);
+    if (initializeSchema) {
+      relay.initializeSchema();
+    }
+    return relay;
+  }
+}
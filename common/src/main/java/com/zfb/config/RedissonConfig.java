@@ -27,9 +27,13 @@ public class RedissonConfig {
   @Value("${spring.data.redis.database:0}")
   private int redisDatabase;
 
+  @Value("${common.lock.watchdog-timeout:30000}")
+  private long lockWatchdogTimeout;
+
   @Bean
   public RedissonClient redissonClient() {
     Config config = new Config();
+    config.setLockWatchdogTimeout(lockWatchdogTimeout);
 
     var serverConfig =
         config
@@ -0,0 +1,76 @@
+package com.zfb.datasource;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.Order;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Aspect
+@Order(0)
+public class DataSourceAspect {
+
+  private final ExpressionParser expressionParser = new SpelExpressionParser();
+  private final ParameterNameDiscoverer parameterNameDiscoverer =
+      new DefaultParameterNameDiscoverer();
+  private final Map<String, Expression> expressions = new ConcurrentHashMap<>();
+
+  @Around("@annotation(transactional)")
+  public Object determineDataSource(ProceedingJoinPoint joinPoint, Transactional transactional)
+      throws Throwable {
+
+    // a joined transaction keeps the connection of the outer one
+    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+      return joinPoint.proceed();
+    }
+
+    DataSourceType previousType = DataSourceContextHolder.getDataSourceType();
+    String previousKey = DataSourceContextHolder.getReadYourWritesKey();
+    try {
+      if (transactional.readOnly()) {
+        DataSourceContextHolder.setDataSourceType(DataSourceType.REPLICA);
+        DataSourceContextHolder.setReadYourWritesKey(resolveReadYourWritesKey(joinPoint));
+      } else {
+        DataSourceContextHolder.setDataSourceType(DataSourceType.MASTER);
+        DataSourceContextHolder.setReadYourWritesKey(null);
+      }
+
+      return joinPoint.proceed();
+
+    } finally {
+      if (previousType != null) {
+        DataSourceContextHolder.setDataSourceType(previousType);
+      } else {
+        DataSourceContextHolder.removeDataSourceType();
+      }
+      DataSourceContextHolder.setReadYourWritesKey(previousKey);
+    }
+  }
+
+  private String resolveReadYourWritesKey(ProceedingJoinPoint joinPoint) {
+    Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+    ReadYourWrites readYourWrites = method.getAnnotation(ReadYourWrites.class);
+    if (readYourWrites == null) {
+      return null;
+    }
+
+    Expression expression =
+        expressions.computeIfAbsent(readYourWrites.key(), expressionParser::parseExpression);
+    MethodBasedEvaluationContext context =
+        new MethodBasedEvaluationContext(
+            joinPoint.getTarget(), method, joinPoint.getArgs(), parameterNameDiscoverer);
+    Object key = expression.getValue(context);
+    return key != null ? key.toString() : null;
+  }
+}
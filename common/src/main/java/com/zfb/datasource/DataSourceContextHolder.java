@@ -0,0 +1,40 @@
+package com.zfb.datasource;
+
+import org.springframework.util.Assert;
+
+/**
+ * Routing state of the current thread. The aspect restores the previous state when a transaction
+ * ends, so the holder behaves the same on pooled platform threads and on per-request virtual
+ * threads.
+ */
+public class DataSourceContextHolder {
+
+  private static final ThreadLocal<DataSourceType> contextHolder = new ThreadLocal<>();
+
+  private static final ThreadLocal<String> readYourWritesKeyHolder = new ThreadLocal<>();
+
+  public static void setDataSourceType(DataSourceType dataSourceType) {
+    Assert.notNull(dataSourceType, "dataSourceType cannot be null");
+    contextHolder.set(dataSourceType);
+  }
+
+  public static DataSourceType getDataSourceType() {
+    return contextHolder.get();
+  }
+
+  public static void removeDataSourceType() {
+    contextHolder.remove();
+  }
+
+  public static void setReadYourWritesKey(String key) {
+    if (key == null) {
+      readYourWritesKeyHolder.remove();
+    } else {
+      readYourWritesKeyHolder.set(key);
+    }
+  }
+
+  public static String getReadYourWritesKey() {
+    return readYourWritesKeyHolder.get();
+  }
+}
@@ -1,4 +1,4 @@
-package com.zfb.forex.config;
+package com.zfb.datasource;
 
 public enum DataSourceType {
   MASTER,
@@ -0,0 +1,20 @@
+package com.zfb.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read-only transaction that must see the caller's own recent writes. When the key was
+ * written within the read-your-writes window the read is served by the master instead of a replica.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadYourWrites {
+
+  /** SpEL expression over the method parameters resolving to the written key, e.g. #uuid */
+  String key();
+}
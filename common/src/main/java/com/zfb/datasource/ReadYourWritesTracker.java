@@ -0,0 +1,97 @@
+package com.zfb.datasource;
+
+import java.time.Duration;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Remembers keys written in the last few seconds, shared by all instances of the service through
+ * Redis, so reads of those keys can be routed to the master until the replicas have caught up. Does
+ * nothing unless read/write routing is enabled.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReadYourWritesTracker {
+
+  private static final String KEY_SUFFIX = ":ryw:";
+
+  private final RedissonClient redissonClient;
+
+  @Value("${spring.application.name:zfb}")
+  private String applicationName;
+
+  @Value("${common.datasource.routing.enabled:false}")
+  private boolean routingEnabled;
+
+  @Value("${common.datasource.read-your-writes.enabled:true}")
+  private boolean readYourWritesEnabled;
+
+  @Value("${common.datasource.read-your-writes.ttl:5000}")
+  private long ttlMillis;
+
+  /**
+   * mark a key as written. Inside a transaction the mark is made after commit, before the response
+   * reaches the caller.
+   *
+   * @param key written key
+   */
+  public void markWritten(String key) {
+    if (!isEnabled() || key == null) {
+      return;
+    }
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              mark(key);
+            }
+          });
+    } else {
+      mark(key);
+    }
+  }
+
+  /**
+   * check whether a key was written within the read-your-writes window
+   *
+   * @param key key to check
+   * @return true if the key was recently written, or if that cannot be determined
+   */
+  public boolean isRecentlyWritten(String key) {
+    if (!isEnabled() || key == null) {
+      return false;
+    }
+    try {
+      return redissonClient.getBucket(markerKey(key), StringCodec.INSTANCE).isExists();
+    } catch (RuntimeException e) {
+      log.warn("read-your-writes check failed, reading from master: {}", e.getMessage());
+      return true;
+    }
+  }
+
+  private String markerKey(String key) {
+    return applicationName + KEY_SUFFIX + key;
+  }
+
+  private boolean isEnabled() {
+    return routingEnabled && readYourWritesEnabled;
+  }
+
+  private void mark(String key) {
+    try {
+      redissonClient
+          .getBucket(markerKey(key), StringCodec.INSTANCE)
+          .set("1", Duration.ofMillis(ttlMillis));
+    } catch (RuntimeException e) {
+      log.warn("read-your-writes mark failed: {}", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package com.zfb.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Periodically measures how far each replica is behind the master and ejects replicas whose lag
+ * exceeds the limit, or whose replication is stopped, from the read rotation.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ReplicaLagMonitor {
+
+  private static final String REPLICA_STATUS_QUERY = "SHOW REPLICA STATUS";
+  private static final String LAG_COLUMN = "Seconds_Behind_Source";
+  private static final int QUERY_TIMEOUT_SECONDS = 1;
+
+  private final ReplicaRouter replicaRouter;
+  private final long maxLagSeconds;
+
+  @Scheduled(fixedDelayString = "${common.datasource.replica.lag-check-interval:1000}")
+  public void checkReplicaLag() {
+    replicaRouter
+        .getReplicas()
+        .forEach(
+            (name, dataSource) -> {
+              try {
+                Long lagSeconds = measureLag(dataSource);
+                if (lagSeconds == null) {
+                  replicaRouter.eject(name, "replication stopped");
+                } else if (lagSeconds > maxLagSeconds) {
+                  replicaRouter.eject(name, "lag " + lagSeconds + "s");
+                } else {
+                  replicaRouter.admit(name);
+                }
+              } catch (SQLException | RuntimeException e) {
+                replicaRouter.eject(name, "lag check failed: " + e.getMessage());
+              }
+            });
+  }
+
+  /**
+   * measure replication lag of a replica
+   *
+   * @param dataSource replica data source
+   * @return lag in seconds, 0 if the server is not a replica, or null if replication is stopped
+   */
+  private Long measureLag(DataSource dataSource) throws SQLException {
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+      try (ResultSet resultSet = statement.executeQuery(REPLICA_STATUS_QUERY)) {
+        if (!resultSet.next()) {
+          return 0L;
+        }
+        long lagSeconds = resultSet.getLong(LAG_COLUMN);
+        return resultSet.wasNull() ? null : lagSeconds;
+      }
+    }
+  }
+}
@@ -0,0 +1,110 @@
+package com.zfb.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Chooses the replica that serves a read-only transaction. Replicas reported as lagging by the
+ * {@link ReplicaLagMonitor} are skipped until they catch up; when none is available the read goes
+ * to the master.
+ */
+@Slf4j
+public class ReplicaRouter implements AutoCloseable {
+
+  private final Map<String, HikariDataSource> replicas;
+  private final ReplicaBalancing balancing;
+  private final Set<String> lagging = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger next = new AtomicInteger();
+
+  private volatile List<String> available;
+
+  public ReplicaRouter(Map<String, HikariDataSource> replicas, ReplicaBalancing balancing) {
+    this.replicas = Collections.unmodifiableMap(new LinkedHashMap<>(replicas));
+    this.balancing = balancing;
+    this.available = List.copyOf(this.replicas.keySet());
+  }
+
+  /**
+   * select a replica for the next read
+   *
+   * @return replica name, or null if no replica is available
+   */
+  public String select() {
+    List<String> candidates = available;
+    if (candidates.isEmpty()) {
+      return null;
+    }
+
+    int start = Math.floorMod(next.getAndIncrement(), candidates.size());
+    if (balancing == ReplicaBalancing.ROUND_ROBIN || candidates.size() == 1) {
+      return candidates.get(start);
+    }
+
+    String selected = null;
+    int leastInFlight = Integer.MAX_VALUE;
+    for (int i = 0; i < candidates.size(); i++) {
+      String name = candidates.get((start + i) % candidates.size());
+      int inFlight = inFlight(name);
+      if (inFlight < leastInFlight) {
+        leastInFlight = inFlight;
+        selected = name;
+      }
+    }
+    return selected;
+  }
+
+  /**
+   * take a replica out of rotation
+   *
+   * @param name replica name
+   * @param reason why the replica is ejected
+   */
+  public void eject(String name, String reason) {
+    if (replicas.containsKey(name) && lagging.add(name)) {
+      log.warn("replica ejected from read rotation: replica={}, reason={}", name, reason);
+      refresh();
+    }
+  }
+
+  /**
+   * put a replica back into rotation
+   *
+   * @param name replica name
+   */
+  public void admit(String name) {
+    if (lagging.remove(name)) {
+      log.info("replica returned to read rotation: replica={}", name);
+      refresh();
+    }
+  }
+
+  public Map<String, HikariDataSource> getReplicas() {
+    return replicas;
+  }
+
+  public List<String> getAvailable() {
+    return available;
+  }
+
+  @Override
+  public void close() {
+    replicas.values().forEach(HikariDataSource::close);
+  }
+
+  private int inFlight(String name) {
+    HikariPoolMXBean pool = replicas.get(name).getHikariPoolMXBean();
+    return pool != null ? pool.getActiveConnections() : 0;
+  }
+
+  private synchronized void refresh() {
+    available = replicas.keySet().stream().filter(name -> !lagging.contains(name)).toList();
+  }
+}
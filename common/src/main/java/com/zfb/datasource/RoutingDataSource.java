@@ -0,0 +1,71 @@
+package com.zfb.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Routes read-only transactions to a replica chosen by the {@link ReplicaRouter} and everything
+ * else to the master. A read of a key the caller has just written stays on the master. The lookup
+ * runs when the connection is actually acquired, so reads answered from the cache cost nothing.
+ *
+ * <p>Every routing decision is counted in {@code datasource.routing}, tagged with the target and
+ * the reason it was chosen.
+ */
+public class RoutingDataSource extends AbstractRoutingDataSource {
+
+  static final String METRIC_NAME = "datasource.routing";
+
+  private static final String MASTER_TARGET = "master";
+
+  private final ReplicaRouter replicaRouter;
+  private final ReadYourWritesTracker readYourWritesTracker;
+
+  private final Counter readWriteCounter;
+  private final Counter readYourWritesCounter;
+  private final Counter noReplicaCounter;
+  private final Map<String, Counter> replicaCounters = new HashMap<>();
+
+  public RoutingDataSource(
+      ReplicaRouter replicaRouter,
+      ReadYourWritesTracker readYourWritesTracker,
+      MeterRegistry meterRegistry) {
+    this.replicaRouter = replicaRouter;
+    this.readYourWritesTracker = readYourWritesTracker;
+    this.readWriteCounter = counter(meterRegistry, MASTER_TARGET, "read-write");
+    this.readYourWritesCounter = counter(meterRegistry, MASTER_TARGET, "read-your-writes");
+    this.noReplicaCounter = counter(meterRegistry, MASTER_TARGET, "no-replica");
+    for (String replica : replicaRouter.getReplicas().keySet()) {
+      replicaCounters.put(replica, counter(meterRegistry, replica, "replica"));
+    }
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    if (DataSourceContextHolder.getDataSourceType() != DataSourceType.REPLICA) {
+      readWriteCounter.increment();
+      return DataSourceType.MASTER;
+    }
+    if (readYourWritesTracker.isRecentlyWritten(DataSourceContextHolder.getReadYourWritesKey())) {
+      readYourWritesCounter.increment();
+      return DataSourceType.MASTER;
+    }
+    String replica = replicaRouter.select();
+    if (replica == null) {
+      noReplicaCounter.increment();
+      return DataSourceType.MASTER;
+    }
+    replicaCounters.get(replica).increment();
+    return replica;
+  }
+
+  private static Counter counter(MeterRegistry meterRegistry, String target, String reason) {
+    return Counter.builder(METRIC_NAME)
+        .description("transactions routed to each data source")
+        .tag("target", target)
+        .tag("reason", reason)
+        .register(meterRegistry);
+  }
+}
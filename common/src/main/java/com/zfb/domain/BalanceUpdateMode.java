@@ -0,0 +1,17 @@
+package com.zfb.domain;
+
+/** How a service applies withdrawals and deposits to an account balance */
+public enum BalanceUpdateMode {
+  /** lock the account row for the whole transaction */
+  PESSIMISTIC,
+  /**
+   * read the balance and version without a lock and apply the change with an update conditional on
+   * the version, retrying a few times before falling back to the row lock
+   */
+  OPTIMISTIC,
+  /**
+   * apply the change with a single update that checks the balance and status, and read the new
+   * balance back in the same transaction; the row is only locked from the update to the commit
+   */
+  ATOMIC
+}
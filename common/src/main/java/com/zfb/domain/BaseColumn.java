@@ -1,5 +1,6 @@
 package com.zfb.domain;
 
+import com.zfb.id.UuidV7;
 import jakarta.persistence.Column;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
@@ -7,20 +8,43 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.MappedSuperclass;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import java.time.LocalDateTime;
-import java.util.UUID;
 import lombok.Getter;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
+/**
+ * Common columns of all entities.
+ *
+ * <p>Ids come from the shared {@code zfb_id_seq} sequence with a pooled optimizer, so each instance
+ * reserves {@value #ID_ALLOCATION_SIZE} ids per round trip and Hibernate can batch inserts. MySQL
+ * has no sequences, so Hibernate emulates it with a one row table.
+ *
+ * <p>The pooled optimizer treats the value it reads as the upper end of its block and hands out ids
+ * from {@code value - ID_ALLOCATION_SIZE + 1}. A table holding existing rows must therefore be
+ * seeded at least {@value #ID_ALLOCATION_SIZE} above the largest id, or up to {@code
+ * ID_ALLOCATION_SIZE - 1} existing ids are issued again:
+ *
+ * <pre>
+ * CREATE TABLE zfb_id_seq (next_val BIGINT);
+ * INSERT INTO zfb_id_seq VALUES (&lt;max id over all tables&gt; + 500);
+ * </pre>
+ */
 @Getter
 @MappedSuperclass
 @EntityListeners(AuditingEntityListener.class)
 public abstract class BaseColumn {
 
+  public static final int ID_ALLOCATION_SIZE = 500;
+
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "zfb_id")
+  @SequenceGenerator(
+      name = "zfb_id",
+      sequenceName = "zfb_id_seq",
+      allocationSize = ID_ALLOCATION_SIZE)
   private Long id;
 
   @Column(name = "uuid", unique = true, nullable = false, length = 36, updatable = false)
@@ -37,7 +61,7 @@ public abstract class BaseColumn {
   @PrePersist
   protected void generateUuid() {
     if (uuid == null) {
-      uuid = UUID.randomUUID().toString();
+      uuid = UuidV7.generateString();
     }
   }
 }
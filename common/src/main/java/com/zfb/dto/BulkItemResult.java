@@ -0,0 +1,51 @@
+package com.zfb.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Outcome of one item of a bulk request. Items are processed in chunks with a transaction each, so
+ * some items can be created while others failed; {@code index} is the position of the item in the
+ * request.
+ *
+ * @param <T> type of the created item
+ */
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResult<T> {
+  private int index;
+  private Status status;
+  private T item;
+  private String error;
+
+  public enum Status {
+    CREATED,
+    FAILED
+  }
+
+  /**
+   * create the result of a created item
+   *
+   * @param index position of the item in the request
+   * @param item created item
+   * @param <T> type of the created item
+   * @return created result
+   */
+  public static <T> BulkItemResult<T> created(int index, T item) {
+    return BulkItemResult.<T>builder().index(index).status(Status.CREATED).item(item).build();
+  }
+
+  /**
+   * create the result of a failed item
+   *
+   * @param index position of the item in the request
+   * @param error reason of the failure
+   * @param <T> type of the created item
+   * @return failed result
+   */
+  public static <T> BulkItemResult<T> failed(int index, String error) {
+    return BulkItemResult.<T>builder().index(index).status(Status.FAILED).error(error).build();
+  }
+}
@@ -0,0 +1,47 @@
+package com.zfb.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.zfb.domain.BaseColumn;
+import java.util.List;
+import java.util.function.Function;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * One page of a keyset paginated list. Unlike {@code Page} it has no total count, which would cost
+ * a count over every row of the list on each request.
+ *
+ * @param <T> type of the content
+ */
+@Getter
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorSlice<T> {
+  private List<T> content;
+  private int size;
+  private boolean hasNext;
+  private String nextCursor;
+
+  /**
+   * create a slice from rows fetched with a limit of {@code size + 1}; the extra row only tells
+   * whether there is a next page
+   *
+   * @param rows rows ordered by {@code createdAt desc, id desc}
+   * @param size page size
+   * @param mapper maps each row to its dto
+   * @param <E> type of the rows
+   * @param <T> type of the content
+   * @return slice with the cursor of its last row if there is a next page
+   */
+  public static <E extends BaseColumn, T> CursorSlice<T> of(
+      List<E> rows, int size, Function<? super E, T> mapper) {
+    boolean hasNext = rows.size() > size;
+    List<E> page = hasNext ? rows.subList(0, size) : rows;
+    return CursorSlice.<T>builder()
+        .content(page.stream().map(mapper).toList())
+        .size(size)
+        .hasNext(hasNext)
+        .nextCursor(hasNext ? KeysetCursor.after(page.get(page.size() - 1)).encode() : null)
+        .build();
+  }
+}
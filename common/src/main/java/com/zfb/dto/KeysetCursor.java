@@ -0,0 +1,60 @@
+package com.zfb.dto;
+
+import com.zfb.domain.BaseColumn;
+import com.zfb.exception.BusinessException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a list ordered by {@code createdAt desc, id desc}. The next page starts after the
+ * last row returned instead of skipping an offset, so the database seeks into the index and the
+ * cost of a page does not grow with its depth. Clients get the position as an opaque string.
+ *
+ * @param createdAt creation time of the last row returned
+ * @param id id of the last row returned, breaks ties between rows created at the same time
+ */
+public record KeysetCursor(LocalDateTime createdAt, long id) {
+
+  private static final char SEPARATOR = ',';
+
+  /**
+   * get the cursor pointing after an entity
+   *
+   * @param entity last entity of a page
+   * @return cursor
+   */
+  public static KeysetCursor after(BaseColumn entity) {
+    return new KeysetCursor(entity.getCreatedAt(), entity.getId());
+  }
+
+  /**
+   * encode the cursor for clients
+   *
+   * @return url-safe opaque string
+   */
+  public String encode() {
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString((createdAt.toString() + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * decode a cursor received from a client
+   *
+   * @param cursor value of {@link #encode()}
+   * @return cursor
+   */
+  public static KeysetCursor decode(String cursor) {
+    try {
+      String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int separator = decoded.lastIndexOf(SEPARATOR);
+      return new KeysetCursor(
+          LocalDateTime.parse(decoded.substring(0, separator)),
+          Long.parseLong(decoded.substring(separator + 1)));
+    } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+      throw new BusinessException("invalid cursor");
+    }
+  }
+}
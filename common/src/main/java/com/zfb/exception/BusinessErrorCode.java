@@ -4,7 +4,8 @@ import lombok.Getter;
 
 @Getter
 public enum BusinessErrorCode {
-  BUSINESS_ERROR("BUSINESS_ERROR");
+  BUSINESS_ERROR("BUSINESS_ERROR"),
+  REQUEST_IN_PROGRESS("REQUEST_IN_PROGRESS");
 
   private final String message;
 
@@ -0,0 +1,12 @@
+package com.zfb.export;
+
+import java.util.function.Function;
+
+/**
+ * CSV column of a statement export.
+ *
+ * @param name header of the column
+ * @param value extracts the value of the column from a row, null is written as an empty field
+ * @param <T> type of the rows
+ */
+public record StatementColumn<T>(String name, Function<T, ?> value) {}
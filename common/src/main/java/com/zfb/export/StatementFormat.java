@@ -0,0 +1,18 @@
+package com.zfb.export;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+
+/** Output formats of statement exports */
+@Getter
+@RequiredArgsConstructor
+public enum StatementFormat {
+  /** one json object per line */
+  NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+  /** header line, then one comma separated line per row */
+  CSV(new MediaType("text", "csv"), "csv");
+
+  private final MediaType mediaType;
+  private final String extension;
+}
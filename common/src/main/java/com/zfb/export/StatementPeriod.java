@@ -0,0 +1,44 @@
+package com.zfb.export;
+
+import com.zfb.exception.BusinessException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Date range of a statement, both days included.
+ *
+ * @param from first day
+ * @param to last day
+ */
+public record StatementPeriod(LocalDate from, LocalDate to) {
+
+  public static final long MAX_DAYS = 366;
+
+  public StatementPeriod {
+    if (from == null || to == null || to.isBefore(from)) {
+      throw new BusinessException("invalid statement period");
+    }
+    if (ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+      throw new BusinessException("statement period is longer than " + MAX_DAYS + " days");
+    }
+  }
+
+  /**
+   * get the start of the period
+   *
+   * @return start of the first day, inclusive
+   */
+  public LocalDateTime start() {
+    return from.atStartOfDay();
+  }
+
+  /**
+   * get the end of the period
+   *
+   * @return start of the day after the last day, exclusive
+   */
+  public LocalDateTime end() {
+    return to.plusDays(1).atStartOfDay();
+  }
+}
@@ -0,0 +1,128 @@
+package com.zfb.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Writes statement rows to a response stream as they are read, so an export holds one row in memory
+ * whatever the size of the statement. Output is flushed every {@value #FLUSH_ROWS} rows to keep the
+ * client receiving data during long exports.
+ *
+ * @param <T> type of the rows
+ */
+public class StatementWriter<T> implements AutoCloseable {
+
+  static final int FLUSH_ROWS = 500;
+
+  // leading characters that make spreadsheets evaluate a cell; such text is prefixed with a quote
+  private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+  private final Writer writer;
+  private final StatementFormat format;
+  private final JsonMapper jsonMapper;
+  private final List<StatementColumn<T>> columns;
+  private long rows;
+
+  public StatementWriter(
+      OutputStream out,
+      StatementFormat format,
+      JsonMapper jsonMapper,
+      List<StatementColumn<T>> columns) {
+    this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    this.format = format;
+    this.jsonMapper = jsonMapper;
+    this.columns = columns;
+    if (format == StatementFormat.CSV) {
+      write(header());
+    }
+  }
+
+  /**
+   * write a row
+   *
+   * @param row statement row
+   */
+  public void write(T row) {
+    write(format == StatementFormat.CSV ? csvLine(row) : jsonMapper.writeValueAsString(row));
+    if (++rows % FLUSH_ROWS == 0) {
+      try {
+        writer.flush();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    writer.flush();
+  }
+
+  private void write(String line) {
+    try {
+      writer.write(line);
+      writer.write('\n');
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private String header() {
+    StringBuilder line = new StringBuilder();
+    for (int i = 0; i < columns.size(); i++) {
+      appendField(line, i, columns.get(i).name());
+    }
+    return line.toString();
+  }
+
+  private String csvLine(T row) {
+    StringBuilder line = new StringBuilder();
+    for (int i = 0; i < columns.size(); i++) {
+      Object value = columns.get(i).value().apply(row);
+      appendField(line, i, text(value));
+    }
+    return line.toString();
+  }
+
+  private static String text(Object value) {
+    if (value == null) {
+      return "";
+    }
+    if (value instanceof BigDecimal decimal) {
+      return decimal.toPlainString();
+    }
+    String text = value.toString();
+    return value instanceof CharSequence && isFormula(text) ? "'" + text : text;
+  }
+
+  /**
+   * whether a spreadsheet would run the text as a formula. Only text values are checked, so
+   * negative numbers are written as they are.
+   */
+  private static boolean isFormula(String text) {
+    return !text.isEmpty() && FORMULA_PREFIXES.indexOf(text.charAt(0)) >= 0;
+  }
+
+  /** RFC 4180: quote fields with separators, quotes or line breaks and double inner quotes */
+  private static void appendField(StringBuilder line, int index, String field) {
+    if (index > 0) {
+      line.append(',');
+    }
+    if (field.indexOf(',') < 0
+        && field.indexOf('"') < 0
+        && field.indexOf('\n') < 0
+        && field.indexOf('\r') < 0) {
+      line.append(field);
+      return;
+    }
+    line.append('"').append(field.replace("\"", "\"\"")).append('"');
+  }
+}
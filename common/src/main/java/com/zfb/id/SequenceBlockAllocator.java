@@ -0,0 +1,170 @@
+package com.zfb.id;
+
+import com.zfb.exception.BusinessException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Hands out unique numbers of a named sequence from blocks leased in the database. Each lease moves
+ * the sequence row forward by a whole block in one statement, so instances never hand out the same
+ * number and allocations inside a block need no round trip.
+ *
+ * <p>The lease runs in its own transaction: the row lock is held only for the update, and numbers
+ * of a lease are not returned if the caller rolls back, which leaves gaps but never duplicates.
+ * Callers should take their numbers before opening their own transaction, otherwise a lease needs a
+ * second pooled connection while the caller's one is held. Numbers written before the sequence
+ * existed can be skipped with a {@link TakenNumbers} lookup, made once per block.
+ *
+ * <p>Allocations are guarded by a {@link ReentrantLock} rather than {@code synchronized}, so a
+ * virtual thread waiting on a lease does not pin its carrier thread.
+ *
+ * <p>Sequences live in {@value #TABLE}: {@code name varchar(64) primary key, next_value bigint not
+ * null}.
+ */
+@Slf4j
+public class SequenceBlockAllocator {
+
+  static final String TABLE = "number_sequences";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate leaseTransaction;
+  private final String name;
+  private final int blockSize;
+  private final long maxValue;
+  private final TakenNumbers takenNumbers;
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private long next;
+  private long end;
+  private Set<Long> taken = Set.of();
+
+  /**
+   * @param jdbcTemplate
+   * @param transactionManager
+   * @param name sequence name
+   * @param blockSize numbers per lease
+   * @param maxValue largest number of the sequence
+   * @param takenNumbers numbers of a block already in use
+   */
+  public SequenceBlockAllocator(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      String name,
+      int blockSize,
+      long maxValue,
+      TakenNumbers takenNumbers) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.leaseTransaction = new TransactionTemplate(transactionManager);
+    this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.name = name;
+    this.blockSize = blockSize;
+    this.maxValue = maxValue;
+    this.takenNumbers = takenNumbers;
+  }
+
+  /** create the sequence table if it does not exist */
+  public void initializeSchema() {
+    jdbcTemplate.execute(
+        "create table if not exists "
+            + TABLE
+            + " (name varchar(64) not null primary key, next_value bigint not null)");
+  }
+
+  /**
+   * get the next number
+   *
+   * @return number, unique across instances
+   */
+  public long next() {
+    lock.lock();
+    try {
+      return nextValue();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * get several numbers at once, leasing as many blocks as needed
+   *
+   * @param count number of numbers
+   * @return numbers in increasing order
+   */
+  public List<Long> next(int count) {
+    List<Long> values = new ArrayList<>(count);
+    lock.lock();
+    try {
+      for (int i = 0; i < count; i++) {
+        values.add(nextValue());
+      }
+    } finally {
+      lock.unlock();
+    }
+    return values;
+  }
+
+  private long nextValue() {
+    while (true) {
+      if (next == end) {
+        lease();
+      }
+      long value = next++;
+      if (!taken.contains(value)) {
+        return value;
+      }
+    }
+  }
+
+  private void lease() {
+    Long blockEnd =
+        leaseTransaction.execute(
+            status -> {
+              jdbcTemplate.update(
+                  "insert ignore into " + TABLE + " (name, next_value) values (?, 0)", name);
+              jdbcTemplate.update(
+                  "update "
+                      + TABLE
+                      + " set next_value = last_insert_id(next_value + ?) where name = ?",
+                  blockSize,
+                  name);
+              return jdbcTemplate.queryForObject("select last_insert_id()", Long.class);
+            });
+    if (blockEnd == null || blockEnd - blockSize > maxValue) {
+      throw new BusinessException("sequence " + name + " is exhausted");
+    }
+
+    next = blockEnd - blockSize;
+    end = Math.min(blockEnd, maxValue + 1);
+    taken = takenNumbers.find(next, end);
+    log.info(
+        "leased sequence block: name={}, from={}, to={}, taken={}",
+        name,
+        next,
+        end - 1,
+        taken.size());
+  }
+
+  /** lookup of numbers already used in a block, e.g. by rows written before the sequence */
+  @FunctionalInterface
+  public interface TakenNumbers {
+
+    /** no number is taken */
+    TakenNumbers NONE = (from, to) -> Set.of();
+
+    /**
+     * find the numbers in use in a block
+     *
+     * @param from first number of the block
+     * @param to end of the block, exclusive
+     * @return numbers in use
+     */
+    Set<Long> find(long from, long to);
+  }
+}
@@ -0,0 +1,46 @@
+package com.zfb.id;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUID version 7 (RFC 9562) generator.
+ *
+ * <p>The first 48 bits hold the unix epoch milliseconds and the 12 bit {@code rand_a} field is used
+ * as a counter, so ids generated by one process are strictly increasing even within the same
+ * millisecond. When the counter overflows the timestamp is advanced by one millisecond. The
+ * remaining 62 bits are random.
+ */
+public final class UuidV7 {
+
+  private static final SecureRandom RANDOM = new SecureRandom();
+
+  /** unix millis shifted left by 12 bits, plus the counter of the last generated id */
+  private static final AtomicLong LAST_TIMESTAMP = new AtomicLong();
+
+  private UuidV7() {}
+
+  /**
+   * generate a new time-ordered uuid
+   *
+   * @return UUID version 7
+   */
+  public static UUID generate() {
+    long now = System.currentTimeMillis() << 12;
+    long timestamp = LAST_TIMESTAMP.updateAndGet(last -> Math.max(last + 1, now));
+
+    long mostSigBits = (timestamp >>> 12) << 16 | 0x7000L | (timestamp & 0xFFFL);
+    long leastSigBits = RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+    return new UUID(mostSigBits, leastSigBits);
+  }
+
+  /**
+   * generate a new time-ordered uuid in canonical string form
+   *
+   * @return UUID version 7 string
+   */
+  public static String generateString() {
+    return generate().toString();
+  }
+}
@@ -0,0 +1,102 @@
+package com.zfb.idempotency;
+
+import com.zfb.exception.BusinessErrorCode;
+import com.zfb.exception.BusinessException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.Order;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Applies {@link Idempotent}. Ordered before the transaction, so the response is stored once the
+ * method's own transaction has committed; inside an outer transaction it is stored after that one
+ * commits, and the key is released if it rolls back.
+ */
+@Slf4j
+@Aspect
+@Order(-1)
+@RequiredArgsConstructor
+public class IdempotencyAspect {
+
+  private final IdempotencyStore idempotencyStore;
+
+  private final ExpressionParser expressionParser = new SpelExpressionParser();
+  private final ParameterNameDiscoverer parameterNameDiscoverer =
+      new DefaultParameterNameDiscoverer();
+  private final Map<String, Expression> expressions = new ConcurrentHashMap<>();
+
+  @Around("@annotation(idempotent)")
+  public Object runOnce(ProceedingJoinPoint joinPoint, Idempotent idempotent) throws Throwable {
+    String key = resolveKey(joinPoint, idempotent);
+    if (key == null) {
+      return joinPoint.proceed();
+    }
+
+    IdempotencyStore.Reservation reservation = idempotencyStore.reserve(key);
+    switch (reservation.state()) {
+      case COMPLETED -> {
+        log.info("duplicate request replayed: {}", key);
+        return reservation.response();
+      }
+      case IN_PROGRESS ->
+          throw new BusinessException(
+              BusinessErrorCode.REQUEST_IN_PROGRESS, "request is already in progress");
+      case UNAVAILABLE -> {
+        return joinPoint.proceed();
+      }
+      case RESERVED -> {
+        // run below
+      }
+    }
+
+    Object response;
+    try {
+      response = joinPoint.proceed();
+    } catch (Throwable e) {
+      idempotencyStore.release(key);
+      throw e;
+    }
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+              if (status == STATUS_COMMITTED) {
+                idempotencyStore.complete(key, response);
+              } else {
+                idempotencyStore.release(key);
+              }
+            }
+          });
+    } else {
+      idempotencyStore.complete(key, response);
+    }
+    return response;
+  }
+
+  private String resolveKey(ProceedingJoinPoint joinPoint, Idempotent idempotent) {
+    Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+    Expression expression =
+        expressions.computeIfAbsent(idempotent.key(), expressionParser::parseExpression);
+    MethodBasedEvaluationContext context =
+        new MethodBasedEvaluationContext(
+            joinPoint.getTarget(), method, joinPoint.getArgs(), parameterNameDiscoverer);
+    Object key = expression.getValue(context);
+    return key != null ? key.toString() : null;
+  }
+}
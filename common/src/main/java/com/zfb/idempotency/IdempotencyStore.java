@@ -0,0 +1,117 @@
+package com.zfb.idempotency;
+
+import com.zfb.config.CacheConfig;
+import java.time.Duration;
+import java.util.Arrays;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.ByteArrayCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Client request keys and their responses, shared by all instances of the service through Redis. A
+ * key is first stored with an in-progress marker that expires on its own if the instance dies, and
+ * replaced by the serialized response once the request completes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyStore {
+
+  private static final String KEY_SUFFIX = ":idem:";
+  private static final byte[] IN_PROGRESS = {0};
+
+  private final RedissonClient redissonClient;
+  private final RedisSerializer<Object> serializer = CacheConfig.valueSerializer();
+
+  @Value("${spring.application.name:zfb}")
+  private String applicationName;
+
+  @Value("${common.idempotency.ttl:86400000}")
+  private long ttlMillis;
+
+  @Value("${common.idempotency.in-progress-ttl:30000}")
+  private long inProgressTtlMillis;
+
+  /**
+   * reserve a client request key
+   *
+   * @param key client request key
+   * @return reservation, with the stored response if the request already completed
+   */
+  public Reservation reserve(String key) {
+    try {
+      RBucket<byte[]> bucket = bucket(key);
+      for (int attempt = 0; attempt < 2; attempt++) {
+        if (bucket.setIfAbsent(IN_PROGRESS, Duration.ofMillis(inProgressTtlMillis))) {
+          return new Reservation(ReservationState.RESERVED, null);
+        }
+        byte[] stored = bucket.get();
+        if (stored == null) {
+          // expired between the two commands
+          continue;
+        }
+        if (Arrays.equals(stored, IN_PROGRESS)) {
+          return new Reservation(ReservationState.IN_PROGRESS, null);
+        }
+        return new Reservation(ReservationState.COMPLETED, serializer.deserialize(stored));
+      }
+      return new Reservation(ReservationState.IN_PROGRESS, null);
+    } catch (RuntimeException e) {
+      log.warn("idempotency reservation failed, running request: {}", e.getMessage());
+      return new Reservation(ReservationState.UNAVAILABLE, null);
+    }
+  }
+
+  /**
+   * store the response of a completed request for replay. A null response releases the key.
+   *
+   * @param key client request key
+   * @param response response of the request
+   */
+  public void complete(String key, Object response) {
+    if (response == null) {
+      release(key);
+      return;
+    }
+    try {
+      bucket(key).set(serializer.serialize(response), Duration.ofMillis(ttlMillis));
+    } catch (RuntimeException e) {
+      log.warn("idempotency response store failed: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * release a client request key so the request can be retried
+   *
+   * @param key client request key
+   */
+  public void release(String key) {
+    try {
+      bucket(key).delete();
+    } catch (RuntimeException e) {
+      log.warn("idempotency release failed: {}", e.getMessage());
+    }
+  }
+
+  private RBucket<byte[]> bucket(String key) {
+    return redissonClient.getBucket(applicationName + KEY_SUFFIX + key, ByteArrayCodec.INSTANCE);
+  }
+
+  public enum ReservationState {
+    /** the caller owns the key and runs the request */
+    RESERVED,
+    /** the request completed before, the response is replayed */
+    COMPLETED,
+    /** the request is running on another thread or instance */
+    IN_PROGRESS,
+    /** redis could not be reached, the request runs without deduplication */
+    UNAVAILABLE
+  }
+
+  public record Reservation(ReservationState state, Object response) {}
+}
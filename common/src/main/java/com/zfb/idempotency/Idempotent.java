@@ -0,0 +1,23 @@
+package com.zfb.idempotency;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the method once per client request key. The key is reserved in Redis before the method runs
+ * and the response is stored for replay when it returns; a repeated request gets the stored
+ * response without running the method, and one arriving while the first is still running is
+ * rejected. A failed request releases the key so the client can retry it.
+ *
+ * <p>Redis is a fast path only: when it is unavailable, or the stored response has expired, the
+ * method runs and must still detect the duplicate itself, e.g. through a unique index.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Idempotent {
+
+  /** SpEL expression for the client request key; requests without a key are not deduplicated */
+  String key();
+}
@@ -1,14 +1,26 @@
 package com.zfb.lock;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongFunction;
 import java.util.function.Supplier;
-import lombok.RequiredArgsConstructor;
+import org.redisson.api.RFencedLock;
+import org.redisson.api.RFuture;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
-@RequiredArgsConstructor
 public class DistributedLockService {
 
   private static final org.slf4j.Logger logger =
@@ -18,7 +30,33 @@ public class DistributedLockService {
   private static final long DEFAULT_WAIT_TIME = 5L;
   private static final long DEFAULT_LEASE_TIME = 10L;
 
+  // lock owners are synthetic so a held lock can pass between threads; negative so they never
+  // collide with the thread ids Redisson uses for other callers of the same client
+  private static final AtomicLong OWNER_IDS = new AtomicLong();
+
   private final RedissonClient redissonClient;
+  private final LockMetrics lockMetrics;
+  private final ConcurrentHashMap<String, KeyLock> keyLocks = new ConcurrentHashMap<>();
+  private final int batchSize;
+  private final long batchMaxHoldNanos;
+
+  private final Executor taskExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+  public DistributedLockService(RedissonClient redissonClient) {
+    this(redissonClient, new LockMetrics(new SimpleMeterRegistry()), 1, 0);
+  }
+
+  @Autowired
+  public DistributedLockService(
+      RedissonClient redissonClient,
+      LockMetrics lockMetrics,
+      @Value("${common.lock.local.batch-size:1}") int batchSize,
+      @Value("${common.lock.local.batch-max-hold:0}") long batchMaxHoldMillis) {
+    this.redissonClient = redissonClient;
+    this.lockMetrics = lockMetrics;
+    this.batchSize = batchSize;
+    this.batchMaxHoldNanos = TimeUnit.MILLISECONDS.toNanos(batchMaxHoldMillis);
+  }
 
   /**
    * Acquire distributed lock and execute task with default timeout
@@ -33,11 +71,18 @@ public class DistributedLockService {
   }
 
   /**
-   * Acquire distributed lock and execute task with custom timeout
+   * Acquire distributed lock and execute task with custom timeout.
+   *
+   * <p>Callers on this instance are first serialized on a local lock of the key, so only one thread
+   * per key waits for the Redis lock. Local locks are reference counted and dropped once no caller
+   * uses them. With batching enabled ({@code common.lock.local.batch-size} above 1, off by default)
+   * the Redis lock is handed to queued local callers of the same key instead of being released and
+   * acquired again; it is then taken without a fixed lease and kept alive by Redisson's watchdog,
+   * so a caller that takes it over never runs on the remainder of an earlier caller's lease.
    *
    * @param lockKey
    * @param waitTime Maximum seconds to wait for lock availability
-   * @param leaseTime Maximum seconds to hold the lock before auto release
+   * @param leaseTime Maximum seconds to hold the lock before auto release, when batching is off
    * @param supplier Task to execute
    * @return Result of task execution
    * @throws LockAcquisitionException If lock acquisition fails after waiting
@@ -46,34 +91,198 @@ public class DistributedLockService {
       String lockKey, long waitTime, long leaseTime, Supplier<T> supplier) {
 
     String fullKey = LOCK_PREFIX + lockKey;
-    RLock lock = redissonClient.getLock(fullKey);
+    KeyLock keyLock = retain(fullKey);
+    long start = System.nanoTime();
+    long deadline = start + TimeUnit.SECONDS.toNanos(waitTime);
 
     try {
-      boolean acquired = lock.tryLock(waitTime, leaseTime, TimeUnit.SECONDS);
+      try {
+        if (!keyLock.localLock.tryLock(waitTime, TimeUnit.SECONDS)) {
+          throw acquisitionTimeout(lockKey, waitTime, start);
+        }
+      } catch (InterruptedException e) {
+        throw interrupted(lockKey, e, start);
+      }
 
-      if (!acquired) {
-        logger.error(
-            "Failed to acquire distributed lock after {} seconds (key hash: {})",
-            waitTime,
-            sanitizeKeyForLogging(lockKey));
-        throw new LockAcquisitionException(
-            "Failed to acquire distributed lock after " + waitTime + " seconds");
+      try {
+        // a nested call on the same key runs under the Redis lock its caller holds
+        if (keyLock.localLock.getHoldCount() == 1
+            && !acquireHeld(keyLock, remainingMillis(deadline), leaseTime)) {
+          throw acquisitionTimeout(lockKey, waitTime, start);
+        }
+
+        logger.debug("Lock acquired: {}", fullKey);
+        return runLocked(lockKey, start, supplier);
+
+      } catch (InterruptedException e) {
+        throw interrupted(lockKey, e, start);
+      } catch (ExecutionException e) {
+        throw acquisitionError(lockKey, e.getCause(), start);
+      } finally {
+        if (keyLock.localLock.getHoldCount() == 1) {
+          releaseOrHandOver(keyLock);
+        }
+        keyLock.localLock.unlock();
       }
+    } finally {
+      dropReference(keyLock);
+    }
+  }
 
-      logger.debug("Lock acquired: {}", fullKey);
-      return supplier.get();
+  /**
+   * Acquire distributed lock without blocking the calling thread and execute task with default
+   * timeout
+   *
+   * @param lockKey
+   * @param supplier Task to execute while holding the lock
+   * @return Future completed with the result of task execution, or exceptionally with {@link
+   *     LockAcquisitionException} if lock acquisition fails after waiting
+   */
+  public <T> CompletableFuture<T> executeWithLockAsync(String lockKey, Supplier<T> supplier) {
+    return executeWithLockAsync(lockKey, DEFAULT_WAIT_TIME, DEFAULT_LEASE_TIME, false, supplier);
+  }
+
+  /**
+   * Acquire distributed lock without blocking the calling thread and execute task with custom
+   * timeout.
+   *
+   * <p>Waiting is done by Redisson's async lock, so no thread is held while the lock is contended.
+   * The task runs on a virtual thread once the lock is acquired and the lock is released when it
+   * completes. The task does not join the caller's transaction.
+   *
+   * @param lockKey
+   * @param waitTime Maximum seconds to wait for lock availability
+   * @param leaseTime Maximum seconds to hold the lock before auto release
+   * @param fair true to grant the lock to waiters in request order
+   * @param supplier Task to execute
+   * @return Future completed with the result of task execution, or exceptionally with {@link
+   *     LockAcquisitionException} if lock acquisition fails after waiting
+   */
+  public <T> CompletableFuture<T> executeWithLockAsync(
+      String lockKey, long waitTime, long leaseTime, boolean fair, Supplier<T> supplier) {
+
+    String fullKey = LOCK_PREFIX + lockKey;
+    RLock lock = fair ? redissonClient.getFairLock(fullKey) : redissonClient.getLock(fullKey);
+    long ownerId = nextOwnerId();
+    long start = System.nanoTime();
+
+    CompletableFuture<T> result = new CompletableFuture<>();
+    lock.tryLockAsync(waitTime, leaseTime, TimeUnit.SECONDS, ownerId)
+        .whenComplete(
+            (acquired, error) -> {
+              if (error != null) {
+                result.completeExceptionally(acquisitionError(lockKey, error, start));
+                return;
+              }
+              if (!acquired) {
+                result.completeExceptionally(acquisitionTimeout(lockKey, waitTime, start));
+                return;
+              }
+
+              logger.debug("Lock acquired: {}", fullKey);
+              CompletableFuture.supplyAsync(() -> runLocked(lockKey, start, supplier), taskExecutor)
+                  .whenComplete(
+                      (value, taskError) ->
+                          releaseAsync(lock, ownerId, lockKey)
+                              .thenRun(
+                                  () -> {
+                                    if (taskError != null) {
+                                      result.completeExceptionally(unwrap(taskError));
+                                    } else {
+                                      result.complete(value);
+                                    }
+                                  }));
+            });
+    return result;
+  }
+
+  /**
+   * Acquire fenced distributed lock and execute task with default timeout
+   *
+   * @param lockKey
+   * @param task Task to execute while holding the lock, given the fencing token
+   * @return Result of task execution
+   * @throws LockAcquisitionException If lock acquisition fails after waiting
+   */
+  public <T> T executeWithFencedLock(String lockKey, LongFunction<T> task) {
+    return executeWithFencedLock(lockKey, DEFAULT_WAIT_TIME, task);
+  }
+
+  /**
+   * Acquire fenced distributed lock and execute task with custom timeout.
+   *
+   * <p>The lock has no fixed lease: Redisson's watchdog keeps renewing it while this instance is
+   * alive, so a long task does not lose it, and a crashed holder loses it after {@code
+   * common.lock.watchdog-timeout}. Each acquisition gets a fencing token greater than every token
+   * issued before for the key; writes guarded by the lock should pass it on so the store can reject
+   * writes from a holder that has since lost the lock. The lock is owned by the calling thread and
+   * does not take part in local batching.
+   *
+   * @param lockKey
+   * @param waitTime Maximum seconds to wait for lock availability
+   * @param task Task to execute, given the fencing token
+   * @return Result of task execution
+   * @throws LockAcquisitionException If lock acquisition fails after waiting
+   */
+  public <T> T executeWithFencedLock(String lockKey, long waitTime, LongFunction<T> task) {
+    String fullKey = LOCK_PREFIX + lockKey;
+    RFencedLock lock = redissonClient.getFencedLock(fullKey);
+    long start = System.nanoTime();
+
+    Long token;
+    try {
+      token = lock.tryLockAndGetToken(waitTime, TimeUnit.SECONDS);
+    } catch (RuntimeException e) {
+      throw acquisitionError(lockKey, e, start);
+    }
+    if (token == null) {
+      throw acquisitionTimeout(lockKey, waitTime, start);
+    }
+
+    return runFenced(lockKey, lock, token, start, task);
+  }
+
+  /**
+   * Try to execute task with fenced lock without waiting. Returns default value if the lock is held
+   * elsewhere, without logging or recording a failure, so pollers that expect to lose most
+   * attempts, like one relay among several instances, stay quiet.
+   *
+   * @param lockKey Lock identifier (must NOT contain sensitive information)
+   * @param task Task to execute while holding the lock, given the fencing token
+   * @param defaultValue Default value to return if the lock is not available
+   * @return Result of task execution or default value if lock not available
+   * @throws LockAcquisitionException If Redis cannot be asked for the lock
+   */
+  public <T> T tryExecuteWithFencedLock(String lockKey, LongFunction<T> task, T defaultValue) {
+    String fullKey = LOCK_PREFIX + lockKey;
+    RFencedLock lock = redissonClient.getFencedLock(fullKey);
+    long start = System.nanoTime();
 
-    } catch (InterruptedException e) {
-      Thread.currentThread().interrupt();
-      logger.error(
-          "Thread interrupted while acquiring lock (key hash: {})",
-          sanitizeKeyForLogging(lockKey),
-          e);
-      throw new LockAcquisitionException("Lock acquisition interrupted", e);
+    Long token;
+    try {
+      token = lock.tryLockAndGetToken();
+    } catch (RuntimeException e) {
+      throw acquisitionError(lockKey, e, start);
+    }
+    if (token == null) {
+      logger.debug("Fenced lock held elsewhere: {}", fullKey);
+      return defaultValue;
+    }
+
+    return runFenced(lockKey, lock, token, start, task);
+  }
+
+  private <T> T runFenced(
+      String lockKey, RFencedLock lock, long token, long start, LongFunction<T> task) {
+    try {
+      logger.debug("Fenced lock acquired: {} (token {})", lock.getName(), token);
+      return runLocked(lockKey, start, () -> task.apply(token));
     } finally {
-      if (lock.isHeldByCurrentThread()) {
+      try {
         lock.unlock();
-        logger.debug("Lock released: {}", fullKey);
+        logger.debug("Lock released: {}", lock.getName());
+      } catch (RuntimeException e) {
+        logger.warn("Failed to release distributed lock: {}", e.getMessage());
       }
     }
   }
@@ -88,36 +297,236 @@ public class DistributedLockService {
    */
   public <T> T tryExecuteWithLock(String lockKey, Supplier<T> supplier, T defaultValue) {
     String fullKey = LOCK_PREFIX + lockKey;
-    RLock lock = redissonClient.getLock(fullKey);
+    KeyLock keyLock = retain(fullKey);
 
-    try {
-      boolean acquired = lock.tryLock(0, DEFAULT_LEASE_TIME, TimeUnit.SECONDS);
+    long start = System.nanoTime();
 
-      if (!acquired) {
+    try {
+      if (!keyLock.localLock.tryLock()) {
         logger.warn(
             "Lock not immediately available, returning default value (key hash: {})",
             sanitizeKeyForLogging(lockKey));
+        lockMetrics.fallback(lockKey);
         return defaultValue;
       }
 
-      logger.debug("Lock acquired: {}", fullKey);
-      return supplier.get();
+      try {
+        // a nested call on the same key runs under the Redis lock its caller holds
+        if (keyLock.localLock.getHoldCount() == 1 && !acquireHeld(keyLock, 0, DEFAULT_LEASE_TIME)) {
+          logger.warn(
+              "Lock not immediately available, returning default value (key hash: {})",
+              sanitizeKeyForLogging(lockKey));
+          lockMetrics.fallback(lockKey);
+          return defaultValue;
+        }
 
-    } catch (InterruptedException e) {
-      Thread.currentThread().interrupt();
-      logger.error(
-          "Thread interrupted while acquiring lock (key hash: {})",
-          sanitizeKeyForLogging(lockKey),
-          e);
-      return defaultValue;
+        logger.debug("Lock acquired: {}", fullKey);
+        return runLocked(lockKey, start, supplier);
+
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        logger.error(
+            "Thread interrupted while acquiring lock (key hash: {})",
+            sanitizeKeyForLogging(lockKey),
+            e);
+        lockMetrics.fallback(lockKey);
+        return defaultValue;
+      } catch (ExecutionException e) {
+        throw acquisitionError(lockKey, e.getCause(), start);
+      } finally {
+        if (keyLock.localLock.getHoldCount() == 1) {
+          releaseOrHandOver(keyLock);
+        }
+        keyLock.localLock.unlock();
+      }
     } finally {
-      if (lock.isHeldByCurrentThread()) {
-        lock.unlock();
-        logger.debug("Lock released: {}", fullKey);
+      dropReference(keyLock);
+    }
+  }
+
+  /**
+   * Acquire the Redis lock for the caller holding the local lock of the key, or take over the one
+   * still held by the previous local caller. With batching enabled the lock is taken without a
+   * fixed lease so the watchdog keeps it alive across hand-overs.
+   */
+  private boolean acquireHeld(KeyLock keyLock, long waitMillis, long leaseTime)
+      throws InterruptedException, ExecutionException {
+    if (keyLock.heldLock != null) {
+      keyLock.batchCount++;
+      return true;
+    }
+
+    RLock lock = redissonClient.getLock(keyLock.fullKey);
+    long ownerId = nextOwnerId();
+    long leaseMillis = batchSize > 1 ? -1 : TimeUnit.SECONDS.toMillis(leaseTime);
+    RFuture<Boolean> pending =
+        lock.tryLockAsync(waitMillis, leaseMillis, TimeUnit.MILLISECONDS, ownerId);
+    boolean acquired;
+    try {
+      acquired = pending.get();
+    } catch (InterruptedException | ExecutionException e) {
+      // nobody would release a lock granted after we stopped waiting, and without a lease the
+      // watchdog would keep it alive for good
+      pending.whenComplete(
+          (granted, error) -> {
+            if (Boolean.TRUE.equals(granted)) {
+              lock.unlockAsync(ownerId);
+            }
+          });
+      throw e;
+    }
+    if (!acquired) {
+      return false;
+    }
+    keyLock.heldLock = lock;
+    keyLock.ownerId = ownerId;
+    keyLock.acquiredAt = System.nanoTime();
+    keyLock.batchCount = 1;
+    return true;
+  }
+
+  private <T> T runLocked(String lockKey, long start, Supplier<T> supplier) {
+    long acquiredAt = lockMetrics.acquired(lockKey, start);
+    try {
+      return supplier.get();
+    } finally {
+      lockMetrics.released(lockKey, acquiredAt);
+    }
+  }
+
+  /**
+   * Keep the Redis lock for the next queued local caller while the batch allows it, otherwise
+   * release it. A kept lock is released after the batch window if no local caller takes it over;
+   * the pending release holds a reference so the local lock is not dropped meanwhile.
+   */
+  private void releaseOrHandOver(KeyLock keyLock) {
+    if (keyLock.heldLock == null) {
+      return;
+    }
+    if (keyLock.batchCount < batchSize
+        && System.nanoTime() - keyLock.acquiredAt < batchMaxHoldNanos
+        && keyLock.localLock.hasQueuedThreads()) {
+      long ownerId = keyLock.ownerId;
+      retain(keyLock.fullKey);
+      CompletableFuture.runAsync(
+          () -> releaseIfIdle(keyLock, ownerId),
+          CompletableFuture.delayedExecutor(batchMaxHoldNanos, TimeUnit.NANOSECONDS, taskExecutor));
+      return;
+    }
+    releaseHeld(keyLock);
+  }
+
+  private void releaseIfIdle(KeyLock keyLock, long ownerId) {
+    try {
+      if (!keyLock.localLock.tryLock()) {
+        // the current holder releases or hands over when it finishes
+        return;
+      }
+      try {
+        if (keyLock.heldLock != null && keyLock.ownerId == ownerId) {
+          releaseHeld(keyLock);
+        }
+      } finally {
+        keyLock.localLock.unlock();
       }
+    } finally {
+      dropReference(keyLock);
+    }
+  }
+
+  private void releaseHeld(KeyLock keyLock) {
+    if (keyLock.heldLock == null) {
+      return;
+    }
+    release(keyLock.heldLock, keyLock.ownerId);
+    keyLock.heldLock = null;
+    keyLock.batchCount = 0;
+  }
+
+  private void release(RLock lock, long ownerId) {
+    try {
+      lock.unlockAsync(ownerId).toCompletableFuture().join();
+      logger.debug("Lock released: {}", lock.getName());
+    } catch (RuntimeException e) {
+      logger.warn("Failed to release distributed lock: {}", e.getMessage());
     }
   }
 
+  /** Get the local lock of a key, creating it for the first user, and count the caller in */
+  private KeyLock retain(String fullKey) {
+    return keyLocks.compute(
+        fullKey,
+        (key, keyLock) -> {
+          KeyLock retained = keyLock != null ? keyLock : new KeyLock(key);
+          retained.references++;
+          return retained;
+        });
+  }
+
+  /** Count the caller out, dropping the local lock of the key after its last user */
+  private void dropReference(KeyLock keyLock) {
+    keyLocks.computeIfPresent(
+        keyLock.fullKey, (key, current) -> --current.references == 0 ? null : current);
+  }
+
+  private static long nextOwnerId() {
+    return -OWNER_IDS.incrementAndGet();
+  }
+
+  private static long remainingMillis(long deadline) {
+    return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+  }
+
+  private LockAcquisitionException acquisitionTimeout(String lockKey, long waitTime, long start) {
+    lockMetrics.failed(lockKey, start, LockMetrics.TIMEOUT);
+    logger.error(
+        "Failed to acquire distributed lock after {} seconds (key hash: {})",
+        waitTime,
+        sanitizeKeyForLogging(lockKey));
+    return new LockAcquisitionException(
+        "Failed to acquire distributed lock after " + waitTime + " seconds");
+  }
+
+  private LockAcquisitionException interrupted(String lockKey, InterruptedException e, long start) {
+    Thread.currentThread().interrupt();
+    lockMetrics.failed(lockKey, start, LockMetrics.INTERRUPTED);
+    logger.error(
+        "Thread interrupted while acquiring lock (key hash: {})",
+        sanitizeKeyForLogging(lockKey),
+        e);
+    return new LockAcquisitionException("Lock acquisition interrupted", e);
+  }
+
+  private LockAcquisitionException acquisitionError(String lockKey, Throwable cause, long start) {
+    lockMetrics.failed(lockKey, start, LockMetrics.ERROR);
+    logger.error(
+        "Failed to acquire distributed lock (key hash: {})", sanitizeKeyForLogging(lockKey), cause);
+    return new LockAcquisitionException("Failed to acquire distributed lock", cause);
+  }
+
+  private CompletableFuture<Void> releaseAsync(RLock lock, long ownerId, String lockKey) {
+    return lock.unlockAsync(ownerId)
+        .toCompletableFuture()
+        .handle(
+            (ignored, error) -> {
+              if (error != null) {
+                logger.warn(
+                    "Failed to release distributed lock (key hash: {})",
+                    sanitizeKeyForLogging(lockKey),
+                    error);
+              } else {
+                logger.debug("Lock released: {}", lock.getName());
+              }
+              return null;
+            });
+  }
+
+  private static Throwable unwrap(Throwable throwable) {
+    return throwable instanceof CompletionException && throwable.getCause() != null
+        ? throwable.getCause()
+        : throwable;
+  }
+
   /**
    * Sanitize lock key for safe logging by creating a hash.
    *
@@ -134,4 +543,22 @@ public class DistributedLockService {
     // Use simple hash code for correlation in logs without exposing actual key
     return String.format("0x%08x", lockKey.hashCode());
   }
+
+  /**
+   * Local lock of one key and the Redis lock held on behalf of its local callers, guarded by the
+   * local lock. The reference count is only changed inside {@link ConcurrentHashMap#compute}.
+   */
+  private static final class KeyLock {
+    private final String fullKey;
+    private final ReentrantLock localLock = new ReentrantLock();
+    private int references;
+    private RLock heldLock;
+    private long ownerId;
+    private long acquiredAt;
+    private int batchCount;
+
+    private KeyLock(String fullKey) {
+      this.fullKey = fullKey;
+    }
+  }
 }
@@ -0,0 +1,23 @@
+package com.zfb.lock;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/** Actuator endpoint listing the most contended lock key families of the sliding window */
+@Component
+@Endpoint(id = "locks")
+@RequiredArgsConstructor
+public class LockContentionEndpoint {
+
+  private static final int TOP_FAMILIES = 20;
+
+  private final LockMetrics lockMetrics;
+
+  @ReadOperation
+  public List<LockFamilyStats> locks() {
+    return lockMetrics.topContended(TOP_FAMILIES);
+  }
+}
@@ -0,0 +1,23 @@
+package com.zfb.lock;
+
+/**
+ * Lock activity of one key family in the sliding window of {@link LockMetrics}.
+ *
+ * @param family lock key family
+ * @param acquisitions locks acquired
+ * @param failures acquisitions that timed out, were interrupted or failed
+ * @param fallbacks {@code tryExecuteWithLock} calls that returned the default value
+ * @param waitMillis total time spent waiting, acquired or not
+ * @param maxWaitMillis longest single wait
+ * @param holdMillis total time tasks ran under the lock
+ * @param maxHoldMillis longest single hold
+ */
+public record LockFamilyStats(
+    String family,
+    long acquisitions,
+    long failures,
+    long fallbacks,
+    long waitMillis,
+    long maxWaitMillis,
+    long holdMillis,
+    long maxHoldMillis) {}
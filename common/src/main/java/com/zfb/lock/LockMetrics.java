@@ -0,0 +1,211 @@
+package com.zfb.lock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Wait and hold times of {@link DistributedLockService} per key family. The family is the lock key
+ * without its last {@code :} segment, so {@code forex:account:<uuid>} is counted as {@code
+ * forex:account} and raw keys never become tags.
+ *
+ * <p>Meters: {@code lock.wait} tagged with the family and the outcome of the acquisition (acquired,
+ * timeout, interrupted, error), {@code lock.hold} for the time the task ran under the lock, and
+ * {@code lock.fallbacks} for {@code tryExecuteWithLock} calls that returned the default value. The
+ * same events are kept in a sliding window that ranks the most contended families.
+ */
+@Slf4j
+@Component
+public class LockMetrics {
+
+  static final String WAIT_METRIC = "lock.wait";
+  static final String HOLD_METRIC = "lock.hold";
+  static final String FALLBACK_METRIC = "lock.fallbacks";
+
+  static final String ACQUIRED = "acquired";
+  static final String TIMEOUT = "timeout";
+  static final String INTERRUPTED = "interrupted";
+  static final String ERROR = "error";
+
+  private static final int MAX_FAMILIES = 200;
+  private static final String OTHER_FAMILY = "other";
+  private static final int WINDOW_BUCKETS = 12;
+  private static final Duration MAX_EXPECTED = Duration.ofSeconds(30);
+
+  private final MeterRegistry meterRegistry;
+  private final long bucketNanos;
+  private final long slowHoldNanos;
+  private final Map<String, FamilyMeters> families = new ConcurrentHashMap<>();
+
+  public LockMetrics(MeterRegistry meterRegistry) {
+    this(meterRegistry, 60000, 5000);
+  }
+
+  @Autowired
+  public LockMetrics(
+      MeterRegistry meterRegistry,
+      @Value("${common.lock.metrics.window:60000}") long windowMillis,
+      @Value("${common.lock.metrics.slow-hold:5000}") long slowHoldMillis) {
+    this.meterRegistry = meterRegistry;
+    this.bucketNanos = Math.max(1, TimeUnit.MILLISECONDS.toNanos(windowMillis) / WINDOW_BUCKETS);
+    this.slowHoldNanos = TimeUnit.MILLISECONDS.toNanos(slowHoldMillis);
+  }
+
+  /**
+   * record an acquired lock
+   *
+   * @param lockKey
+   * @param startNanos {@link System#nanoTime()} when the caller started waiting
+   * @return {@link System#nanoTime()} of the acquisition, to pass to {@link #released}
+   */
+  public long acquired(String lockKey, long startNanos) {
+    long now = System.nanoTime();
+    FamilyMeters meters = meters(lockKey);
+    long waitNanos = now - startNanos;
+    meters.acquiredWait.record(waitNanos, TimeUnit.NANOSECONDS);
+    meters.window.record(now, bucketNanos, window -> window.acquired(waitNanos));
+    return now;
+  }
+
+  /**
+   * record a failed acquisition
+   *
+   * @param lockKey
+   * @param startNanos {@link System#nanoTime()} when the caller started waiting
+   * @param outcome timeout, interrupted or error
+   */
+  public void failed(String lockKey, long startNanos, String outcome) {
+    long now = System.nanoTime();
+    FamilyMeters meters = meters(lockKey);
+    long waitNanos = now - startNanos;
+    waitTimer(meters.family, outcome).record(waitNanos, TimeUnit.NANOSECONDS);
+    meters.window.record(now, bucketNanos, window -> window.failed(waitNanos));
+  }
+
+  /**
+   * record the end of a task run under the lock. holds longer than {@code
+   * common.lock.metrics.slow-hold} are logged.
+   *
+   * @param lockKey
+   * @param acquiredNanos value returned by {@link #acquired}
+   */
+  public void released(String lockKey, long acquiredNanos) {
+    long now = System.nanoTime();
+    FamilyMeters meters = meters(lockKey);
+    long holdNanos = now - acquiredNanos;
+    meters.hold.record(holdNanos, TimeUnit.NANOSECONDS);
+    meters.window.record(now, bucketNanos, window -> window.held(holdNanos));
+    if (holdNanos > slowHoldNanos) {
+      log.warn(
+          "Slow lock holder: held {} ms (family: {})",
+          TimeUnit.NANOSECONDS.toMillis(holdNanos),
+          meters.family);
+    }
+  }
+
+  /**
+   * record a {@code tryExecuteWithLock} call that returned its default value
+   *
+   * @param lockKey
+   */
+  public void fallback(String lockKey) {
+    FamilyMeters meters = meters(lockKey);
+    meters.fallbacks.increment();
+    meters.window.record(System.nanoTime(), bucketNanos, LockWindow.Bucket::fallback);
+  }
+
+  /**
+   * get the key families with the most waiting in the sliding window, most contended first
+   *
+   * @param limit maximum number of families
+   * @return LockFamilyStats list
+   */
+  public List<LockFamilyStats> topContended(int limit) {
+    long now = System.nanoTime();
+    List<LockFamilyStats> stats = new ArrayList<>();
+    for (FamilyMeters meters : families.values()) {
+      LockFamilyStats familyStats = meters.window.snapshot(meters.family, now, bucketNanos);
+      if (familyStats.acquisitions() + familyStats.failures() + familyStats.fallbacks() > 0) {
+        stats.add(familyStats);
+      }
+    }
+    stats.sort(
+        Comparator.comparingLong(LockFamilyStats::waitMillis)
+            .thenComparingLong(LockFamilyStats::failures)
+            .thenComparingLong(LockFamilyStats::fallbacks)
+            .reversed());
+    return stats.size() > limit ? List.copyOf(stats.subList(0, limit)) : stats;
+  }
+
+  /**
+   * get the key family of a lock key
+   *
+   * @param lockKey
+   * @return lock key without its last segment, or the key itself if it has a single segment
+   */
+  static String family(String lockKey) {
+    if (lockKey == null || lockKey.isEmpty()) {
+      return OTHER_FAMILY;
+    }
+    int separator = lockKey.lastIndexOf(':');
+    return separator > 0 ? lockKey.substring(0, separator) : lockKey;
+  }
+
+  private FamilyMeters meters(String lockKey) {
+    String family = family(lockKey);
+    FamilyMeters meters = families.get(family);
+    if (meters != null) {
+      return meters;
+    }
+    if (families.size() >= MAX_FAMILIES) {
+      family = OTHER_FAMILY;
+    }
+    return families.computeIfAbsent(family, FamilyMeters::new);
+  }
+
+  private Timer waitTimer(String family, String outcome) {
+    return Timer.builder(WAIT_METRIC)
+        .description("time spent waiting for distributed locks")
+        .tag("family", family)
+        .tag("outcome", outcome)
+        .publishPercentileHistogram()
+        .maximumExpectedValue(MAX_EXPECTED)
+        .register(meterRegistry);
+  }
+
+  private final class FamilyMeters {
+    private final String family;
+    private final Timer acquiredWait;
+    private final Timer hold;
+    private final Counter fallbacks;
+    private final LockWindow window = new LockWindow(WINDOW_BUCKETS);
+
+    private FamilyMeters(String family) {
+      this.family = family;
+      this.acquiredWait = waitTimer(family, ACQUIRED);
+      this.hold =
+          Timer.builder(HOLD_METRIC)
+              .description("time tasks ran while holding distributed locks")
+              .tag("family", family)
+              .publishPercentileHistogram()
+              .maximumExpectedValue(MAX_EXPECTED)
+              .register(meterRegistry);
+      this.fallbacks =
+          Counter.builder(FALLBACK_METRIC)
+              .description("tryExecuteWithLock calls that returned the default value")
+              .tag("family", family)
+              .register(meterRegistry);
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package com.zfb.lock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/** Sliding window of lock activity for one key family, kept as a ring of time buckets */
+final class LockWindow {
+
+  private final Bucket[] buckets;
+
+  LockWindow(int size) {
+    this.buckets = new Bucket[size];
+    for (int i = 0; i < size; i++) {
+      this.buckets[i] = new Bucket();
+    }
+  }
+
+  synchronized void record(long now, long bucketNanos, Consumer<Bucket> update) {
+    long epoch = Math.floorDiv(now, bucketNanos);
+    Bucket bucket = buckets[(int) Math.floorMod(epoch, buckets.length)];
+    if (bucket.epoch != epoch) {
+      bucket.reset(epoch);
+    }
+    update.accept(bucket);
+  }
+
+  synchronized LockFamilyStats snapshot(String family, long now, long bucketNanos) {
+    long epoch = Math.floorDiv(now, bucketNanos);
+    long acquisitions = 0;
+    long failures = 0;
+    long fallbacks = 0;
+    long waitNanos = 0;
+    long maxWaitNanos = 0;
+    long holdNanos = 0;
+    long maxHoldNanos = 0;
+    for (Bucket bucket : buckets) {
+      if (bucket.epoch <= epoch - buckets.length || bucket.epoch > epoch) {
+        continue;
+      }
+      acquisitions += bucket.acquisitions;
+      failures += bucket.failures;
+      fallbacks += bucket.fallbacks;
+      waitNanos += bucket.waitNanos;
+      maxWaitNanos = Math.max(maxWaitNanos, bucket.maxWaitNanos);
+      holdNanos += bucket.holdNanos;
+      maxHoldNanos = Math.max(maxHoldNanos, bucket.maxHoldNanos);
+    }
+    return new LockFamilyStats(
+        family,
+        acquisitions,
+        failures,
+        fallbacks,
+        TimeUnit.NANOSECONDS.toMillis(waitNanos),
+        TimeUnit.NANOSECONDS.toMillis(maxWaitNanos),
+        TimeUnit.NANOSECONDS.toMillis(holdNanos),
+        TimeUnit.NANOSECONDS.toMillis(maxHoldNanos));
+  }
+
+  static final class Bucket {
+    private long epoch = Long.MIN_VALUE;
+    private long acquisitions;
+    private long failures;
+    private long fallbacks;
+    private long waitNanos;
+    private long maxWaitNanos;
+    private long holdNanos;
+    private long maxHoldNanos;
+
+    void acquired(long waitNanos) {
+      acquisitions++;
+      waited(waitNanos);
+    }
+
+    void failed(long waitNanos) {
+      failures++;
+      waited(waitNanos);
+    }
+
+    void held(long holdNanos) {
+      this.holdNanos += holdNanos;
+      maxHoldNanos = Math.max(maxHoldNanos, holdNanos);
+    }
+
+    void fallback() {
+      fallbacks++;
+    }
+
+    private void waited(long waitNanos) {
+      this.waitNanos += waitNanos;
+      maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+    }
+
+    private void reset(long epoch) {
+      this.epoch = epoch;
+      acquisitions = 0;
+      failures = 0;
+      fallbacks = 0;
+      waitNanos = 0;
+      maxWaitNanos = 0;
+      holdNanos = 0;
+      maxHoldNanos = 0;
+    }
+  }
+}
@@ -0,0 +1,201 @@
+package com.zfb.outbox;
+
+import com.zfb.lock.DistributedLockService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Publishes outbox rows to Kafka and deletes them once the broker acknowledged them. One instance
+ * relays at a time, under a fenced lock that Redisson's watchdog keeps while the instance is alive,
+ * and reads rows in id order, so the events of a key are sent in the order they were written. All
+ * records of a batch are handed to the producer before waiting, so they share producer batches
+ * ({@code linger.ms}, {@code batch.size}, compression). Acks are awaited without a transaction or
+ * row locks, then the acknowledged rows are deleted by id.
+ *
+ * <p>Delivery is at least once. When a send fails, that row and every later row of its key in the
+ * batch are kept and published again, in id order, by the next run; the run stops at the failed
+ * batch. Later records of the key that were already acknowledged therefore arrive again after the
+ * retried one, and consumers deduplicate by the transaction uuid in the payload.
+ */
+@Slf4j
+public class OutboxRelay {
+
+  private static final String LOCK_KEY_PREFIX = "outbox-relay:";
+
+  private static final RowMapper<OutboxEvent> ROW_MAPPER =
+      (rs, rowNum) ->
+          new OutboxEvent(
+              rs.getLong("id"),
+              rs.getString("topic"),
+              rs.getString("message_key"),
+              rs.getString("payload_type"),
+              rs.getBytes("payload"));
+
+  private final JdbcTemplate jdbcTemplate;
+  private final DistributedLockService lockService;
+  private final KafkaTemplate<String, byte[]> kafkaTemplate;
+  private final String table;
+  private final int batchSize;
+  private final int maxBatches;
+  private final long sendTimeoutMillis;
+  private final Counter published;
+  private final Counter failed;
+
+  public OutboxRelay(
+      JdbcTemplate jdbcTemplate,
+      DistributedLockService lockService,
+      KafkaTemplate<String, byte[]> kafkaTemplate,
+      MeterRegistry meterRegistry,
+      String table,
+      int batchSize,
+      int maxBatches,
+      long sendTimeoutMillis) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.lockService = lockService;
+    this.kafkaTemplate = kafkaTemplate;
+    this.table = table;
+    this.batchSize = batchSize;
+    this.maxBatches = maxBatches;
+    this.sendTimeoutMillis = sendTimeoutMillis;
+    this.published =
+        Counter.builder("outbox.published")
+            .description("outbox events acknowledged by kafka")
+            .register(meterRegistry);
+    this.failed =
+        Counter.builder("outbox.failures")
+            .description("outbox events whose send failed and will be retried")
+            .register(meterRegistry);
+  }
+
+  /** create the outbox table if it does not exist */
+  public void initializeSchema() {
+    jdbcTemplate.execute(
+        "create table if not exists "
+            + table
+            + " (id bigint not null auto_increment primary key,"
+            + " topic varchar(255) not null,"
+            + " message_key varchar(255),"
+            + " payload_type varchar(255),"
+            + " payload longblob not null,"
+            + " created_at datetime(6) not null)");
+  }
+
+  /**
+   * relay full batches until the outbox is drained, a send fails or the per-run limit is hit. does
+   * nothing while another instance relays the same table.
+   */
+  @Scheduled(fixedDelayString = "${common.outbox.relay.interval:200}")
+  public void relay() {
+    lockService.tryExecuteWithFencedLock(LOCK_KEY_PREFIX + table, token -> relayBatches(), 0);
+  }
+
+  private int relayBatches() {
+    int relayed = 0;
+    for (int batch = 0; batch < maxBatches; batch++) {
+      int deleted = relayBatch();
+      relayed += deleted;
+      if (deleted < batchSize) {
+        break;
+      }
+    }
+    return relayed;
+  }
+
+  /**
+   * publish one batch of outbox rows and delete the acknowledged ones whose key had no earlier
+   * failure in the batch. must run under the relay lock.
+   *
+   * @return number of rows deleted
+   */
+  int relayBatch() {
+    List<OutboxEvent> events =
+        jdbcTemplate.query(
+            "select id, topic, message_key, payload_type, payload from "
+                + table
+                + " order by id limit ?",
+            ROW_MAPPER,
+            batchSize);
+    if (events.isEmpty()) {
+      return 0;
+    }
+
+    List<CompletableFuture<SendResult<String, byte[]>>> futures = new ArrayList<>(events.size());
+    for (OutboxEvent event : events) {
+      futures.add(send(event));
+    }
+
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+    List<Long> sent = new ArrayList<>(events.size());
+    Set<String> failedKeys = new HashSet<>();
+    int failures = 0;
+    for (int i = 0; i < events.size(); i++) {
+      OutboxEvent event = events.get(i);
+      boolean acknowledged = false;
+      try {
+        futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        acknowledged = true;
+      } catch (ExecutionException | TimeoutException e) {
+        log.warn("outbox send failed: id={}, topic={}", event.id(), event.topic(), e);
+        failures++;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+
+      if (!acknowledged) {
+        if (event.key() != null) {
+          failedKeys.add(event.key());
+        }
+      } else if (event.key() == null || !failedKeys.contains(event.key())) {
+        sent.add(event.id());
+      }
+    }
+
+    if (!sent.isEmpty()) {
+      jdbcTemplate.update(
+          "delete from "
+              + table
+              + " where id in ("
+              + String.join(",", Collections.nCopies(sent.size(), "?"))
+              + ")",
+          sent.toArray());
+    }
+    published.increment(sent.size());
+    failed.increment(failures);
+    return sent.size();
+  }
+
+  private CompletableFuture<SendResult<String, byte[]>> send(OutboxEvent event) {
+    ProducerRecord<String, byte[]> record =
+        new ProducerRecord<>(event.topic(), event.key(), event.payload());
+    if (event.payloadType() != null) {
+      record
+          .headers()
+          .add(OutboxWriter.TYPE_ID_HEADER, event.payloadType().getBytes(StandardCharsets.UTF_8));
+    }
+    try {
+      return kafkaTemplate.send(record);
+    } catch (RuntimeException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  record OutboxEvent(long id, String topic, String key, String payloadType, byte[] payload) {}
+}
@@ -0,0 +1,75 @@
+package com.zfb.outbox;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Appends events to the outbox table in the caller's transaction, so an event is stored if and only
+ * if the business change commits. {@link OutboxRelay} publishes the rows to Kafka afterwards.
+ *
+ * <p>Payloads are serialized the way {@code KafkaConfig}'s template would serialize them, and the
+ * type header is kept next to the payload, so consumers see the same records as for a direct send.
+ * With {@code common.outbox.enabled=false} nothing is written.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+  /** type header written by the json serializer and read by the consumers' deserializer */
+  static final String TYPE_ID_HEADER = "__TypeId__";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  // same serializer as KafkaConfig's template, so relayed records match direct sends
+  @SuppressWarnings({"deprecation", "removal"})
+  private final JsonSerializer<Object> serializer = new JsonSerializer<>();
+
+  @Value("${common.outbox.enabled:false}")
+  private boolean enabled;
+
+  @Value("${common.outbox.table:outbox_events}")
+  private String table;
+
+  /**
+   * append an event to the outbox. must be called inside a transaction.
+   *
+   * @param topic kafka topic
+   * @param key record key; events with the same key are published in write order, see {@link
+   *     OutboxRelay} for retries
+   * @param payload event, serialized as json
+   */
+  public void append(String topic, String key, Object payload) {
+    if (!enabled) {
+      return;
+    }
+    if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+      throw new IllegalStateException("outbox events must be written in a transaction");
+    }
+
+    Headers headers = new RecordHeaders();
+    byte[] body = serializer.serialize(topic, headers, payload);
+    Header typeHeader = headers.lastHeader(TYPE_ID_HEADER);
+
+    jdbcTemplate.update(
+        "insert into "
+            + table
+            + " (topic, message_key, payload_type, payload, created_at) values (?, ?, ?, ?, ?)",
+        topic,
+        key,
+        typeHeader == null ? null : new String(typeHeader.value(), StandardCharsets.UTF_8),
+        body,
+        LocalDateTime.now());
+    log.debug("outbox event appended: topic={}, key={}", topic, key);
+  }
+}
@@ -0,0 +1,33 @@
+package com.zfb.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+class DoubleEvictionCacheManagerTest {
+
+  @Test
+  @DisplayName("a stale value put back after an eviction is evicted again after the delay")
+  void evict_RepeatedAfterDelay() throws InterruptedException {
+    // given
+    ConcurrentMapCacheManager remoteCacheManager = new ConcurrentMapCacheManager();
+    Cache cache =
+        new DoubleEvictionCacheManager(remoteCacheManager, Duration.ofMillis(50))
+            .getCache("balance");
+    cache.put("account-1", new BigDecimal("10.00"));
+
+    // when
+    cache.evict("account-1");
+    cache.put("account-1", new BigDecimal("10.00"));
+
+    // then
+    assertThat(cache.get("account-1")).isNotNull();
+    Thread.sleep(300);
+    assertThat(cache.get("account-1")).isNull();
+  }
+}
@@ -0,0 +1,88 @@
+package com.zfb.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.redisson.api.RTopic;
+import org.redisson.api.listener.MessageListener;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+class TwoTierCacheManagerTest {
+
+  private ConcurrentMapCacheManager remoteCacheManager;
+  private RTopic topic;
+  private TwoTierCacheManager cacheManager;
+
+  @BeforeEach
+  void setUp() {
+    remoteCacheManager = new ConcurrentMapCacheManager();
+    topic = mock(RTopic.class);
+    cacheManager = new TwoTierCacheManager(remoteCacheManager, Caffeine.newBuilder(), topic);
+  }
+
+  @Test
+  @DisplayName("read through copies remote value into near cache")
+  void get_ReadThrough() {
+    // given
+    remoteCacheManager.getCache("balance").put("account-1", new BigDecimal("10.00"));
+    Cache cache = cacheManager.getCache("balance");
+
+    // when
+    BigDecimal first = cache.get("account-1", BigDecimal.class);
+    remoteCacheManager.getCache("balance").put("account-1", new BigDecimal("99.00"));
+    BigDecimal second = cache.get("account-1", BigDecimal.class);
+
+    // then
+    assertThat(first).isEqualByComparingTo("10.00");
+    assertThat(second).isEqualByComparingTo("10.00");
+  }
+
+  @Test
+  @DisplayName("evict clears both tiers and broadcasts invalidation")
+  void evict_Broadcast() {
+    // given
+    Cache cache = cacheManager.getCache("balance");
+    cache.put("account-1", new BigDecimal("10.00"));
+
+    // when
+    cache.evict("account-1");
+
+    // then
+    assertThat(cache.get("account-1")).isNull();
+    assertThat(remoteCacheManager.getCache("balance").get("account-1")).isNull();
+    ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+    verify(topic).publish(message.capture());
+    assertThat(message.getValue()).endsWith("\nbalance\naccount-1");
+  }
+
+  @Test
+  @DisplayName("invalidation from another instance drops near copy only")
+  @SuppressWarnings("unchecked")
+  void onInvalidation_FromOtherInstance() {
+    // given
+    ArgumentCaptor<MessageListener<String>> listener =
+        ArgumentCaptor.forClass(MessageListener.class);
+    verify(topic).addListener(eq(String.class), listener.capture());
+    Cache cache = cacheManager.getCache("balance");
+    cache.put("account-1", new BigDecimal("10.00"));
+    remoteCacheManager.getCache("balance").put("account-1", new BigDecimal("20.00"));
+
+    // when
+    listener.getValue().onMessage("balance", "other-instance\nbalance\naccount-1");
+
+    // then
+    assertThat(cache.get("account-1", BigDecimal.class)).isEqualByComparingTo("20.00");
+    verify(topic, never()).publish(any());
+  }
+}
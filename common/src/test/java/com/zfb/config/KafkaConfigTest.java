@@ -0,0 +1,44 @@
+package com.zfb.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class KafkaConfigTest {
+
+  @Test
+  @DisplayName("batch factory uses batch listeners, manual ack and the configured poll size")
+  @SuppressWarnings("unchecked")
+  void batchKafkaListenerContainerFactory() {
+    // given
+    KafkaConfig.KafkaProperties kafkaProperties = new KafkaConfig.KafkaProperties();
+    kafkaProperties.setBootstrapServers(List.of("localhost:9092"));
+    kafkaProperties.getConsumer().setGroupId("zfb-forex");
+
+    // when
+    ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+        new KafkaConfig()
+            .batchKafkaListenerContainerFactory(
+                kafkaProperties, mock(KafkaTemplate.class), false, 4, 200, 100, 3);
+
+    // then
+    assertThat(factory.isBatchListener()).isTrue();
+    assertThat(factory.getContainerProperties().getAckMode())
+        .isEqualTo(ContainerProperties.AckMode.MANUAL);
+    assertThat(factory.getConsumerFactory().getConfigurationProperties())
+        .containsEntry(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 200)
+        .containsEntry(ConsumerConfig.GROUP_ID_CONFIG, "zfb-forex");
+    assertThat(ReflectionTestUtils.getField(factory, "concurrency")).isEqualTo(4);
+    assertThat(ReflectionTestUtils.getField(factory, "commonErrorHandler"))
+        .isInstanceOf(DefaultErrorHandler.class);
+  }
+}
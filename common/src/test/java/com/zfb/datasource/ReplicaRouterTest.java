@@ -0,0 +1,92 @@
+package com.zfb.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zfb.config.DataSourceRoutingConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+class ReplicaRouterTest {
+
+  @Test
+  @DisplayName("round robin rotates over available replicas")
+  void select_RoundRobin() {
+    // given
+    ReplicaRouter replicaRouter = router(ReplicaBalancing.ROUND_ROBIN, "replica-1", "replica-2");
+
+    // when & then
+    assertThat(replicaRouter.select()).isEqualTo("replica-1");
+    assertThat(replicaRouter.select()).isEqualTo("replica-2");
+    assertThat(replicaRouter.select()).isEqualTo("replica-1");
+  }
+
+  @Test
+  @DisplayName("ejected replica skipped until admitted again")
+  void select_EjectedReplica_Skipped() {
+    // given
+    ReplicaRouter replicaRouter =
+        router(ReplicaBalancing.LEAST_IN_FLIGHT, "replica-1", "replica-2");
+
+    // when
+    replicaRouter.eject("replica-1", "lag 5s");
+
+    // then
+    assertThat(replicaRouter.select()).isEqualTo("replica-2");
+    assertThat(replicaRouter.select()).isEqualTo("replica-2");
+
+    replicaRouter.admit("replica-1");
+    assertThat(replicaRouter.getAvailable()).containsExactly("replica-1", "replica-2");
+  }
+
+  @Test
+  @DisplayName("no replica selected when all replicas lag")
+  void select_AllEjected_ReturnsNull() {
+    // given
+    ReplicaRouter replicaRouter = router(ReplicaBalancing.ROUND_ROBIN, "replica-1");
+
+    // when
+    replicaRouter.eject("replica-1", "replication stopped");
+
+    // then
+    assertThat(replicaRouter.select()).isNull();
+  }
+
+  @Test
+  @DisplayName("replica pools bound from spring.datasource.replicas")
+  void replicaRouter_BindsReplicas() {
+    // given
+    MockEnvironment environment =
+        new MockEnvironment()
+            .withProperty("spring.datasource.replicas[0].pool-name", "replica-a")
+            .withProperty("spring.datasource.replicas[0].jdbc-url", "jdbc:h2:mem:a")
+            .withProperty("spring.datasource.replicas[0].maximum-pool-size", "7")
+            .withProperty("spring.datasource.replicas[0].read-only", "true")
+            .withProperty("spring.datasource.replicas[1].jdbc-url", "jdbc:h2:mem:b");
+
+    // when
+    ReplicaRouter replicaRouter =
+        new DataSourceRoutingConfig()
+            .replicaRouter(environment, ReplicaBalancing.ROUND_ROBIN, new SimpleMeterRegistry());
+
+    // then
+    assertThat(replicaRouter.getReplicas()).containsOnlyKeys("replica-a", "replica-1");
+    HikariDataSource replica = replicaRouter.getReplicas().get("replica-a");
+    assertThat(replica.getJdbcUrl()).isEqualTo("jdbc:h2:mem:a");
+    assertThat(replica.getMaximumPoolSize()).isEqualTo(7);
+    assertThat(replica.isReadOnly()).isTrue();
+    replicaRouter.close();
+  }
+
+  private ReplicaRouter router(ReplicaBalancing balancing, String... names) {
+    Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+    for (String name : names) {
+      replicas.put(name, new HikariDataSource());
+    }
+    return new ReplicaRouter(replicas, balancing);
+  }
+}
@@ -0,0 +1,85 @@
+package com.zfb.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class RoutingDataSourceTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private ReplicaRouter replicaRouter;
+  private RoutingDataSource routingDataSource;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    replicaRouter =
+        new ReplicaRouter(
+            Map.of("replica-1", new HikariDataSource()), ReplicaBalancing.ROUND_ROBIN);
+    routingDataSource =
+        new RoutingDataSource(replicaRouter, new ReadYourWritesTracker(null), meterRegistry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    DataSourceContextHolder.removeDataSourceType();
+  }
+
+  @Test
+  @DisplayName("read-only transaction routed to replica and counted")
+  void readOnly_RoutedToReplica() {
+    // given
+    DataSourceContextHolder.setDataSourceType(DataSourceType.REPLICA);
+
+    // when
+    Object lookupKey = routingDataSource.determineCurrentLookupKey();
+
+    // then
+    assertThat(lookupKey).isEqualTo("replica-1");
+    assertThat(count("replica-1", "replica")).isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("read-write transaction routed to master and counted")
+  void readWrite_RoutedToMaster() {
+    // given
+    DataSourceContextHolder.setDataSourceType(DataSourceType.MASTER);
+
+    // when
+    Object lookupKey = routingDataSource.determineCurrentLookupKey();
+
+    // then
+    assertThat(lookupKey).isEqualTo(DataSourceType.MASTER);
+    assertThat(count("master", "read-write")).isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("read-only transaction falls back to master when no replica is available")
+  void readOnly_NoReplica_RoutedToMaster() {
+    // given
+    DataSourceContextHolder.setDataSourceType(DataSourceType.REPLICA);
+    replicaRouter.eject("replica-1", "lag 10s");
+
+    // when
+    Object lookupKey = routingDataSource.determineCurrentLookupKey();
+
+    // then
+    assertThat(lookupKey).isEqualTo(DataSourceType.MASTER);
+    assertThat(count("master", "no-replica")).isEqualTo(1.0);
+  }
+
+  private double count(String target, String reason) {
+    return meterRegistry
+        .get(RoutingDataSource.METRIC_NAME)
+        .tag("target", target)
+        .tag("reason", reason)
+        .counter()
+        .count();
+  }
+}
@@ -0,0 +1,78 @@
+package com.zfb.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.zfb.domain.BaseColumn;
+import com.zfb.exception.BusinessException;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class CursorSliceTest {
+
+  private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 18, 9, 30, 15, 123456000);
+
+  @Test
+  @DisplayName("cursor survives an encode and decode round trip")
+  void cursor_RoundTrip() {
+    // given
+    KeysetCursor cursor = new KeysetCursor(NOW, 42L);
+
+    // when
+    KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+    // then
+    assertThat(decoded).isEqualTo(cursor);
+  }
+
+  @Test
+  @DisplayName("tampered cursor is rejected")
+  void cursor_Invalid() {
+    // when & then
+    assertThatThrownBy(() -> KeysetCursor.decode("not-a-cursor"))
+        .isInstanceOf(BusinessException.class)
+        .hasMessage("invalid cursor");
+  }
+
+  @Test
+  @DisplayName("extra row sets hasNext and the cursor of the last row kept")
+  void of_HasNext() {
+    // given
+    List<Row> rows = List.of(row(3, NOW), row(2, NOW), row(1, NOW.minusSeconds(1)));
+
+    // when
+    CursorSlice<Long> slice = CursorSlice.of(rows, 2, Row::getId);
+
+    // then
+    assertThat(slice.getContent()).containsExactly(3L, 2L);
+    assertThat(slice.isHasNext()).isTrue();
+    assertThat(KeysetCursor.decode(slice.getNextCursor())).isEqualTo(new KeysetCursor(NOW, 2L));
+  }
+
+  @Test
+  @DisplayName("last page has no cursor")
+  void of_LastPage() {
+    // given
+    List<Row> rows = List.of(row(1, NOW));
+
+    // when
+    CursorSlice<Long> slice = CursorSlice.of(rows, 2, Row::getId);
+
+    // then
+    assertThat(slice.getContent()).containsExactly(1L);
+    assertThat(slice.isHasNext()).isFalse();
+    assertThat(slice.getNextCursor()).isNull();
+  }
+
+  private static Row row(long id, LocalDateTime createdAt) {
+    Row row = new Row();
+    ReflectionTestUtils.setField(row, "id", id);
+    ReflectionTestUtils.setField(row, "createdAt", createdAt);
+    return row;
+  }
+
+  private static class Row extends BaseColumn {}
+}
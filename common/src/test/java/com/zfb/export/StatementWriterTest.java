@@ -0,0 +1,105 @@
+package com.zfb.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.zfb.exception.BusinessException;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+class StatementWriterTest {
+
+  private static final List<StatementColumn<Row>> COLUMNS =
+      List.of(
+          new StatementColumn<>("amount", Row::amount),
+          new StatementColumn<>("description", Row::description));
+
+  private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+  @Test
+  @DisplayName("csv has a header and escapes separators, quotes and nulls")
+  void csv() throws Exception {
+    // given
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    // when
+    try (StatementWriter<Row> writer =
+        new StatementWriter<>(out, StatementFormat.CSV, jsonMapper, COLUMNS)) {
+      writer.write(new Row(new BigDecimal("1E+3"), "salary, october"));
+      writer.write(new Row(new BigDecimal("12.50"), "say \"hi\""));
+      writer.write(new Row(null, null));
+    }
+
+    // then
+    assertThat(out.toString(StandardCharsets.UTF_8))
+        .isEqualTo(
+            "amount,description\n"
+                + "1000,\"salary, october\"\n"
+                + "12.50,\"say \"\"hi\"\"\"\n"
+                + ",\n");
+  }
+
+  @Test
+  @DisplayName("csv text that a spreadsheet would run as a formula is prefixed with a quote")
+  void csv_FormulaNeutralised() throws Exception {
+    // given
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    // when
+    try (StatementWriter<Row> writer =
+        new StatementWriter<>(out, StatementFormat.CSV, jsonMapper, COLUMNS)) {
+      writer.write(new Row(new BigDecimal("-5.00"), "=HYPERLINK(\"http://x\")"));
+      writer.write(new Row(BigDecimal.ONE, "+1"));
+      writer.write(new Row(BigDecimal.ONE, "-1"));
+      writer.write(new Row(BigDecimal.ONE, "@SUM(A1)"));
+    }
+
+    // then
+    assertThat(out.toString(StandardCharsets.UTF_8))
+        .isEqualTo(
+            "amount,description\n"
+                + "-5.00,\"'=HYPERLINK(\"\"http://x\"\")\"\n"
+                + "1,'+1\n"
+                + "1,'-1\n"
+                + "1,'@SUM(A1)\n");
+  }
+
+  @Test
+  @DisplayName("ndjson writes one json object per line")
+  void ndjson() throws Exception {
+    // given
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    // when
+    try (StatementWriter<Row> writer =
+        new StatementWriter<>(out, StatementFormat.NDJSON, jsonMapper, COLUMNS)) {
+      writer.write(new Row(new BigDecimal("12.50"), "coffee"));
+      writer.write(new Row(new BigDecimal("3.00"), "tea"));
+    }
+
+    // then
+    assertThat(out.toString(StandardCharsets.UTF_8).lines())
+        .containsExactly(
+            "{\"amount\":12.50,\"description\":\"coffee\"}",
+            "{\"amount\":3.00,\"description\":\"tea\"}");
+  }
+
+  @Test
+  @DisplayName("period ending before it starts is rejected")
+  void period_Invalid() {
+    // when & then
+    assertThatThrownBy(
+            () -> new StatementPeriod(LocalDate.of(2026, 10, 31), LocalDate.of(2026, 10, 1)))
+        .isInstanceOf(BusinessException.class);
+    assertThat(new StatementPeriod(LocalDate.of(2026, 10, 1), LocalDate.of(2026, 10, 31)).end())
+        .isEqualTo(LocalDate.of(2026, 11, 1).atStartOfDay());
+  }
+
+  record Row(BigDecimal amount, String description) {}
+}
@@ -0,0 +1,91 @@
+package com.zfb.id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.zfb.exception.BusinessException;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class SequenceBlockAllocatorTest {
+
+  private JdbcTemplate jdbcTemplate;
+  private PlatformTransactionManager transactionManager;
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate = mock(JdbcTemplate.class);
+    transactionManager = mock(PlatformTransactionManager.class);
+  }
+
+  @Test
+  @DisplayName("numbers of a block are handed out without going back to the database")
+  void next_LeasesOncePerBlock() {
+    // given
+    when(jdbcTemplate.queryForObject("select last_insert_id()", Long.class))
+        .thenReturn(3L)
+        .thenReturn(6L);
+    SequenceBlockAllocator allocator = allocator(3, 100, SequenceBlockAllocator.TakenNumbers.NONE);
+
+    // when
+    long first = allocator.next();
+    long second = allocator.next();
+    long third = allocator.next();
+    long fourth = allocator.next();
+
+    // then
+    assertThat(new long[] {first, second, third, fourth}).containsExactly(0, 1, 2, 3);
+    verify(jdbcTemplate, times(2)).queryForObject("select last_insert_id()", Long.class);
+    verify(jdbcTemplate, times(2)).update(anyString(), eq(3), eq("account-number"));
+  }
+
+  @Test
+  @DisplayName("numbers already in use are skipped, even across blocks")
+  void next_SkipsTakenNumbers() {
+    // given
+    when(jdbcTemplate.queryForObject("select last_insert_id()", Long.class))
+        .thenReturn(3L)
+        .thenReturn(6L);
+    SequenceBlockAllocator allocator =
+        allocator(3, 100, (from, to) -> from == 0 ? Set.of(1L, 2L) : Set.of(3L));
+
+    // when / then
+    assertThat(allocator.next(3)).containsExactly(0L, 4L, 5L);
+  }
+
+  @Test
+  @DisplayName("a lease past the largest number fails")
+  void next_Exhausted() {
+    // given
+    when(jdbcTemplate.queryForObject("select last_insert_id()", Long.class))
+        .thenReturn(10L)
+        .thenReturn(20L)
+        .thenReturn(30L);
+    SequenceBlockAllocator allocator = allocator(10, 14, SequenceBlockAllocator.TakenNumbers.NONE);
+
+    // when
+    allocator.next(10);
+
+    // then
+    assertThat(allocator.next(5)).containsExactly(10L, 11L, 12L, 13L, 14L);
+    assertThatThrownBy(allocator::next)
+        .isInstanceOf(BusinessException.class)
+        .hasMessageContaining("exhausted");
+  }
+
+  private SequenceBlockAllocator allocator(
+      int blockSize, long maxValue, SequenceBlockAllocator.TakenNumbers takenNumbers) {
+    return new SequenceBlockAllocator(
+        jdbcTemplate, transactionManager, "account-number", blockSize, maxValue, takenNumbers);
+  }
+}
@@ -0,0 +1,74 @@
+package com.zfb.id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.zfb.domain.UuidBinaryConverter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class UuidV7Test {
+
+  @Test
+  @DisplayName("generate version 7 uuid with current timestamp")
+  void generate_Version7() {
+    // given
+    long before = System.currentTimeMillis();
+
+    // when
+    UUID uuid = UuidV7.generate();
+
+    // then
+    assertThat(uuid.version()).isEqualTo(7);
+    assertThat(uuid.variant()).isEqualTo(2);
+    assertThat(uuid.getMostSignificantBits() >>> 16).isGreaterThanOrEqualTo(before);
+  }
+
+  @Test
+  @DisplayName("generated uuid strings increase monotonically")
+  void generate_Monotonic() {
+    // given
+    List<String> uuids = new ArrayList<>();
+
+    // when
+    for (int i = 0; i < 10_000; i++) {
+      uuids.add(UuidV7.generateString());
+    }
+
+    // then
+    assertThat(uuids).isSorted().doesNotHaveDuplicates();
+  }
+
+  @Test
+  @DisplayName("binary converter round trips canonical uuid string")
+  void binaryConverter_RoundTrip() {
+    // given
+    UuidBinaryConverter converter = new UuidBinaryConverter();
+    String uuid = UuidV7.generateString();
+
+    // when
+    byte[] stored = converter.convertToDatabaseColumn(uuid);
+
+    // then
+    assertThat(stored).hasSize(16);
+    assertThat(converter.convertToEntityAttribute(stored)).isEqualTo(uuid);
+    assertThat(converter.convertToDatabaseColumn(null)).isNull();
+  }
+
+  @Test
+  @DisplayName("binary converter accepts only strings it can store")
+  void binaryConverter_IsValid() {
+    // given
+    String uuid = UuidV7.generateString();
+
+    // when & then
+    assertThat(UuidBinaryConverter.isValid(uuid)).isTrue();
+    assertThat(UuidBinaryConverter.isValid("not-a-uuid")).isFalse();
+    assertThat(UuidBinaryConverter.isValid("1-1-1-1-1")).isFalse();
+    assertThat(UuidBinaryConverter.isValid(uuid + "0")).isFalse();
+    assertThat(UuidBinaryConverter.isValid("")).isFalse();
+    assertThat(UuidBinaryConverter.isValid(null)).isFalse();
+  }
+}
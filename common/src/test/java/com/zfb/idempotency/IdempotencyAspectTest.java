@@ -0,0 +1,118 @@
+package com.zfb.idempotency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.zfb.exception.BusinessException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+class IdempotencyAspectTest {
+
+  private IdempotencyStore idempotencyStore;
+  private PaymentService target;
+  private PaymentService proxy;
+
+  @BeforeEach
+  void setUp() {
+    idempotencyStore = mock(IdempotencyStore.class);
+    target = new PaymentService();
+    AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+    proxyFactory.addAspect(new IdempotencyAspect(idempotencyStore));
+    proxy = proxyFactory.getProxy();
+  }
+
+  @Test
+  @DisplayName("reserved request runs and its response is stored")
+  void reserved_RunsAndStoresResponse() {
+    // given
+    when(idempotencyStore.reserve("request-1"))
+        .thenReturn(
+            new IdempotencyStore.Reservation(IdempotencyStore.ReservationState.RESERVED, null));
+
+    // when
+    String result = proxy.pay("request-1");
+
+    // then
+    assertThat(result).isEqualTo("paid-1");
+    verify(idempotencyStore).complete("request-1", "paid-1");
+  }
+
+  @Test
+  @DisplayName("completed request is replayed without running")
+  void completed_Replayed() {
+    // given
+    when(idempotencyStore.reserve("request-1"))
+        .thenReturn(
+            new IdempotencyStore.Reservation(
+                IdempotencyStore.ReservationState.COMPLETED, "paid-1"));
+
+    // when
+    String result = proxy.pay("request-1");
+
+    // then
+    assertThat(result).isEqualTo("paid-1");
+    assertThat(target.calls.get()).isZero();
+  }
+
+  @Test
+  @DisplayName("request in progress elsewhere is rejected")
+  void inProgress_Rejected() {
+    // given
+    when(idempotencyStore.reserve("request-1"))
+        .thenReturn(
+            new IdempotencyStore.Reservation(IdempotencyStore.ReservationState.IN_PROGRESS, null));
+
+    // when & then
+    assertThatThrownBy(() -> proxy.pay("request-1"))
+        .isInstanceOf(BusinessException.class)
+        .hasMessage("request is already in progress");
+    assertThat(target.calls.get()).isZero();
+  }
+
+  @Test
+  @DisplayName("failed request releases its key")
+  void failed_ReleasesKey() {
+    // given
+    when(idempotencyStore.reserve("fail"))
+        .thenReturn(
+            new IdempotencyStore.Reservation(IdempotencyStore.ReservationState.RESERVED, null));
+
+    // when & then
+    assertThatThrownBy(() -> proxy.pay("fail")).isInstanceOf(IllegalStateException.class);
+    verify(idempotencyStore).release("fail");
+    verify(idempotencyStore, never()).complete(anyString(), any());
+  }
+
+  @Test
+  @DisplayName("request without a key is not deduplicated")
+  void noKey_Runs() {
+    // when
+    String result = proxy.pay(null);
+
+    // then
+    assertThat(result).isEqualTo("paid-1");
+    verify(idempotencyStore, never()).reserve(anyString());
+  }
+
+  static class PaymentService {
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Idempotent(key = "#p0")
+    public String pay(String requestId) {
+      if ("fail".equals(requestId)) {
+        throw new IllegalStateException("payment failed");
+      }
+      return "paid-" + calls.incrementAndGet();
+    }
+  }
+}
@@ -0,0 +1,269 @@
+package com.zfb.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.redisson.api.RFencedLock;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.redisson.misc.CompletableFutureWrapper;
+
+class DistributedLockServiceTest {
+
+  private RedissonClient redissonClient;
+  private RLock lock;
+  private DistributedLockService lockService;
+
+  @BeforeEach
+  void setUp() {
+    redissonClient = mock(RedissonClient.class);
+    lock = mock(RLock.class);
+    when(redissonClient.getLock("zfb:lock:account")).thenReturn(lock);
+    when(redissonClient.getFairLock("zfb:lock:account")).thenReturn(lock);
+    when(lock.unlockAsync(anyLong())).thenReturn(new CompletableFutureWrapper<>((Void) null));
+    lockService = new DistributedLockService(redissonClient);
+  }
+
+  @Test
+  @DisplayName("async lock runs task and releases the lock with the same owner")
+  void executeWithLockAsync_Success() {
+    // given
+    when(lock.tryLockAsync(eq(5L), eq(10L), eq(TimeUnit.SECONDS), anyLong()))
+        .thenReturn(new CompletableFutureWrapper<>(true));
+
+    // when
+    String result = lockService.executeWithLockAsync("account", () -> "done").join();
+
+    // then
+    assertThat(result).isEqualTo("done");
+    ArgumentCaptor<Long> lockOwner = ArgumentCaptor.forClass(Long.class);
+    verify(lock).tryLockAsync(eq(5L), eq(10L), eq(TimeUnit.SECONDS), lockOwner.capture());
+    verify(lock).unlockAsync(lockOwner.getValue());
+    assertThat(lockOwner.getValue()).isNegative();
+  }
+
+  @Test
+  @DisplayName("async lock not acquired completes with LockAcquisitionException")
+  void executeWithLockAsync_NotAcquired() {
+    // given
+    when(lock.tryLockAsync(eq(5L), eq(10L), eq(TimeUnit.SECONDS), anyLong()))
+        .thenReturn(new CompletableFutureWrapper<>(false));
+
+    // when
+    CompletableFuture<String> result = lockService.executeWithLockAsync("account", () -> "done");
+
+    // then
+    assertThatThrownBy(result::join)
+        .isInstanceOf(CompletionException.class)
+        .hasCauseInstanceOf(LockAcquisitionException.class);
+    verify(lock, never()).unlockAsync(anyLong());
+  }
+
+  @Test
+  @DisplayName("async task failure releases the lock and propagates the error")
+  void executeWithLockAsync_TaskFails() {
+    // given
+    when(lock.tryLockAsync(eq(1L), eq(10L), eq(TimeUnit.SECONDS), anyLong()))
+        .thenReturn(new CompletableFutureWrapper<>(true));
+
+    // when
+    CompletableFuture<String> result =
+        lockService.executeWithLockAsync(
+            "account",
+            1L,
+            10L,
+            true,
+            () -> {
+              throw new IllegalStateException("insufficient balance");
+            });
+
+    // then
+    assertThatThrownBy(result::join)
+        .isInstanceOf(CompletionException.class)
+        .hasCauseInstanceOf(IllegalStateException.class);
+    verify(redissonClient).getFairLock("zfb:lock:account");
+    verify(lock).unlockAsync(anyLong());
+  }
+
+  @Test
+  @DisplayName("nested lock on the same key reuses the held lock")
+  void executeWithLock_Reentrant() {
+    // given
+    when(lock.tryLockAsync(anyLong(), eq(10000L), eq(TimeUnit.MILLISECONDS), anyLong()))
+        .thenReturn(new CompletableFutureWrapper<>(true));
+
+    // when
+    String result =
+        lockService.executeWithLock(
+            "account", () -> lockService.executeWithLock("account", () -> "done"));
+
+    // then
+    assertThat(result).isEqualTo("done");
+    verify(lock, times(1)).tryLockAsync(anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS), anyLong());
+    verify(lock, times(1)).unlockAsync(anyLong());
+  }
+
+  @Test
+  @DisplayName("queued local caller takes over the held lock within a batch")
+  void executeWithLock_BatchHandOver() throws Exception {
+    // given
+    DistributedLockService batchingLockService =
+        new DistributedLockService(
+            redissonClient, new LockMetrics(new SimpleMeterRegistry()), 8, 1000);
+    when(lock.tryLockAsync(anyLong(), eq(-1L), eq(TimeUnit.MILLISECONDS), anyLong()))
+        .thenReturn(new CompletableFutureWrapper<>(true));
+    CountDownLatch secondCallerStarted = new CountDownLatch(1);
+    Thread secondCaller =
+        new Thread(
+            () -> {
+              secondCallerStarted.countDown();
+              batchingLockService.executeWithLock("account", () -> "second");
+            });
+
+    // when
+    batchingLockService.executeWithLock(
+        "account",
+        () -> {
+          secondCaller.start();
+          try {
+            secondCallerStarted.await();
+            Thread.sleep(100);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          return "first";
+        });
+    secondCaller.join();
+
+    // then
+    verify(lock, times(1)).tryLockAsync(anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS), anyLong());
+    verify(lock, times(1)).unlockAsync(anyLong());
+  }
+
+  @Test
+  @DisplayName("nested lock on another key takes its own lock instead of timing out")
+  void executeWithLock_NestedOtherKey() {
+    // given
+    RLock otherLock = mock(RLock.class);
+    when(redissonClient.getLock("zfb:lock:other")).thenReturn(otherLock);
+    when(otherLock.unlockAsync(anyLong())).thenReturn(new CompletableFutureWrapper<>((Void) null));
+    when(lock.tryLockAsync(anyLong(), eq(10000L), eq(TimeUnit.MILLISECONDS), anyLong()))
+        .thenReturn(new CompletableFutureWrapper<>(true));
+    when(otherLock.tryLockAsync(anyLong(), eq(10000L), eq(TimeUnit.MILLISECONDS), anyLong()))
+        .thenReturn(new CompletableFutureWrapper<>(true));
+
+    // when
+    String result =
+        lockService.executeWithLock(
+            "account", () -> lockService.executeWithLock("other", () -> "done"));
+
+    // then
+    assertThat(result).isEqualTo("done");
+    verify(otherLock).unlockAsync(anyLong());
+    verify(lock).unlockAsync(anyLong());
+  }
+
+  @Test
+  @DisplayName("lock granted after the waiting caller was interrupted is released")
+  void executeWithLock_InterruptedWhileWaiting() throws Exception {
+    // given
+    CompletableFuture<Boolean> pending = new CompletableFuture<>();
+    CountDownLatch waiting = new CountDownLatch(1);
+    when(lock.tryLockAsync(anyLong(), eq(10000L), eq(TimeUnit.MILLISECONDS), anyLong()))
+        .thenAnswer(
+            invocation -> {
+              waiting.countDown();
+              return new CompletableFutureWrapper<>(pending);
+            });
+    CompletableFuture<Throwable> failure = new CompletableFuture<>();
+    Thread caller =
+        new Thread(
+            () -> {
+              try {
+                lockService.executeWithLock("account", () -> "done");
+              } catch (RuntimeException e) {
+                failure.complete(e);
+              }
+            });
+
+    // when
+    caller.start();
+    waiting.await();
+    caller.interrupt();
+    caller.join();
+    pending.complete(true);
+
+    // then
+    assertThat(failure.join()).isInstanceOf(LockAcquisitionException.class);
+    ArgumentCaptor<Long> lockOwner = ArgumentCaptor.forClass(Long.class);
+    verify(lock).tryLockAsync(anyLong(), anyLong(), eq(TimeUnit.MILLISECONDS), lockOwner.capture());
+    verify(lock).unlockAsync(lockOwner.getValue());
+  }
+
+  @Test
+  @DisplayName("fenced lock passes the token to the task and releases the lock")
+  void executeWithFencedLock_Success() {
+    // given
+    RFencedLock fencedLock = mock(RFencedLock.class);
+    when(redissonClient.getFencedLock("zfb:lock:account")).thenReturn(fencedLock);
+    when(fencedLock.tryLockAndGetToken(5L, TimeUnit.SECONDS)).thenReturn(42L);
+
+    // when
+    String result = lockService.executeWithFencedLock("account", token -> "token-" + token);
+
+    // then
+    assertThat(result).isEqualTo("token-42");
+    verify(fencedLock).unlock();
+  }
+
+  @Test
+  @DisplayName("fenced lock not acquired throws LockAcquisitionException")
+  void executeWithFencedLock_NotAcquired() {
+    // given
+    RFencedLock fencedLock = mock(RFencedLock.class);
+    when(redissonClient.getFencedLock("zfb:lock:account")).thenReturn(fencedLock);
+    when(fencedLock.tryLockAndGetToken(1L, TimeUnit.SECONDS)).thenReturn(null);
+
+    // when & then
+    assertThatThrownBy(() -> lockService.executeWithFencedLock("account", 1L, token -> "done"))
+        .isInstanceOf(LockAcquisitionException.class);
+    verify(fencedLock, never()).unlock();
+  }
+
+  @Test
+  @DisplayName("fenced try lock held elsewhere returns the default without recording a failure")
+  void tryExecuteWithFencedLock_HeldElsewhere() {
+    // given
+    LockMetrics lockMetrics = mock(LockMetrics.class);
+    DistributedLockService quietLockService =
+        new DistributedLockService(redissonClient, lockMetrics, 1, 0);
+    RFencedLock fencedLock = mock(RFencedLock.class);
+    when(redissonClient.getFencedLock("zfb:lock:account")).thenReturn(fencedLock);
+    when(fencedLock.tryLockAndGetToken()).thenReturn(null);
+
+    // when
+    String result = quietLockService.tryExecuteWithFencedLock("account", token -> "done", "skip");
+
+    // then
+    assertThat(result).isEqualTo("skip");
+    verify(fencedLock, never()).unlock();
+    verifyNoInteractions(lockMetrics);
+  }
+}
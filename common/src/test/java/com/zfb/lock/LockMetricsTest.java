@@ -0,0 +1,111 @@
+package com.zfb.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LockMetricsTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private LockMetrics lockMetrics;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    lockMetrics = new LockMetrics(meterRegistry);
+  }
+
+  @Test
+  @DisplayName("key family drops the last key segment")
+  void family() {
+    assertThat(LockMetrics.family("forex:account:0190a1b2")).isEqualTo("forex:account");
+    assertThat(LockMetrics.family("account")).isEqualTo("account");
+    assertThat(LockMetrics.family(null)).isEqualTo("other");
+  }
+
+  @Test
+  @DisplayName("waits, holds and fallbacks are tagged by key family")
+  void meters_TaggedByFamily() {
+    // given
+    long start = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(30);
+
+    // when
+    long acquiredAt = lockMetrics.acquired("forex:account:a", start);
+    lockMetrics.released("forex:account:a", acquiredAt);
+    lockMetrics.failed("forex:account:b", start, LockMetrics.TIMEOUT);
+    lockMetrics.fallback("forex:account:c");
+
+    // then
+    assertThat(
+            meterRegistry
+                .get(LockMetrics.WAIT_METRIC)
+                .tag("family", "forex:account")
+                .tag("outcome", LockMetrics.ACQUIRED)
+                .timer()
+                .count())
+        .isEqualTo(1);
+    assertThat(
+            meterRegistry
+                .get(LockMetrics.WAIT_METRIC)
+                .tag("family", "forex:account")
+                .tag("outcome", LockMetrics.TIMEOUT)
+                .timer()
+                .totalTime(TimeUnit.MILLISECONDS))
+        .isGreaterThanOrEqualTo(30);
+    assertThat(
+            meterRegistry
+                .get(LockMetrics.HOLD_METRIC)
+                .tag("family", "forex:account")
+                .timer()
+                .count())
+        .isEqualTo(1);
+    assertThat(
+            meterRegistry
+                .get(LockMetrics.FALLBACK_METRIC)
+                .tag("family", "forex:account")
+                .counter()
+                .count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("families ranked by time spent waiting in the window")
+  void topContended_RankedByWait() {
+    // given
+    long now = System.nanoTime();
+    lockMetrics.acquired("current:account:a", now - TimeUnit.MILLISECONDS.toNanos(5));
+    lockMetrics.acquired("forex:account:a", now - TimeUnit.MILLISECONDS.toNanos(200));
+    lockMetrics.failed("forex:account:b", now - TimeUnit.MILLISECONDS.toNanos(100), "timeout");
+
+    // when
+    List<LockFamilyStats> top = lockMetrics.topContended(10);
+
+    // then
+    assertThat(top)
+        .extracting(LockFamilyStats::family)
+        .containsExactly("forex:account", "current:account");
+    assertThat(top.get(0).acquisitions()).isEqualTo(1);
+    assertThat(top.get(0).failures()).isEqualTo(1);
+    assertThat(top.get(0).maxWaitMillis()).isGreaterThanOrEqualTo(200);
+    assertThat(lockMetrics.topContended(1)).hasSize(1);
+  }
+
+  @Test
+  @DisplayName("activity older than the window is not reported")
+  void topContended_WindowExpires() throws InterruptedException {
+    // given
+    LockMetrics shortWindow = new LockMetrics(meterRegistry, 120, 5000);
+    shortWindow.fallback("forex:account:a");
+
+    // when
+    Thread.sleep(200);
+
+    // then
+    assertThat(shortWindow.topContended(10)).isEmpty();
+  }
+}
@@ -0,0 +1,135 @@
+package com.zfb.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.zfb.lock.DistributedLockService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongFunction;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+class OutboxRelayTest {
+
+  private JdbcTemplate jdbcTemplate;
+  private KafkaTemplate<String, byte[]> kafkaTemplate;
+  private DistributedLockService lockService;
+  private SimpleMeterRegistry meterRegistry;
+  private OutboxRelay relay;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    jdbcTemplate = mock(JdbcTemplate.class);
+    kafkaTemplate = mock(KafkaTemplate.class);
+    lockService = mock(DistributedLockService.class);
+    meterRegistry = new SimpleMeterRegistry();
+    relay =
+        new OutboxRelay(
+            jdbcTemplate, lockService, kafkaTemplate, meterRegistry, "outbox_events", 10, 5, 1000);
+  }
+
+  @Test
+  @DisplayName("acknowledged rows are deleted unless an earlier row of their key failed")
+  @SuppressWarnings("unchecked")
+  void relayBatch_DeletesAcknowledgedRows() {
+    // given
+    givenRows(
+        new OutboxRelay.OutboxEvent(1, "forex.transactions", "a", "com.zfb.Dto", payload()),
+        new OutboxRelay.OutboxEvent(2, "forex.transactions", "b", "com.zfb.Dto", payload()),
+        new OutboxRelay.OutboxEvent(3, "forex.transactions", "a", null, payload()),
+        new OutboxRelay.OutboxEvent(4, "forex.transactions", "b", "com.zfb.Dto", payload()));
+    when(kafkaTemplate.send(any(ProducerRecord.class)))
+        .thenReturn(
+            CompletableFuture.completedFuture(mock(SendResult.class)),
+            CompletableFuture.failedFuture(new KafkaException("broker unavailable")),
+            CompletableFuture.completedFuture(mock(SendResult.class)),
+            CompletableFuture.completedFuture(mock(SendResult.class)));
+
+    // when
+    int relayed = relay.relayBatch();
+
+    // then
+    assertThat(relayed).isEqualTo(2);
+    verify(jdbcTemplate).update("delete from outbox_events where id in (?,?)", 1L, 3L);
+    assertThat(meterRegistry.get("outbox.published").counter().count()).isEqualTo(2);
+    assertThat(meterRegistry.get("outbox.failures").counter().count()).isEqualTo(1);
+
+    ArgumentCaptor<ProducerRecord<String, byte[]>> records =
+        ArgumentCaptor.forClass(ProducerRecord.class);
+    verify(kafkaTemplate, times(4)).send(records.capture());
+    ProducerRecord<String, byte[]> first = records.getAllValues().get(0);
+    assertThat(first.key()).isEqualTo("a");
+    assertThat(first.headers().lastHeader(OutboxWriter.TYPE_ID_HEADER).value())
+        .isEqualTo("com.zfb.Dto".getBytes(StandardCharsets.UTF_8));
+    assertThat(records.getAllValues().get(2).headers().lastHeader(OutboxWriter.TYPE_ID_HEADER))
+        .isNull();
+  }
+
+  @Test
+  @DisplayName("an empty outbox sends and deletes nothing")
+  @SuppressWarnings("unchecked")
+  void relayBatch_EmptyOutbox() {
+    // given
+    givenRows();
+
+    // when
+    int relayed = relay.relayBatch();
+
+    // then
+    assertThat(relayed).isZero();
+    verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+    verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+  }
+
+  @Test
+  @DisplayName("relay reads rows without locking them and skips while another instance relays")
+  @SuppressWarnings("unchecked")
+  void relay_UnderRelayLock() {
+    // given
+    givenRows();
+    when(lockService.tryExecuteWithFencedLock(eq("outbox-relay:outbox_events"), any(), eq(0)))
+        .thenAnswer(invocation -> invocation.<LongFunction<?>>getArgument(1).apply(1L))
+        .thenReturn(0);
+
+    // when
+    relay.relay();
+    relay.relay();
+
+    // then
+    verify(jdbcTemplate)
+        .query(
+            eq(
+                "select id, topic, message_key, payload_type, payload from outbox_events"
+                    + " order by id limit ?"),
+            any(RowMapper.class),
+            eq(10));
+  }
+
+  @SuppressWarnings("unchecked")
+  private void givenRows(OutboxRelay.OutboxEvent... events) {
+    when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(10))).thenReturn(List.of(events));
+  }
+
+  private static byte[] payload() {
+    return "{}".getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,76 @@
+package com.zfb.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class OutboxWriterTest {
+
+  private JdbcTemplate jdbcTemplate;
+  private OutboxWriter outboxWriter;
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate = mock(JdbcTemplate.class);
+    outboxWriter = new OutboxWriter(jdbcTemplate);
+    ReflectionTestUtils.setField(outboxWriter, "enabled", true);
+    ReflectionTestUtils.setField(outboxWriter, "table", "outbox_events");
+  }
+
+  @AfterEach
+  void tearDown() {
+    TransactionSynchronizationManager.setActualTransactionActive(false);
+  }
+
+  @Test
+  @DisplayName("event is inserted with its json payload and type")
+  void append_InsertsRow() {
+    // given
+    TransactionSynchronizationManager.setActualTransactionActive(true);
+
+    // when
+    outboxWriter.append("forex.transactions", "account-1", Map.of("amount", 10));
+
+    // then
+    ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+    ArgumentCaptor<Object> payloadType = ArgumentCaptor.forClass(Object.class);
+    verify(jdbcTemplate)
+        .update(
+            eq(
+                "insert into outbox_events (topic, message_key, payload_type, payload, created_at)"
+                    + " values (?, ?, ?, ?, ?)"),
+            eq("forex.transactions"),
+            eq("account-1"),
+            payloadType.capture(),
+            payload.capture(),
+            any());
+    assertThat(new String((byte[]) payload.getValue(), StandardCharsets.UTF_8))
+        .isEqualTo("{\"amount\":10}");
+    assertThat(payloadType.getValue()).isNotNull();
+  }
+
+  @Test
+  @DisplayName("event outside a transaction is rejected")
+  void append_RequiresTransaction() {
+    // when & then
+    assertThatThrownBy(() -> outboxWriter.append("forex.transactions", "account-1", "event"))
+        .isInstanceOf(IllegalStateException.class);
+    verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+  }
+}
@@ -3,15 +3,26 @@ package com.zfb.current.controller;
 import com.zfb.current.dto.*;
 import com.zfb.current.service.CurrentAccountService;
 import com.zfb.dto.ApiResponse;
+import com.zfb.dto.BulkItemResult;
+import com.zfb.dto.CursorSlice;
+import com.zfb.export.StatementFormat;
+import com.zfb.export.StatementPeriod;
+import com.zfb.export.StatementWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
+import java.time.LocalDate;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
 
 @RestController
 @RequestMapping("/api/current/accounts")
@@ -19,6 +30,7 @@ import org.springframework.web.bind.annotation.*;
 public class CurrentAccountController {
 
   private final CurrentAccountService accountService;
+  private final JsonMapper jsonMapper;
 
   @PostMapping
   @Operation(
@@ -30,6 +42,16 @@ public class CurrentAccountController {
     return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.of(account));
   }
 
+  @PostMapping("/batch")
+  @Operation(
+      summary = "Create Current Accounts",
+      description = "create many current accounts at once, with a result for each request.")
+  public ResponseEntity<ApiResponse<List<BulkItemResult<CurrentAccountDto>>>> createAccounts(
+      @Valid @RequestBody BulkCreateAccountRequest request) {
+    List<BulkItemResult<CurrentAccountDto>> results = accountService.createAccounts(request);
+    return ResponseEntity.ok(ApiResponse.of(results));
+  }
+
   @GetMapping("/{accountUuid}")
   @Operation(
       summary = "Get Current Account",
@@ -50,6 +72,18 @@ public class CurrentAccountController {
     return ResponseEntity.ok(ApiResponse.of(accounts));
   }
 
+  @PutMapping("/{accountUuid}/balance-slots")
+  @Operation(
+      summary = "Update Balance Slots",
+      description =
+          "spread deposits to a hot current account over the given number of balance slots."
+              + " 0 turns hot account mode off.")
+  public ResponseEntity<ApiResponse<CurrentAccountDto>> updateBalanceSlots(
+      @PathVariable String accountUuid, @Valid @RequestBody UpdateBalanceSlotsRequest request) {
+    CurrentAccountDto account = accountService.updateBalanceSlots(accountUuid, request);
+    return ResponseEntity.ok(ApiResponse.of(account));
+  }
+
   @PostMapping("/{accountUuid}/withdraw")
   @Operation(
       summary = "Withdraw from Current Account",
@@ -91,6 +125,54 @@ public class CurrentAccountController {
     return ResponseEntity.ok(ApiResponse.of(transactions));
   }
 
+  @GetMapping("/{accountUuid}/transactions/cursor")
+  @Operation(
+      summary = "Get Transaction History By Cursor",
+      description =
+          "get a slice of transactions by account uuid, newest first. pass nextCursor of the"
+              + " previous slice to get the next one.")
+  public ResponseEntity<ApiResponse<CursorSlice<CurrentTransactionDto>>>
+      getTransactionHistoryByCursor(
+          @PathVariable String accountUuid,
+          @RequestParam(required = false) String cursor,
+          @RequestParam(defaultValue = "20") int size) {
+    CursorSlice<CurrentTransactionDto> transactions =
+        accountService.getTransactionHistory(accountUuid, cursor, size);
+    return ResponseEntity.ok(ApiResponse.of(transactions));
+  }
+
+  @GetMapping("/{accountUuid}/statement")
+  @Operation(
+      summary = "Export Statement",
+      description =
+          "stream the transactions of an account between two dates, both included, as ndjson or"
+              + " csv.")
+  public ResponseEntity<StreamingResponseBody> exportStatement(
+      @PathVariable String accountUuid,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+      @RequestParam(defaultValue = "NDJSON") StatementFormat format) {
+    StatementPeriod period = new StatementPeriod(from, to);
+    accountService.getAccount(accountUuid);
+
+    StreamingResponseBody body =
+        out -> {
+          try (StatementWriter<CurrentTransactionDto> writer =
+              new StatementWriter<>(
+                  out, format, jsonMapper, CurrentTransactionDto.STATEMENT_COLUMNS)) {
+            accountService.exportStatement(accountUuid, period, writer::write);
+          }
+        };
+    String filename =
+        "statement-" + accountUuid + "-" + from + "-" + to + "." + format.getExtension();
+    return ResponseEntity.ok()
+        .contentType(format.getMediaType())
+        .header(
+            HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename(filename).build().toString())
+        .body(body);
+  }
+
   @GetMapping("/transactions/{transactionUuid}/verify")
   @Operation(
       summary = "Verify Transaction",
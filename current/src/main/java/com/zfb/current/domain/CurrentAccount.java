@@ -6,6 +6,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.math.BigDecimal;
 import lombok.AccessLevel;
 import lombok.Builder;
@@ -31,6 +32,14 @@ public class CurrentAccount extends BaseColumn {
   @Column(nullable = false, length = 20)
   private AccountStatus status;
 
+  /** number of balance slots deposits are spread over, 0 when hot account mode is off */
+  @Column(nullable = false)
+  private int balanceSlots;
+
+  @Version
+  @Column(nullable = false)
+  private long version;
+
   @Builder
   public CurrentAccount(
       String accountNumber, String userUuid, BigDecimal balance, AccountStatus status) {
@@ -73,6 +82,46 @@ public class CurrentAccount extends BaseColumn {
     this.balance = this.balance.add(amount);
   }
 
+  /**
+   * deposit money into one of the balance slots of the account
+   *
+   * @param slot the locked balance slot
+   * @param amount the amount to deposit
+   */
+  public void depositToSlot(CurrentAccountBalanceSlot slot, BigDecimal amount) {
+    if (this.status != AccountStatus.ACTIVE) {
+      throw new IllegalStateException("account is not active");
+    }
+    slot.deposit(amount);
+  }
+
+  /**
+   * move money swept from the balance slots into the account balance
+   *
+   * @param amount the amount swept from the slots
+   */
+  public void absorb(BigDecimal amount) {
+    this.balance = this.balance.add(amount);
+  }
+
+  /**
+   * check whether deposits are spread over balance slots
+   *
+   * @return true if hot account mode is on
+   */
+  public boolean isHotAccount() {
+    return this.balanceSlots > 0;
+  }
+
+  /**
+   * update the number of balance slots
+   *
+   * @param balanceSlots number of slots, 0 to turn hot account mode off
+   */
+  public void updateBalanceSlots(int balanceSlots) {
+    this.balanceSlots = balanceSlots;
+  }
+
   /**
    * update account status
    *
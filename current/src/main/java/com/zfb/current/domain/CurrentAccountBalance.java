@@ -0,0 +1,52 @@
+package com.zfb.current.domain;
+
+import java.math.BigDecimal;
+
+/**
+ * Balance, status and version of a current account read without a lock and outside the persistence
+ * context, so every read sees the latest committed row.
+ */
+public record CurrentAccountBalance(
+    String uuid,
+    String accountNumber,
+    String userUuid,
+    BigDecimal balance,
+    CurrentAccount.AccountStatus status,
+    int balanceSlots,
+    long version) {
+
+  /**
+   * check whether deposits are spread over balance slots
+   *
+   * @return true if hot account mode is on
+   */
+  public boolean isHotAccount() {
+    return balanceSlots > 0;
+  }
+
+  /**
+   * check that the amount can be withdrawn at this snapshot
+   *
+   * @param amount the amount to withdraw
+   */
+  public void checkWithdraw(BigDecimal amount) {
+    checkDeposit(amount);
+    if (balance.compareTo(amount) < 0) {
+      throw new IllegalStateException("insufficient balance");
+    }
+  }
+
+  /**
+   * check that the amount can be deposited at this snapshot
+   *
+   * @param amount the amount to deposit
+   */
+  public void checkDeposit(BigDecimal amount) {
+    if (status != CurrentAccount.AccountStatus.ACTIVE) {
+      throw new IllegalStateException("account is not active");
+    }
+    if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+      throw new IllegalArgumentException("amount must be positive");
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package com.zfb.current.domain;
+
+import com.zfb.domain.BaseColumn;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.math.BigDecimal;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sub-balance of a hot current account. Deposits to a hot account land on one of its slots, so
+ * concurrent deposits lock different rows instead of the single account row.
+ */
+@Entity
+@Table(
+    name = "current_account_balance_slots",
+    uniqueConstraints = {
+      @UniqueConstraint(
+          name = "uk_account_uuid_slot_index",
+          columnNames = {"accountUuid", "slotIndex"})
+    })
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class CurrentAccountBalanceSlot extends BaseColumn {
+
+  @Column(nullable = false, length = 36)
+  private String accountUuid;
+
+  @Column(nullable = false)
+  private int slotIndex;
+
+  @Column(nullable = false, precision = 19, scale = 2)
+  private BigDecimal balance;
+
+  @Builder
+  public CurrentAccountBalanceSlot(String accountUuid, int slotIndex, BigDecimal balance) {
+    this.accountUuid = accountUuid;
+    this.slotIndex = slotIndex;
+    this.balance = balance != null ? balance : BigDecimal.ZERO;
+  }
+
+  /**
+   * deposit money into the slot
+   *
+   * @param amount the amount to deposit
+   */
+  public void deposit(BigDecimal amount) {
+    if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+      throw new IllegalArgumentException("amount must be positive");
+    }
+    this.balance = this.balance.add(amount);
+  }
+
+  /**
+   * take the whole slot balance out of the slot
+   *
+   * @return the balance the slot held
+   */
+  public BigDecimal drain() {
+    BigDecimal drained = this.balance;
+    this.balance = BigDecimal.ZERO;
+    return drained;
+  }
+}
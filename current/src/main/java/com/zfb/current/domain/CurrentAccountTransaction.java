@@ -17,8 +17,17 @@ import lombok.NoArgsConstructor;
 @Table(
     name = "current_account_transactions",
     indexes = {
-      @Index(name = "idx_account_uuid", columnList = "accountUuid"),
-      @Index(name = "idx_client_request_uuid", columnList = "clientRequestUuid"),
+      @Index(name = "idx_account_created_id", columnList = "accountUuid,created_at,id"),
+      @Index(
+          name = "idx_client_request_verification",
+          columnList =
+              "client_request_uuid,uuid,accountUuid,type,status,amount,balanceBefore,"
+                  + "balanceAfter,saga_uuid,created_at"),
+      @Index(
+          name = "idx_uuid_verification",
+          columnList =
+              "uuid,accountUuid,type,status,amount,balanceBefore,balanceAfter,"
+                  + "client_request_uuid,saga_uuid,created_at"),
       @Index(name = "idx_status_created", columnList = "status,createdAt")
     })
 @Getter
@@ -41,6 +50,10 @@ public class CurrentAccountTransaction extends BaseColumn {
   @Column(precision = 19, scale = 2)
   private BigDecimal balanceAfter;
 
+  @Enumerated(EnumType.STRING)
+  @Column(length = 20)
+  private BalanceScope balanceScope;
+
   @Enumerated(EnumType.STRING)
   @Column(nullable = false, length = 20)
   private TransactionStatus status;
@@ -61,6 +74,7 @@ public class CurrentAccountTransaction extends BaseColumn {
       BigDecimal amount,
       BigDecimal balanceBefore,
       BigDecimal balanceAfter,
+      BalanceScope balanceScope,
       TransactionStatus status,
       String clientRequestUuid,
       String sagaUuid,
@@ -70,6 +84,7 @@ public class CurrentAccountTransaction extends BaseColumn {
     this.amount = amount;
     this.balanceBefore = balanceBefore;
     this.balanceAfter = balanceAfter;
+    this.balanceScope = balanceScope != null ? balanceScope : BalanceScope.ACCOUNT;
     this.status = status != null ? status : TransactionStatus.PENDING;
     this.clientRequestUuid = clientRequestUuid;
     this.sagaUuid = sagaUuid;
@@ -98,6 +113,19 @@ public class CurrentAccountTransaction extends BaseColumn {
     REFUND
   }
 
+  /** what balanceBefore and balanceAfter cover; rows written before it was added are ACCOUNT */
+  public enum BalanceScope {
+    /** the whole account balance */
+    ACCOUNT,
+    /**
+     * the account row of a hot account, after the slots a withdrawal needs were swept into it;
+     * money still held in balance slots is not included
+     */
+    ACCOUNT_ROW,
+    /** the balance slot of a hot account the deposit went to */
+    BALANCE_SLOT
+  }
+
   public enum TransactionStatus {
     PENDING,
     COMPLETED,
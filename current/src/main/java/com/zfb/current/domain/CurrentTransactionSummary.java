@@ -0,0 +1,21 @@
+package com.zfb.current.domain;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Fields of a current account transaction needed to verify it, read without the description and
+ * outside the persistence context. Every field is in the verification indexes, so the row itself is
+ * not read.
+ */
+public record CurrentTransactionSummary(
+    String uuid,
+    String accountUuid,
+    CurrentAccountTransaction.TransactionType type,
+    CurrentAccountTransaction.TransactionStatus status,
+    BigDecimal amount,
+    BigDecimal balanceBefore,
+    BigDecimal balanceAfter,
+    String clientRequestUuid,
+    String sagaUuid,
+    LocalDateTime createdAt) {}
@@ -0,0 +1,17 @@
+package com.zfb.current.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+public class BulkCreateAccountRequest {
+
+  @NotEmpty(message = "accounts are required")
+  @Size(max = 10000, message = "at most 10000 accounts per request")
+  private List<@Valid CreateAccountRequest> accounts;
+}
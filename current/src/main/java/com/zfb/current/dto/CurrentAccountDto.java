@@ -3,11 +3,16 @@ package com.zfb.current.dto;
 import com.zfb.current.domain.CurrentAccount;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 
 @Getter
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
 public class CurrentAccountDto {
   private String uuid;
   private String accountNumber;
@@ -18,11 +23,15 @@ public class CurrentAccountDto {
   private LocalDateTime updatedAt;
 
   public static CurrentAccountDto from(CurrentAccount account) {
+    return from(account, account.getBalance());
+  }
+
+  public static CurrentAccountDto from(CurrentAccount account, BigDecimal balance) {
     return CurrentAccountDto.builder()
         .uuid(account.getUuid())
         .accountNumber(account.getAccountNumber())
         .userUuid(account.getUserUuid())
-        .balance(account.getBalance())
+        .balance(balance)
         .status(account.getStatus().name())
         .createdAt(account.getCreatedAt())
         .updatedAt(account.getUpdatedAt())
@@ -1,20 +1,48 @@
 package com.zfb.current.dto;
 
 import com.zfb.current.domain.CurrentAccountTransaction;
+import com.zfb.export.StatementColumn;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 
 @Getter
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
 public class CurrentTransactionDto {
+
+  /** columns of csv statements */
+  public static final List<StatementColumn<CurrentTransactionDto>> STATEMENT_COLUMNS =
+      List.of(
+          new StatementColumn<>("uuid", CurrentTransactionDto::getUuid),
+          new StatementColumn<>("createdAt", CurrentTransactionDto::getCreatedAt),
+          new StatementColumn<>("type", CurrentTransactionDto::getType),
+          new StatementColumn<>("status", CurrentTransactionDto::getStatus),
+          new StatementColumn<>("amount", CurrentTransactionDto::getAmount),
+          new StatementColumn<>("balanceBefore", CurrentTransactionDto::getBalanceBefore),
+          new StatementColumn<>("balanceAfter", CurrentTransactionDto::getBalanceAfter),
+          new StatementColumn<>("balanceScope", CurrentTransactionDto::getBalanceScope),
+          new StatementColumn<>("description", CurrentTransactionDto::getDescription));
+
   private String uuid;
   private String accountUuid;
   private String type;
   private BigDecimal amount;
   private BigDecimal balanceBefore;
   private BigDecimal balanceAfter;
+
+  /**
+   * what balanceBefore and balanceAfter cover: ACCOUNT for the whole balance, ACCOUNT_ROW or
+   * BALANCE_SLOT for hot accounts whose money is split across balance slots
+   */
+  private String balanceScope;
+
   private String status;
   private String description;
   private LocalDateTime createdAt;
@@ -27,6 +55,10 @@ public class CurrentTransactionDto {
         .amount(transaction.getAmount())
         .balanceBefore(transaction.getBalanceBefore())
         .balanceAfter(transaction.getBalanceAfter())
+        .balanceScope(
+            transaction.getBalanceScope() != null
+                ? transaction.getBalanceScope().name()
+                : CurrentAccountTransaction.BalanceScope.ACCOUNT.name())
         .status(transaction.getStatus().name())
         .description(transaction.getDescription())
         .createdAt(transaction.getCreatedAt())
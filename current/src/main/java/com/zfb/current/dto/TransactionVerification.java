@@ -1,13 +1,18 @@
 package com.zfb.current.dto;
 
-import com.zfb.current.domain.CurrentAccountTransaction;
+import com.zfb.current.domain.CurrentTransactionSummary;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 
 @Getter
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
 public class TransactionVerification {
   private String transactionUuid;
   private String clientRequestUuid;
@@ -21,26 +26,28 @@ public class TransactionVerification {
 
   @Getter
   @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor(access = AccessLevel.PRIVATE)
   public static class BalanceInfo {
     private BigDecimal before;
     private BigDecimal after;
   }
 
-  public static TransactionVerification from(CurrentAccountTransaction transaction) {
+  public static TransactionVerification from(CurrentTransactionSummary transaction) {
     return TransactionVerification.builder()
-        .transactionUuid(transaction.getUuid())
-        .clientRequestUuid(transaction.getClientRequestUuid())
-        .status(transaction.getStatus().name())
-        .type(transaction.getType().name())
-        .amount(transaction.getAmount())
-        .accountUuid(transaction.getAccountUuid())
+        .transactionUuid(transaction.uuid())
+        .clientRequestUuid(transaction.clientRequestUuid())
+        .status(transaction.status().name())
+        .type(transaction.type().name())
+        .amount(transaction.amount())
+        .accountUuid(transaction.accountUuid())
         .balance(
             BalanceInfo.builder()
-                .before(transaction.getBalanceBefore())
-                .after(transaction.getBalanceAfter())
+                .before(transaction.balanceBefore())
+                .after(transaction.balanceAfter())
                 .build())
-        .timestamp(transaction.getCreatedAt())
-        .sagaUuid(transaction.getSagaUuid())
+        .timestamp(transaction.createdAt())
+        .sagaUuid(transaction.sagaUuid())
         .build();
   }
 
@@ -0,0 +1,17 @@
+package com.zfb.current.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+public class UpdateBalanceSlotsRequest {
+
+  @NotNull(message = "balance slots is required")
+  @Min(value = 0, message = "balance slots must be 0 or more")
+  @Max(value = 64, message = "balance slots must be 64 or less")
+  private Integer balanceSlots;
+}
@@ -0,0 +1,34 @@
+package com.zfb.current.repository;
+
+import com.zfb.current.domain.CurrentAccountBalanceSlot;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface CurrentAccountBalanceSlotRepository
+    extends JpaRepository<CurrentAccountBalanceSlot, Long> {
+
+  @Lock(jakarta.persistence.LockModeType.PESSIMISTIC_WRITE)
+  @Query(
+      "SELECT s FROM CurrentAccountBalanceSlot s"
+          + " WHERE s.accountUuid = :accountUuid AND s.slotIndex = :slotIndex")
+  Optional<CurrentAccountBalanceSlot> findByAccountUuidAndSlotIndexWithLock(
+      @Param("accountUuid") String accountUuid, @Param("slotIndex") int slotIndex);
+
+  /** Slots are always locked in ascending slot index order to avoid deadlocks between sweeps. */
+  @Lock(jakarta.persistence.LockModeType.PESSIMISTIC_WRITE)
+  @Query(
+      "SELECT s FROM CurrentAccountBalanceSlot s"
+          + " WHERE s.accountUuid = :accountUuid ORDER BY s.slotIndex")
+  List<CurrentAccountBalanceSlot> findByAccountUuidWithLock(
+      @Param("accountUuid") String accountUuid);
+
+  @Query(
+      "SELECT COALESCE(SUM(s.balance), 0) FROM CurrentAccountBalanceSlot s"
+          + " WHERE s.accountUuid = :accountUuid")
+  BigDecimal sumBalanceByAccountUuid(@Param("accountUuid") String accountUuid);
+}
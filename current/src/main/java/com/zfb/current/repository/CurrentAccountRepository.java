@@ -1,10 +1,14 @@
 package com.zfb.current.repository;
 
 import com.zfb.current.domain.CurrentAccount;
+import com.zfb.current.domain.CurrentAccountBalance;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -16,5 +20,69 @@ public interface CurrentAccountRepository extends JpaRepository<CurrentAccount,
   @Query("SELECT a FROM CurrentAccount a WHERE a.uuid = :uuid")
   Optional<CurrentAccount> findByUuidWithLock(@Param("uuid") String uuid);
 
+  @Query("SELECT a.balanceSlots FROM CurrentAccount a WHERE a.uuid = :uuid")
+  Optional<Integer> findBalanceSlotsByUuid(@Param("uuid") String uuid);
+
+  @Query(
+      "SELECT new com.zfb.current.domain.CurrentAccountBalance(a.uuid, a.accountNumber, a.userUuid,"
+          + " a.balance, a.status, a.balanceSlots, a.version)"
+          + " FROM CurrentAccount a WHERE a.uuid = :uuid")
+  Optional<CurrentAccountBalance> findBalanceByUuid(@Param("uuid") String uuid);
+
+  /**
+   * withdraw if the account is in the status, has enough balance and is not a hot account; returns
+   * the rows updated
+   */
+  @Modifying
+  @Query(
+      "UPDATE CurrentAccount a SET a.balance = a.balance - :amount, a.version = a.version + 1,"
+          + " a.updatedAt = :now"
+          + " WHERE a.uuid = :uuid AND a.status = :status AND a.balance >= :amount"
+          + " AND a.balanceSlots = 0")
+  int debit(
+      @Param("uuid") String uuid,
+      @Param("amount") BigDecimal amount,
+      @Param("status") CurrentAccount.AccountStatus status,
+      @Param("now") LocalDateTime now);
+
+  /** deposit if the account is in the status and is not a hot account; returns the rows updated */
+  @Modifying
+  @Query(
+      "UPDATE CurrentAccount a SET a.balance = a.balance + :amount, a.version = a.version + 1,"
+          + " a.updatedAt = :now"
+          + " WHERE a.uuid = :uuid AND a.status = :status AND a.balanceSlots = 0")
+  int credit(
+      @Param("uuid") String uuid,
+      @Param("amount") BigDecimal amount,
+      @Param("status") CurrentAccount.AccountStatus status,
+      @Param("now") LocalDateTime now);
+
+  /** withdraw if the account is still at the version it was read at; returns the rows updated */
+  @Modifying
+  @Query(
+      "UPDATE CurrentAccount a SET a.balance = a.balance - :amount, a.version = a.version + 1,"
+          + " a.updatedAt = :now"
+          + " WHERE a.uuid = :uuid AND a.balance >= :amount AND a.version = :version")
+  int withdrawIfVersion(
+      @Param("uuid") String uuid,
+      @Param("amount") BigDecimal amount,
+      @Param("version") long version,
+      @Param("now") LocalDateTime now);
+
+  /** deposit if the account is still at the version it was read at; returns the rows updated */
+  @Modifying
+  @Query(
+      "UPDATE CurrentAccount a SET a.balance = a.balance + :amount, a.version = a.version + 1,"
+          + " a.updatedAt = :now"
+          + " WHERE a.uuid = :uuid AND a.version = :version")
+  int depositIfVersion(
+      @Param("uuid") String uuid,
+      @Param("amount") BigDecimal amount,
+      @Param("version") long version,
+      @Param("now") LocalDateTime now);
+
   List<CurrentAccount> findByUserUuid(String userUuid);
+
+  @Query("SELECT a.uuid FROM CurrentAccount a WHERE a.balanceSlots > 0")
+  List<String> findHotAccountUuids();
 }
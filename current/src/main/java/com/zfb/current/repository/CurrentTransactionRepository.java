@@ -1,10 +1,19 @@
 package com.zfb.current.repository;
 
 import com.zfb.current.domain.CurrentAccountTransaction;
+import com.zfb.current.domain.CurrentTransactionSummary;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 public interface CurrentTransactionRepository
     extends JpaRepository<CurrentAccountTransaction, Long> {
@@ -15,4 +24,87 @@ public interface CurrentTransactionRepository
 
   Page<CurrentAccountTransaction> findByAccountUuidOrderByCreatedAtDesc(
       String accountUuid, Pageable pageable);
+
+  /**
+   * get the newest transactions of an account, for the first page of a keyset paginated history
+   *
+   * @param accountUuid account uuid
+   * @param pageable limit only, the query always starts at the first row
+   * @return transactions ordered by createdAt and id, newest first
+   */
+  @Query(
+      "select t from CurrentAccountTransaction t where t.accountUuid = :accountUuid"
+          + " order by t.createdAt desc, t.id desc")
+  List<CurrentAccountTransaction> findHistory(
+      @Param("accountUuid") String accountUuid, Pageable pageable);
+
+  /**
+   * get the transactions of an account older than a cursor position
+   *
+   * @param accountUuid account uuid
+   * @param createdAt createdAt of the last transaction of the previous page
+   * @param id id of the last transaction of the previous page
+   * @param pageable limit only, the query always starts at the first row
+   * @return transactions ordered by createdAt and id, newest first
+   */
+  @Query(
+      "select t from CurrentAccountTransaction t where t.accountUuid = :accountUuid"
+          + " and (t.createdAt < :createdAt or (t.createdAt = :createdAt and t.id < :id))"
+          + " order by t.createdAt desc, t.id desc")
+  List<CurrentAccountTransaction> findHistoryBefore(
+      @Param("accountUuid") String accountUuid,
+      @Param("createdAt") LocalDateTime createdAt,
+      @Param("id") long id,
+      Pageable pageable);
+
+  /**
+   * stream the transactions of an account in a period, oldest first. The MySQL driver streams rows
+   * one by one for a fetch size of {@link Integer#MIN_VALUE} instead of reading the whole result
+   * into memory; the stream must be consumed and closed inside a transaction.
+   *
+   * @param accountUuid account uuid
+   * @param start inclusive start of the period
+   * @param end exclusive end of the period
+   * @return transactions ordered by createdAt and id
+   */
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+    @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+  })
+  @Query(
+      "select t from CurrentAccountTransaction t where t.accountUuid = :accountUuid"
+          + " and t.createdAt >= :start and t.createdAt < :end"
+          + " order by t.createdAt, t.id")
+  Stream<CurrentAccountTransaction> streamStatement(
+      @Param("accountUuid") String accountUuid,
+      @Param("start") LocalDateTime start,
+      @Param("end") LocalDateTime end);
+
+  /**
+   * get the verification fields of a transaction by transaction uuid
+   *
+   * @param uuid transaction uuid
+   * @return summary, read from the verification index only
+   */
+  @Query(
+      "select new com.zfb.current.domain.CurrentTransactionSummary("
+          + "t.uuid, t.accountUuid, t.type, t.status, t.amount, t.balanceBefore, t.balanceAfter,"
+          + " t.clientRequestUuid, t.sagaUuid, t.createdAt)"
+          + " from CurrentAccountTransaction t where t.uuid = :uuid")
+  Optional<CurrentTransactionSummary> findSummaryByUuid(@Param("uuid") String uuid);
+
+  /**
+   * get the verification fields of a transaction by client request uuid
+   *
+   * @param clientRequestUuid client request uuid
+   * @return summary, read from the verification index only
+   */
+  @Query(
+      "select new com.zfb.current.domain.CurrentTransactionSummary("
+          + "t.uuid, t.accountUuid, t.type, t.status, t.amount, t.balanceBefore, t.balanceAfter,"
+          + " t.clientRequestUuid, t.sagaUuid, t.createdAt)"
+          + " from CurrentAccountTransaction t where t.clientRequestUuid = :clientRequestUuid")
+  Optional<CurrentTransactionSummary> findSummaryByClientRequestUuid(
+      @Param("clientRequestUuid") String clientRequestUuid);
 }
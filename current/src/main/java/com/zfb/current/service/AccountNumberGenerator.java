@@ -0,0 +1,93 @@
+package com.zfb.current.service;
+
+import com.zfb.id.SequenceBlockAllocator;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Current account numbers in the {@code 100D-DDDD-DDDD-DDC} format: the {@code 100} prefix, eleven
+ * digits taken from the {@value #SEQUENCE} sequence and a checksum digit with the same 3-7-1
+ * weights as before. Numbers come from blocks leased by {@link SequenceBlockAllocator}, so they are
+ * unique without a lookup per account. The random {@code 100D-DDDD-DDC} numbers issued before the
+ * sequence are shorter, so the two formats can never collide and no lookup is needed at all.
+ *
+ * <p>The sequence holds 10^11 numbers, about 3.8 years of opening 50,000 accounts a minute without
+ * a pause, less the unused rest of a block each time an instance stops. Once it is exhausted every
+ * opening fails with "sequence ... is exhausted". To move past it, add a wider format with a
+ * different length (as this one sits next to the old one), a new sequence name, and switch this
+ * generator to it; the account number column allows 20 characters.
+ */
+@Component
+public class AccountNumberGenerator {
+
+  static final String SEQUENCE = "current-account-number";
+  static final String PREFIX = "100";
+  static final int SEQUENCE_DIGITS = 11;
+  static final long MAX_SEQUENCE = 99_999_999_999L;
+
+  private static final int[] WEIGHTS = {3, 7, 1};
+
+  private final SequenceBlockAllocator allocator;
+
+  public AccountNumberGenerator(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      @Value("${current.account-number.block-size:1000}") int blockSize,
+      @Value("${common.sequence.initialize-schema:false}") boolean initializeSchema) {
+    this.allocator =
+        new SequenceBlockAllocator(
+            jdbcTemplate,
+            transactionManager,
+            SEQUENCE,
+            blockSize,
+            MAX_SEQUENCE,
+            SequenceBlockAllocator.TakenNumbers.NONE);
+    if (initializeSchema) {
+      allocator.initializeSchema();
+    }
+  }
+
+  /**
+   * get a new account number
+   *
+   * @return account number
+   */
+  public String next() {
+    return format(allocator.next());
+  }
+
+  /**
+   * get new account numbers for a bulk opening
+   *
+   * @param count number of account numbers
+   * @return account numbers
+   */
+  public List<String> next(int count) {
+    return allocator.next(count).stream().map(AccountNumberGenerator::format).toList();
+  }
+
+  /**
+   * format a sequence number as an account number
+   *
+   * @param sequence number between 0 and {@value #MAX_SEQUENCE}
+   * @return account number with checksum, grouped by four digits
+   */
+  static String format(long sequence) {
+    String value = Long.toString(sequence);
+    StringBuilder digits = new StringBuilder(PREFIX.length() + SEQUENCE_DIGITS + 4).append(PREFIX);
+    digits.repeat('0', SEQUENCE_DIGITS - value.length()).append(value);
+    digits.append(checksum(digits));
+    return digits.insert(12, '-').insert(8, '-').insert(4, '-').toString();
+  }
+
+  private static int checksum(CharSequence digits) {
+    int sum = 0;
+    for (int i = 0; i < digits.length(); i++) {
+      sum += Character.getNumericValue(digits.charAt(i)) * WEIGHTS[i % WEIGHTS.length];
+    }
+    return (10 - (sum % 10)) % 10;
+  }
+}
@@ -0,0 +1,55 @@
+package com.zfb.current.service;
+
+import com.zfb.current.repository.CurrentAccountRepository;
+import com.zfb.lock.DistributedLockService;
+import java.math.BigDecimal;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically sweeps the balance slots of hot accounts into their account balance, so slot
+ * balances stay small and withdrawals rarely need to sweep. Only one instance runs a pass at a
+ * time.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(
+    prefix = "current.hot-account.consolidation",
+    name = "enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class BalanceSlotConsolidator {
+
+  private static final String LOCK_KEY = "current:balance-slot-consolidation";
+
+  private final CurrentAccountRepository accountRepository;
+  private final CurrentAccountService accountService;
+  private final DistributedLockService distributedLockService;
+
+  @Scheduled(fixedDelayString = "${current.hot-account.consolidation.interval:60000}")
+  public void consolidate() {
+    distributedLockService.tryExecuteWithLock(LOCK_KEY, this::consolidateHotAccounts, 0);
+  }
+
+  private int consolidateHotAccounts() {
+    List<String> accountUuids = accountRepository.findHotAccountUuids();
+    int consolidated = 0;
+    for (String accountUuid : accountUuids) {
+      try {
+        BigDecimal swept = accountService.consolidateBalanceSlots(accountUuid);
+        if (swept.signum() > 0) {
+          consolidated++;
+        }
+      } catch (Exception e) {
+        log.error("balance slot consolidation failed: account={}", accountUuid, e);
+      }
+    }
+    log.debug("balance slots consolidated: {}/{} accounts", consolidated, accountUuids.size());
+    return consolidated;
+  }
+}
@@ -1,39 +1,89 @@
 package com.zfb.current.service;
 
 import com.zfb.current.domain.CurrentAccount;
+import com.zfb.current.domain.CurrentAccountBalance;
+import com.zfb.current.domain.CurrentAccountBalanceSlot;
 import com.zfb.current.domain.CurrentAccountTransaction;
 import com.zfb.current.dto.*;
+import com.zfb.current.repository.CurrentAccountBalanceSlotRepository;
 import com.zfb.current.repository.CurrentAccountRepository;
 import com.zfb.current.repository.CurrentTransactionRepository;
+import com.zfb.datasource.ReadYourWrites;
+import com.zfb.datasource.ReadYourWritesTracker;
+import com.zfb.domain.BalanceUpdateMode;
+import com.zfb.dto.BulkItemResult;
+import com.zfb.dto.CursorSlice;
+import com.zfb.dto.KeysetCursor;
 import com.zfb.exception.BusinessException;
+import com.zfb.export.StatementPeriod;
+import com.zfb.idempotency.Idempotent;
+import com.zfb.outbox.OutboxWriter;
+import jakarta.persistence.EntityManager;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Random;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class CurrentAccountService {
 
+  public static final String ACCOUNT_CACHE = "current:account";
+  public static final String USER_ACCOUNTS_CACHE = "current:user-accounts";
+  public static final String VERIFICATION_CACHE = "current:verification";
+  public static final int MAX_HISTORY_PAGE_SIZE = 100;
+
   private final CurrentAccountRepository accountRepository;
   private final CurrentTransactionRepository transactionRepository;
+  private final CurrentAccountBalanceSlotRepository balanceSlotRepository;
+  private final CacheManager cacheManager;
+  private final TransactionTemplate transactionTemplate;
+  private final ReadYourWritesTracker readYourWritesTracker;
+  private final AccountNumberGenerator accountNumberGenerator;
+  private final OutboxWriter outboxWriter;
+  private final EntityManager entityManager;
+
+  @Value("${current.balance-update.mode:ATOMIC}")
+  private BalanceUpdateMode balanceUpdateMode;
+
+  @Value("${current.balance-update.max-attempts:3}")
+  private int optimisticMaxAttempts;
+
+  @Value("${current.outbox.topic:current.transactions}")
+  private String transactionTopic;
+
+  @Value("${current.bulk-create.chunk-size:500}")
+  private int bulkCreateChunkSize;
 
   /**
-   * create a new current account
+   * create a new current account. the account number is taken before the insert transaction starts,
+   * so a block lease never waits for a second connection while this one is held.
    *
    * @param request
    * @return
    */
-  @Transactional
   public CurrentAccountDto createAccount(CreateAccountRequest request) {
-    String accountNumber = generateAccountNumber();
+    String accountNumber = accountNumberGenerator.next();
 
     CurrentAccount account =
         CurrentAccount.builder()
@@ -43,18 +93,94 @@ public class CurrentAccountService {
             .status(CurrentAccount.AccountStatus.ACTIVE)
             .build();
 
-    CurrentAccount saved = accountRepository.save(account);
+    CurrentAccount saved =
+        transactionTemplate.execute(
+            status -> {
+              CurrentAccount created = accountRepository.save(account);
+              cacheManager.getCache(USER_ACCOUNTS_CACHE).evict(created.getUserUuid());
+              readYourWritesTracker.markWritten(created.getUuid());
+              readYourWritesTracker.markWritten(created.getUserUuid());
+              return created;
+            });
     log.info("created current account: {}", saved.getAccountNumber());
 
     return CurrentAccountDto.from(saved);
   }
 
+  /**
+   * create many current accounts, e.g. payroll accounts for a whole company. Requests are processed
+   * in chunks of {@code current.bulk-create.chunk-size}, each in its own transaction, with the
+   * account numbers of a chunk allocated at once before its transaction starts and the rows
+   * inserted in JDBC batches. A failed chunk does not undo the chunks before it; its items are
+   * reported as failed.
+   *
+   * @param request bulk create request
+   * @return result of each request, in request order
+   */
+  public List<BulkItemResult<CurrentAccountDto>> createAccounts(BulkCreateAccountRequest request) {
+    List<CreateAccountRequest> requests = request.getAccounts();
+    List<BulkItemResult<CurrentAccountDto>> results = new ArrayList<>(requests.size());
+    int created = 0;
+    for (int from = 0; from < requests.size(); from += bulkCreateChunkSize) {
+      List<CreateAccountRequest> chunk =
+          requests.subList(from, Math.min(from + bulkCreateChunkSize, requests.size()));
+      try {
+        List<String> accountNumbers = accountNumberGenerator.next(chunk.size());
+        List<CurrentAccount> saved =
+            transactionTemplate.execute(status -> createChunk(chunk, accountNumbers));
+        for (int i = 0; i < saved.size(); i++) {
+          results.add(BulkItemResult.created(from + i, CurrentAccountDto.from(saved.get(i))));
+        }
+        created += saved.size();
+      } catch (RuntimeException e) {
+        log.error("bulk account creation failed: from={}, size={}", from, chunk.size(), e);
+        String error =
+            e instanceof BusinessException ? e.getMessage() : "account could not be created";
+        for (int i = 0; i < chunk.size(); i++) {
+          results.add(BulkItemResult.failed(from + i, error));
+        }
+      }
+    }
+
+    log.info("bulk account creation completed: requested={}, created={}", requests.size(), created);
+    return results;
+  }
+
+  private List<CurrentAccount> createChunk(
+      List<CreateAccountRequest> chunk, List<String> accountNumbers) {
+    List<CurrentAccount> accounts = new ArrayList<>(chunk.size());
+    for (int i = 0; i < chunk.size(); i++) {
+      accounts.add(
+          CurrentAccount.builder()
+              .accountNumber(accountNumbers.get(i))
+              .userUuid(chunk.get(i).getUserUuid())
+              .balance(BigDecimal.ZERO)
+              .status(CurrentAccount.AccountStatus.ACTIVE)
+              .build());
+    }
+
+    List<CurrentAccount> saved = accountRepository.saveAll(accounts);
+    Cache userAccounts = cacheManager.getCache(USER_ACCOUNTS_CACHE);
+    saved.stream()
+        .map(CurrentAccount::getUserUuid)
+        .distinct()
+        .forEach(
+            userUuid -> {
+              userAccounts.evict(userUuid);
+              readYourWritesTracker.markWritten(userUuid);
+            });
+    saved.forEach(account -> readYourWritesTracker.markWritten(account.getUuid()));
+    return saved;
+  }
+
   /**
    * get a current account by uuid
    *
    * @param uuid
    * @return
    */
+  @Cacheable(cacheNames = ACCOUNT_CACHE, key = "#uuid")
+  @ReadYourWrites(key = "#uuid")
   @Transactional(readOnly = true)
   public CurrentAccountDto getAccount(String uuid) {
     CurrentAccount account =
@@ -62,7 +188,7 @@ public class CurrentAccountService {
             .findByUuid(uuid)
             .orElseThrow(() -> new BusinessException("account not found"));
 
-    return CurrentAccountDto.from(account);
+    return CurrentAccountDto.from(account, totalBalance(account));
   }
 
   /**
@@ -71,50 +197,15 @@ public class CurrentAccountService {
    * @param userUuid
    * @return
    */
+  @Cacheable(cacheNames = USER_ACCOUNTS_CACHE, key = "#userUuid")
+  @ReadYourWrites(key = "#userUuid")
   @Transactional(readOnly = true)
   public List<CurrentAccountDto> getAccountsByUserUuid(String userUuid) {
     return accountRepository.findByUserUuid(userUuid).stream()
-        .map(CurrentAccountDto::from)
+        .map(account -> CurrentAccountDto.from(account, totalBalance(account)))
         .collect(Collectors.toList());
   }
 
-  /**
-   * generate a new account number
-   *
-   * @return
-   */
-  private String generateAccountNumber() {
-    Random random = new Random();
-    StringBuilder accountNumber = new StringBuilder("100");
-
-    // generate 7 random digits
-    int[] digits = new int[7];
-    for (int i = 0; i < 7; i++) {
-      digits[i] = random.nextInt(10);
-    }
-
-    // append digits to account number
-    accountNumber.append(digits[0]).append("-");
-    for (int i = 1; i < 5; i++) {
-      accountNumber.append(digits[i]);
-    }
-    accountNumber.append("-");
-    for (int i = 5; i < 7; i++) {
-      accountNumber.append(digits[i]);
-    }
-
-    // calculate checksum
-    String digitsOnly = accountNumber.toString().replace("-", "");
-    int[] weights = {3, 7, 1, 3, 7, 1, 3, 7, 1, 3};
-    int sum = 0;
-    for (int i = 0; i < digitsOnly.length(); i++) {
-      sum += Character.getNumericValue(digitsOnly.charAt(i)) * weights[i];
-    }
-    int checksum = (10 - (sum % 10)) % 10;
-
-    return accountNumber.append(checksum).toString();
-  }
-
   /**
    * withdraw money from account
    *
@@ -122,13 +213,44 @@ public class CurrentAccountService {
    * @param request withdraw request
    * @return transaction dto
    */
-  @Transactional
+  @Idempotent(key = "#request.clientRequestUuid")
+  @Transactional(isolation = Isolation.READ_COMMITTED)
   public CurrentTransactionDto withdraw(String uuid, WithdrawRequest request) {
+    Optional<CurrentAccountTransaction> existing =
+        findByClientRequest(request.getClientRequestUuid());
+    if (existing.isPresent()) {
+      log.info("duplicate withdraw request detected: {}", request.getClientRequestUuid());
+      return CurrentTransactionDto.from(existing.get());
+    }
+
+    if (balanceUpdateMode != BalanceUpdateMode.PESSIMISTIC) {
+      CurrentTransactionDto result =
+          balanceUpdateMode == BalanceUpdateMode.ATOMIC
+              ? updateAtomic(
+                  uuid,
+                  CurrentAccountTransaction.TransactionType.WITHDRAW,
+                  request.getAmount(),
+                  request.getClientRequestUuid(),
+                  request.getSagaUuid(),
+                  request.getDescription())
+              : updateOptimistic(
+                  uuid,
+                  CurrentAccountTransaction.TransactionType.WITHDRAW,
+                  request.getAmount(),
+                  request.getClientRequestUuid(),
+                  request.getSagaUuid(),
+                  request.getDescription());
+      if (result != null) {
+        return result;
+      }
+    }
+
     CurrentAccount account =
         accountRepository
             .findByUuidWithLock(uuid)
             .orElseThrow(() -> new BusinessException("account not found"));
 
+    sweepSlots(account, request.getAmount());
     BigDecimal balanceBefore = account.getBalance();
 
     // create transaction record
@@ -138,6 +260,7 @@ public class CurrentAccountService {
             .type(CurrentAccountTransaction.TransactionType.WITHDRAW)
             .amount(request.getAmount())
             .balanceBefore(balanceBefore)
+            .balanceScope(balanceScope(account))
             .status(CurrentAccountTransaction.TransactionStatus.PENDING)
             .clientRequestUuid(request.getClientRequestUuid())
             .sagaUuid(request.getSagaUuid())
@@ -147,6 +270,7 @@ public class CurrentAccountService {
     try {
       // withdraw from account
       account.withdraw(request.getAmount());
+      accountWritten(account);
 
       // update transaction
       transaction.complete();
@@ -158,6 +282,7 @@ public class CurrentAccountService {
               .amount(transaction.getAmount())
               .balanceBefore(transaction.getBalanceBefore())
               .balanceAfter(balanceAfter)
+              .balanceScope(transaction.getBalanceScope())
               .status(transaction.getStatus())
               .clientRequestUuid(transaction.getClientRequestUuid())
               .sagaUuid(transaction.getSagaUuid())
@@ -165,6 +290,7 @@ public class CurrentAccountService {
               .build();
 
       CurrentAccountTransaction saved = transactionRepository.save(transaction);
+      readYourWritesTracker.markWritten(saved.getClientRequestUuid());
       log.info(
           "withdraw completed: account={}, amount={}, balance={} -> {}",
           account.getAccountNumber(),
@@ -172,7 +298,7 @@ public class CurrentAccountService {
           balanceBefore,
           balanceAfter);
 
-      return CurrentTransactionDto.from(saved);
+      return published(saved);
     } catch (Exception e) {
       transaction.fail(e.getMessage());
       transactionRepository.save(transaction);
@@ -188,8 +314,54 @@ public class CurrentAccountService {
    * @param request deposit request
    * @return transaction dto
    */
-  @Transactional
+  @Idempotent(key = "#request.clientRequestUuid")
+  @Transactional(isolation = Isolation.READ_COMMITTED)
   public CurrentTransactionDto deposit(String uuid, DepositRequest request) {
+    Optional<CurrentAccountTransaction> existing =
+        findByClientRequest(request.getClientRequestUuid());
+    if (existing.isPresent()) {
+      log.info("duplicate deposit request detected: {}", request.getClientRequestUuid());
+      return CurrentTransactionDto.from(existing.get());
+    }
+
+    if (balanceUpdateMode != BalanceUpdateMode.PESSIMISTIC) {
+      CurrentTransactionDto result =
+          balanceUpdateMode == BalanceUpdateMode.ATOMIC
+              ? updateAtomic(
+                  uuid,
+                  CurrentAccountTransaction.TransactionType.DEPOSIT,
+                  request.getAmount(),
+                  request.getClientRequestUuid(),
+                  request.getSagaUuid(),
+                  request.getDescription())
+              : updateOptimistic(
+                  uuid,
+                  CurrentAccountTransaction.TransactionType.DEPOSIT,
+                  request.getAmount(),
+                  request.getClientRequestUuid(),
+                  request.getSagaUuid(),
+                  request.getDescription());
+      if (result != null) {
+        return result;
+      }
+    }
+
+    int balanceSlots =
+        accountRepository
+            .findBalanceSlotsByUuid(uuid)
+            .orElseThrow(() -> new BusinessException("account not found"));
+
+    if (balanceSlots > 0) {
+      // hot account: lock a random slot instead of the account row
+      Optional<CurrentAccountBalanceSlot> slot =
+          balanceSlotRepository.findByAccountUuidAndSlotIndexWithLock(
+              uuid, ThreadLocalRandom.current().nextInt(balanceSlots));
+      if (slot.isPresent()) {
+        return depositToSlot(uuid, slot.get(), request);
+      }
+      // slot removed by a concurrent slot update, fall back to the account row
+    }
+
     CurrentAccount account =
         accountRepository
             .findByUuidWithLock(uuid)
@@ -204,6 +376,7 @@ public class CurrentAccountService {
             .type(CurrentAccountTransaction.TransactionType.DEPOSIT)
             .amount(request.getAmount())
             .balanceBefore(balanceBefore)
+            .balanceScope(balanceScope(account))
             .status(CurrentAccountTransaction.TransactionStatus.PENDING)
             .clientRequestUuid(request.getClientRequestUuid())
             .sagaUuid(request.getSagaUuid())
@@ -213,6 +386,7 @@ public class CurrentAccountService {
     try {
       // deposit to account
       account.deposit(request.getAmount());
+      accountWritten(account);
 
       // update transaction
       transaction.complete();
@@ -224,6 +398,7 @@ public class CurrentAccountService {
               .amount(transaction.getAmount())
               .balanceBefore(transaction.getBalanceBefore())
               .balanceAfter(balanceAfter)
+              .balanceScope(transaction.getBalanceScope())
               .status(transaction.getStatus())
               .clientRequestUuid(transaction.getClientRequestUuid())
               .sagaUuid(transaction.getSagaUuid())
@@ -231,6 +406,7 @@ public class CurrentAccountService {
               .build();
 
       CurrentAccountTransaction saved = transactionRepository.save(transaction);
+      readYourWritesTracker.markWritten(saved.getClientRequestUuid());
       log.info(
           "deposit completed: account={}, amount={}, balance={} -> {}",
           account.getAccountNumber(),
@@ -238,7 +414,7 @@ public class CurrentAccountService {
           balanceBefore,
           balanceAfter);
 
-      return CurrentTransactionDto.from(saved);
+      return published(saved);
     } catch (Exception e) {
       transaction.fail(e.getMessage());
       transactionRepository.save(transaction);
@@ -270,6 +446,9 @@ public class CurrentAccountService {
             .findByUuidWithLock(originalTransaction.getAccountUuid())
             .orElseThrow(() -> new BusinessException("account not found"));
 
+    if (originalTransaction.getType() == CurrentAccountTransaction.TransactionType.DEPOSIT) {
+      sweepSlots(account, originalTransaction.getAmount());
+    }
     BigDecimal balanceBefore = account.getBalance();
 
     // create refund transaction
@@ -279,6 +458,7 @@ public class CurrentAccountService {
             .type(CurrentAccountTransaction.TransactionType.REFUND)
             .amount(originalTransaction.getAmount())
             .balanceBefore(balanceBefore)
+            .balanceScope(balanceScope(account))
             .status(CurrentAccountTransaction.TransactionStatus.PENDING)
             .description("Refund for transaction " + originalTransaction.getUuid() + ": " + reason)
             .build();
@@ -295,6 +475,7 @@ public class CurrentAccountService {
         default:
           throw new BusinessException("cannot refund a refund transaction");
       }
+      accountWritten(account);
 
       // update transaction
       refundTransaction.complete();
@@ -306,6 +487,7 @@ public class CurrentAccountService {
               .amount(refundTransaction.getAmount())
               .balanceBefore(refundTransaction.getBalanceBefore())
               .balanceAfter(balanceAfter)
+              .balanceScope(refundTransaction.getBalanceScope())
               .status(refundTransaction.getStatus())
               .clientRequestUuid(refundTransaction.getClientRequestUuid())
               .sagaUuid(refundTransaction.getSagaUuid())
@@ -320,7 +502,7 @@ public class CurrentAccountService {
           balanceBefore,
           balanceAfter);
 
-      return CurrentTransactionDto.from(saved);
+      return published(saved);
     } catch (Exception e) {
       refundTransaction.fail(e.getMessage());
       transactionRepository.save(refundTransaction);
@@ -329,6 +511,66 @@ public class CurrentAccountService {
     }
   }
 
+  /**
+   * update the number of balance slots of an account. Existing slots are swept into the account
+   * balance first, so the balance is never lost when slots are removed.
+   *
+   * @param uuid account uuid
+   * @param request balance slots request, 0 turns hot account mode off
+   * @return account dto
+   */
+  @Transactional
+  public CurrentAccountDto updateBalanceSlots(String uuid, UpdateBalanceSlotsRequest request) {
+    CurrentAccount account =
+        accountRepository
+            .findByUuidWithLock(uuid)
+            .orElseThrow(() -> new BusinessException("account not found"));
+
+    int balanceSlots = request.getBalanceSlots();
+    List<CurrentAccountBalanceSlot> slots = balanceSlotRepository.findByAccountUuidWithLock(uuid);
+    boolean[] existing = new boolean[balanceSlots];
+    for (CurrentAccountBalanceSlot slot : slots) {
+      account.absorb(slot.drain());
+      if (slot.getSlotIndex() < balanceSlots) {
+        existing[slot.getSlotIndex()] = true;
+      } else {
+        balanceSlotRepository.delete(slot);
+      }
+    }
+    for (int i = 0; i < balanceSlots; i++) {
+      if (!existing[i]) {
+        balanceSlotRepository.save(
+            CurrentAccountBalanceSlot.builder().accountUuid(uuid).slotIndex(i).build());
+      }
+    }
+    account.updateBalanceSlots(balanceSlots);
+
+    log.info(
+        "balance slots updated: account={}, slots={}", account.getAccountNumber(), balanceSlots);
+    return CurrentAccountDto.from(account);
+  }
+
+  /**
+   * sweep the balance slots of a hot account into the account balance
+   *
+   * @param uuid account uuid
+   * @return amount moved from the slots into the account balance
+   */
+  @Transactional
+  public BigDecimal consolidateBalanceSlots(String uuid) {
+    CurrentAccount account =
+        accountRepository
+            .findByUuidWithLock(uuid)
+            .orElseThrow(() -> new BusinessException("account not found"));
+
+    BigDecimal swept = BigDecimal.ZERO;
+    for (CurrentAccountBalanceSlot slot : balanceSlotRepository.findByAccountUuidWithLock(uuid)) {
+      swept = swept.add(slot.drain());
+    }
+    account.absorb(swept);
+    return swept;
+  }
+
   /**
    * get transaction history for an account
    *
@@ -336,6 +578,7 @@ public class CurrentAccountService {
    * @param pageable pageable object
    * @return page of transactions
    */
+  @ReadYourWrites(key = "#accountUuid")
   @Transactional(readOnly = true)
   public Page<CurrentTransactionDto> getTransactionHistory(String accountUuid, Pageable pageable) {
     CurrentAccount account =
@@ -349,30 +592,462 @@ public class CurrentAccountService {
   }
 
   /**
-   * verify a transaction by transaction uuid
+   * get transaction history for an account, one keyset page at a time. Pages are read by seeking
+   * into the (accountUuid, createdAt, id) index after the cursor, without an offset or a count.
+   *
+   * @param accountUuid account uuid
+   * @param cursor nextCursor of the previous page, null for the first page
+   * @param size page size, at most {@value #MAX_HISTORY_PAGE_SIZE}
+   * @return slice of transactions, newest first
+   */
+  @ReadYourWrites(key = "#accountUuid")
+  @Transactional(readOnly = true)
+  public CursorSlice<CurrentTransactionDto> getTransactionHistory(
+      String accountUuid, String cursor, int size) {
+    CurrentAccount account =
+        accountRepository
+            .findByUuid(accountUuid)
+            .orElseThrow(() -> new BusinessException("account not found"));
+
+    int pageSize = Math.clamp(size, 1, MAX_HISTORY_PAGE_SIZE);
+    Pageable limit = PageRequest.of(0, pageSize + 1);
+    List<CurrentAccountTransaction> rows;
+    if (cursor == null || cursor.isBlank()) {
+      rows = transactionRepository.findHistory(account.getUuid(), limit);
+    } else {
+      KeysetCursor position = KeysetCursor.decode(cursor);
+      rows =
+          transactionRepository.findHistoryBefore(
+              account.getUuid(), position.createdAt(), position.id(), limit);
+    }
+    return CursorSlice.of(rows, pageSize, CurrentTransactionDto::from);
+  }
+
+  /**
+   * stream the statement of an account to a consumer, one transaction at a time. Rows are read with
+   * a forward-only cursor and detached once handed over, so memory stays flat whatever the size of
+   * the statement. The transaction timeout is {@code current.statement.timeout} seconds instead of
+   * the default, which is too short for large accounts.
+   *
+   * @param accountUuid account uuid
+   * @param period statement period
+   * @param consumer receives the transactions, oldest first
+   * @return number of transactions
+   */
+  @Transactional(readOnly = true, timeoutString = "${current.statement.timeout:600}")
+  public long exportStatement(
+      String accountUuid, StatementPeriod period, Consumer<CurrentTransactionDto> consumer) {
+    long count = 0;
+    try (Stream<CurrentAccountTransaction> transactions =
+        transactionRepository.streamStatement(accountUuid, period.start(), period.end())) {
+      Iterator<CurrentAccountTransaction> iterator = transactions.iterator();
+      while (iterator.hasNext()) {
+        CurrentAccountTransaction transaction = iterator.next();
+        consumer.accept(CurrentTransactionDto.from(transaction));
+        entityManager.detach(transaction);
+        count++;
+      }
+    }
+    log.info(
+        "statement exported: accountUuid={}, from={}, to={}, transactions={}",
+        accountUuid,
+        period.from(),
+        period.to(),
+        count);
+    return count;
+  }
+
+  /**
+   * verify a transaction by transaction uuid. Found transactions never change, so they are cached
+   * for {@code common.cache.ttls.current:verification}; NOT_FOUND is not cached so a poller sees
+   * the transaction as soon as it commits.
    *
    * @param transactionUuid transaction uuid
    * @return transaction verification
    */
+  @Cacheable(
+      cacheNames = VERIFICATION_CACHE,
+      key = "'uuid:' + #transactionUuid",
+      unless = "#result.status == 'NOT_FOUND'")
   @Transactional(readOnly = true)
   public TransactionVerification verifyByTransactionUuid(String transactionUuid) {
     return transactionRepository
-        .findByUuid(transactionUuid)
+        .findSummaryByUuid(transactionUuid)
         .map(TransactionVerification::from)
-        .orElse(TransactionVerification.notFound());
+        .orElseGet(TransactionVerification::notFound);
   }
 
   /**
-   * verify a transaction by client request uuid
+   * verify a transaction by client request uuid, cached like {@link #verifyByTransactionUuid}
    *
    * @param clientRequestUuid client request uuid
    * @return transaction verification
    */
+  @Cacheable(
+      cacheNames = VERIFICATION_CACHE,
+      key = "'client:' + #clientRequestUuid",
+      unless = "#result.status == 'NOT_FOUND'")
+  @ReadYourWrites(key = "#clientRequestUuid")
   @Transactional(readOnly = true)
   public TransactionVerification verifyByClientRequestUuid(String clientRequestUuid) {
     return transactionRepository
-        .findByClientRequestUuid(clientRequestUuid)
+        .findSummaryByClientRequestUuid(clientRequestUuid)
         .map(TransactionVerification::from)
-        .orElse(TransactionVerification.notFound());
+        .orElseGet(TransactionVerification::notFound);
+  }
+
+  /**
+   * deposit money to a balance slot of a hot account. The account row is read without a lock, so
+   * the running balance is not known; the transaction records the balance of the slot instead.
+   *
+   * @param uuid account uuid
+   * @param slot locked balance slot
+   * @param request deposit request
+   * @return transaction dto
+   */
+  private CurrentTransactionDto depositToSlot(
+      String uuid, CurrentAccountBalanceSlot slot, DepositRequest request) {
+    CurrentAccount account =
+        accountRepository
+            .findByUuid(uuid)
+            .orElseThrow(() -> new BusinessException("account not found"));
+
+    CurrentAccountTransaction transaction =
+        CurrentAccountTransaction.builder()
+            .accountUuid(account.getUuid())
+            .type(CurrentAccountTransaction.TransactionType.DEPOSIT)
+            .amount(request.getAmount())
+            .balanceBefore(slot.getBalance())
+            .balanceScope(CurrentAccountTransaction.BalanceScope.BALANCE_SLOT)
+            .status(CurrentAccountTransaction.TransactionStatus.PENDING)
+            .clientRequestUuid(request.getClientRequestUuid())
+            .sagaUuid(request.getSagaUuid())
+            .description(request.getDescription())
+            .build();
+
+    try {
+      account.depositToSlot(slot, request.getAmount());
+      accountWritten(account);
+      transaction.complete();
+      transaction =
+          CurrentAccountTransaction.builder()
+              .accountUuid(transaction.getAccountUuid())
+              .type(transaction.getType())
+              .amount(transaction.getAmount())
+              .balanceBefore(transaction.getBalanceBefore())
+              .balanceAfter(slot.getBalance())
+              .balanceScope(transaction.getBalanceScope())
+              .status(transaction.getStatus())
+              .clientRequestUuid(transaction.getClientRequestUuid())
+              .sagaUuid(transaction.getSagaUuid())
+              .description(transaction.getDescription())
+              .build();
+
+      CurrentAccountTransaction saved = transactionRepository.save(transaction);
+      readYourWritesTracker.markWritten(saved.getClientRequestUuid());
+      log.info(
+          "deposit completed: account={}, amount={}, slot={}",
+          account.getAccountNumber(),
+          request.getAmount(),
+          slot.getSlotIndex());
+
+      return published(saved);
+    } catch (Exception e) {
+      transaction.fail(e.getMessage());
+      transactionRepository.save(transaction);
+      log.error("deposit failed: {}", e.getMessage());
+      throw new BusinessException(e.getMessage());
+    }
+  }
+
+  /**
+   * evict the cached account and the cached account list of its owner, and keep reads of both on
+   * the master until the replicas catch up. Both are applied after commit; evictions are broadcast
+   * to the near caches of the other instances.
+   *
+   * @param account account
+   */
+  private void accountWritten(CurrentAccount account) {
+    accountWritten(account.getUuid(), account.getUserUuid());
+  }
+
+  private void accountWritten(String uuid, String userUuid) {
+    cacheManager.getCache(ACCOUNT_CACHE).evict(uuid);
+    cacheManager.getCache(USER_ACCOUNTS_CACHE).evict(userUuid);
+    readYourWritesTracker.markWritten(uuid);
+    readYourWritesTracker.markWritten(userUuid);
+  }
+
+  /**
+   * withdraw or deposit with a single update that only matches an active account with enough
+   * balance, then read the new balance back in the same transaction. The row is locked from the
+   * update to the commit only, and no entity is loaded. Hot accounts keep locking their rows and
+   * slots.
+   *
+   * @param uuid account uuid
+   * @param type WITHDRAW or DEPOSIT
+   * @param amount the amount to withdraw or deposit
+   * @param clientRequestUuid client request uuid
+   * @param sagaUuid saga uuid
+   * @param description description
+   * @return transaction dto, or null for hot accounts and accounts that changed between the update
+   *     and the check of why it did not match, which should be locked instead
+   */
+  private CurrentTransactionDto updateAtomic(
+      String uuid,
+      CurrentAccountTransaction.TransactionType type,
+      BigDecimal amount,
+      String clientRequestUuid,
+      String sagaUuid,
+      String description) {
+    boolean withdraw = type == CurrentAccountTransaction.TransactionType.WITHDRAW;
+    LocalDateTime now = LocalDateTime.now();
+
+    int updated = 0;
+    if (amount.signum() > 0) {
+      updated =
+          withdraw
+              ? accountRepository.debit(uuid, amount, CurrentAccount.AccountStatus.ACTIVE, now)
+              : accountRepository.credit(uuid, amount, CurrentAccount.AccountStatus.ACTIVE, now);
+    }
+    if (updated == 0) {
+      // nothing changed, read the account to record why
+      CurrentAccountBalance snapshot =
+          accountRepository
+              .findBalanceByUuid(uuid)
+              .orElseThrow(() -> new BusinessException("account not found"));
+      if (!snapshot.isHotAccount()) {
+        checkSnapshot(snapshot, type, amount, clientRequestUuid, sagaUuid, description);
+      }
+      return null;
+    }
+
+    CurrentAccountBalance snapshot =
+        accountRepository
+            .findBalanceByUuid(uuid)
+            .orElseThrow(() -> new BusinessException("account not found"));
+    BigDecimal balanceAfter = snapshot.balance();
+    BigDecimal balanceBefore = withdraw ? balanceAfter.add(amount) : balanceAfter.subtract(amount);
+    accountWritten(uuid, snapshot.userUuid());
+
+    return saveCompleted(
+        snapshot,
+        type,
+        amount,
+        balanceBefore,
+        balanceAfter,
+        clientRequestUuid,
+        sagaUuid,
+        description);
+  }
+
+  /**
+   * withdraw or deposit with an update conditional on the account version instead of a row lock.
+   * The account is read again when another transaction changed it in between, which needs read
+   * committed isolation. Hot accounts keep locking their rows and slots.
+   *
+   * @param uuid account uuid
+   * @param type WITHDRAW or DEPOSIT
+   * @param amount the amount to withdraw or deposit
+   * @param clientRequestUuid client request uuid
+   * @param sagaUuid saga uuid
+   * @param description description
+   * @return transaction dto, or null for hot accounts and accounts that kept changing, which should
+   *     be locked instead
+   */
+  private CurrentTransactionDto updateOptimistic(
+      String uuid,
+      CurrentAccountTransaction.TransactionType type,
+      BigDecimal amount,
+      String clientRequestUuid,
+      String sagaUuid,
+      String description) {
+    boolean withdraw = type == CurrentAccountTransaction.TransactionType.WITHDRAW;
+
+    for (int attempt = 1; attempt <= optimisticMaxAttempts; attempt++) {
+      CurrentAccountBalance snapshot =
+          accountRepository
+              .findBalanceByUuid(uuid)
+              .orElseThrow(() -> new BusinessException("account not found"));
+      if (snapshot.isHotAccount()) {
+        return null;
+      }
+      checkSnapshot(snapshot, type, amount, clientRequestUuid, sagaUuid, description);
+
+      LocalDateTime now = LocalDateTime.now();
+      int updated =
+          withdraw
+              ? accountRepository.withdrawIfVersion(uuid, amount, snapshot.version(), now)
+              : accountRepository.depositIfVersion(uuid, amount, snapshot.version(), now);
+      if (updated == 0) {
+        log.debug("account changed concurrently: account={}, attempt={}", uuid, attempt);
+        continue;
+      }
+      accountWritten(uuid, snapshot.userUuid());
+
+      BigDecimal balanceBefore = snapshot.balance();
+      BigDecimal balanceAfter =
+          withdraw ? balanceBefore.subtract(amount) : balanceBefore.add(amount);
+      return saveCompleted(
+          snapshot,
+          type,
+          amount,
+          balanceBefore,
+          balanceAfter,
+          clientRequestUuid,
+          sagaUuid,
+          description);
+    }
+
+    log.info("{} retries exhausted, locking account: account={}", operation(type), uuid);
+    return null;
+  }
+
+  /**
+   * check a withdrawal or deposit against an account snapshot. A rejected one is recorded as a
+   * failed transaction.
+   */
+  private void checkSnapshot(
+      CurrentAccountBalance snapshot,
+      CurrentAccountTransaction.TransactionType type,
+      BigDecimal amount,
+      String clientRequestUuid,
+      String sagaUuid,
+      String description) {
+    try {
+      if (type == CurrentAccountTransaction.TransactionType.WITHDRAW) {
+        snapshot.checkWithdraw(amount);
+      } else {
+        snapshot.checkDeposit(amount);
+      }
+    } catch (RuntimeException e) {
+      CurrentAccountTransaction transaction =
+          CurrentAccountTransaction.builder()
+              .accountUuid(snapshot.uuid())
+              .type(type)
+              .amount(amount)
+              .balanceBefore(snapshot.balance())
+              .status(CurrentAccountTransaction.TransactionStatus.PENDING)
+              .clientRequestUuid(clientRequestUuid)
+              .sagaUuid(sagaUuid)
+              .description(description)
+              .build();
+
+      transaction.fail(e.getMessage());
+      transactionRepository.save(transaction);
+      log.error("{} failed: {}", operation(type), e.getMessage());
+      throw new BusinessException(e.getMessage());
+    }
+  }
+
+  private CurrentTransactionDto saveCompleted(
+      CurrentAccountBalance snapshot,
+      CurrentAccountTransaction.TransactionType type,
+      BigDecimal amount,
+      BigDecimal balanceBefore,
+      BigDecimal balanceAfter,
+      String clientRequestUuid,
+      String sagaUuid,
+      String description) {
+    CurrentAccountTransaction transaction =
+        CurrentAccountTransaction.builder()
+            .accountUuid(snapshot.uuid())
+            .type(type)
+            .amount(amount)
+            .balanceBefore(balanceBefore)
+            .balanceAfter(balanceAfter)
+            .status(CurrentAccountTransaction.TransactionStatus.COMPLETED)
+            .clientRequestUuid(clientRequestUuid)
+            .sagaUuid(sagaUuid)
+            .description(description)
+            .build();
+
+    CurrentAccountTransaction saved = transactionRepository.save(transaction);
+    readYourWritesTracker.markWritten(saved.getClientRequestUuid());
+    log.info(
+        "{} completed: account={}, amount={}, balance={} -> {}",
+        operation(type),
+        snapshot.accountNumber(),
+        amount,
+        balanceBefore,
+        balanceAfter);
+
+    return published(saved);
+  }
+
+  private static String operation(CurrentAccountTransaction.TransactionType type) {
+    return type == CurrentAccountTransaction.TransactionType.WITHDRAW ? "withdraw" : "deposit";
+  }
+
+  /**
+   * find the transaction of a client request that already ran. Checked when the request is not
+   * known to the idempotency store, e.g. after its entry expired.
+   *
+   * @param clientRequestUuid client request uuid, may be null
+   * @return transaction of the request
+   */
+  private Optional<CurrentAccountTransaction> findByClientRequest(String clientRequestUuid) {
+    if (clientRequestUuid == null) {
+      return Optional.empty();
+    }
+    return transactionRepository.findByClientRequestUuid(clientRequestUuid);
+  }
+
+  /**
+   * prepare a locked hot account for a withdrawal by sweeping its balance slots into the account
+   * balance in slot order until it covers the amount. Runs before the balance before the withdrawal
+   * is read, so the recorded balances keep {@code before - amount = after}.
+   *
+   * @param account locked account
+   * @param amount the amount to withdraw
+   */
+  private void sweepSlots(CurrentAccount account, BigDecimal amount) {
+    for (int i = 0;
+        i < account.getBalanceSlots() && account.getBalance().compareTo(amount) < 0;
+        i++) {
+      balanceSlotRepository
+          .findByAccountUuidAndSlotIndexWithLock(account.getUuid(), i)
+          .ifPresent(slot -> account.absorb(slot.drain()));
+    }
+  }
+
+  /**
+   * get what the balances recorded on a transaction cover. The slots of a hot account are not
+   * locked, so only its account row balance is known.
+   *
+   * @param account locked account
+   * @return balance scope
+   */
+  private static CurrentAccountTransaction.BalanceScope balanceScope(CurrentAccount account) {
+    return account.isHotAccount()
+        ? CurrentAccountTransaction.BalanceScope.ACCOUNT_ROW
+        : CurrentAccountTransaction.BalanceScope.ACCOUNT;
+  }
+
+  /**
+   * get the account balance including the balance slots of hot accounts
+   *
+   * @param account account
+   * @return total balance
+   */
+  private BigDecimal totalBalance(CurrentAccount account) {
+    if (!account.isHotAccount()) {
+      return account.getBalance();
+    }
+    return account
+        .getBalance()
+        .add(balanceSlotRepository.sumBalanceByAccountUuid(account.getUuid()));
+  }
+
+  /**
+   * append a completed transaction to the outbox, in the current transaction
+   *
+   * @param transaction saved transaction
+   * @return transaction dto
+   */
+  private CurrentTransactionDto published(CurrentAccountTransaction transaction) {
+    CurrentTransactionDto dto = CurrentTransactionDto.from(transaction);
+    outboxWriter.append(transactionTopic, dto.getAccountUuid(), dto);
+    return dto;
   }
 }
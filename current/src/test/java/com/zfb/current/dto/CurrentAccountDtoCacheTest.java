@@ -0,0 +1,100 @@
+package com.zfb.current.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.zfb.config.CacheConfig;
+import com.zfb.current.domain.CurrentAccountTransaction;
+import com.zfb.current.domain.CurrentTransactionSummary;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+class CurrentAccountDtoCacheTest {
+
+  private final RedisSerializer<Object> serializer = CacheConfig.valueSerializer();
+
+  @Test
+  @DisplayName("cached account list survives redis serialization")
+  void accountList_RoundTrip() {
+    // given
+    LocalDateTime createdAt = LocalDateTime.of(2025, 1, 2, 3, 4, 5, 6_000_000);
+    List<CurrentAccountDto> accounts = new ArrayList<>();
+    accounts.add(
+        CurrentAccountDto.builder()
+            .uuid("account-1")
+            .accountNumber("100-1234-567")
+            .userUuid("user-1")
+            .balance(new BigDecimal("1250.50"))
+            .status("ACTIVE")
+            .createdAt(createdAt)
+            .updatedAt(createdAt)
+            .build());
+
+    // when
+    Object restored = serializer.deserialize(serializer.serialize(accounts));
+
+    // then
+    assertThat(restored).isInstanceOf(List.class);
+    CurrentAccountDto account = (CurrentAccountDto) ((List<?>) restored).get(0);
+    assertThat(account.getUuid()).isEqualTo("account-1");
+    assertThat(account.getBalance()).isEqualTo(new BigDecimal("1250.50"));
+    assertThat(account.getCreatedAt()).isEqualTo(createdAt);
+  }
+
+  @Test
+  @DisplayName("stored transaction response survives redis serialization for replay")
+  void transaction_RoundTrip() {
+    // given
+    CurrentTransactionDto transaction =
+        CurrentTransactionDto.builder()
+            .uuid("transaction-1")
+            .accountUuid("account-1")
+            .type("WITHDRAW")
+            .amount(new BigDecimal("30.00"))
+            .balanceBefore(new BigDecimal("100.00"))
+            .balanceAfter(new BigDecimal("70.00"))
+            .status("COMPLETED")
+            .createdAt(LocalDateTime.of(2025, 1, 2, 3, 4, 5))
+            .build();
+
+    // when
+    Object restored = serializer.deserialize(serializer.serialize(transaction));
+
+    // then
+    assertThat(restored).isInstanceOf(CurrentTransactionDto.class);
+    assertThat(((CurrentTransactionDto) restored).getBalanceAfter())
+        .isEqualTo(new BigDecimal("70.00"));
+  }
+
+  @Test
+  @DisplayName("cached verification survives redis serialization")
+  void verification_RoundTrip() {
+    // given
+    TransactionVerification verification =
+        TransactionVerification.from(
+            new CurrentTransactionSummary(
+                "transaction-1",
+                "account-1",
+                CurrentAccountTransaction.TransactionType.WITHDRAW,
+                CurrentAccountTransaction.TransactionStatus.COMPLETED,
+                new BigDecimal("30.00"),
+                new BigDecimal("100.00"),
+                new BigDecimal("70.00"),
+                "request-1",
+                "saga-1",
+                LocalDateTime.of(2025, 1, 2, 3, 4, 5)));
+
+    // when
+    Object restored = serializer.deserialize(serializer.serialize(verification));
+
+    // then
+    assertThat(restored).isInstanceOf(TransactionVerification.class);
+    TransactionVerification cached = (TransactionVerification) restored;
+    assertThat(cached.getStatus()).isEqualTo("COMPLETED");
+    assertThat(cached.getBalance().getAfter()).isEqualTo(new BigDecimal("70.00"));
+  }
+}
@@ -0,0 +1,41 @@
+package com.zfb.current.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AccountNumberGeneratorTest {
+
+  @Test
+  @DisplayName("sequence numbers are formatted with the prefix, separators and checksum")
+  void format() {
+    assertThat(AccountNumberGenerator.format(0)).isEqualTo("1000-0000-0000-007");
+    assertThat(AccountNumberGenerator.format(12_345_678_901L)).matches("1001-2345-6789-01\\d");
+    assertThat(AccountNumberGenerator.format(AccountNumberGenerator.MAX_SEQUENCE))
+        .startsWith("1009-9999-9999-99");
+  }
+
+  @Test
+  @DisplayName("numbers are longer than the random numbers issued before the sequence")
+  void format_DistinctFromLegacyNumbers() {
+    assertThat(AccountNumberGenerator.format(1234567))
+        .hasSize(18)
+        .doesNotMatch("100\\d-\\d{4}-\\d{3}");
+  }
+
+  @Test
+  @DisplayName("checksum makes the weighted digit sum a multiple of ten")
+  void format_Checksum() {
+    int[] weights = {3, 7, 1};
+    for (long sequence : new long[] {0, 1, 42, 1234567, AccountNumberGenerator.MAX_SEQUENCE}) {
+      String digits = AccountNumberGenerator.format(sequence).replace("-", "");
+      int sum = 0;
+      for (int i = 0; i < digits.length() - 1; i++) {
+        sum += Character.getNumericValue(digits.charAt(i)) * weights[i % weights.length];
+      }
+      sum += Character.getNumericValue(digits.charAt(digits.length() - 1));
+      assertThat(sum % 10).isZero();
+    }
+  }
+}
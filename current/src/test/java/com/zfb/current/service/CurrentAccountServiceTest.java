@@ -0,0 +1,287 @@
+package com.zfb.current.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.zfb.current.domain.CurrentAccount;
+import com.zfb.current.domain.CurrentAccountBalance;
+import com.zfb.current.domain.CurrentAccountBalanceSlot;
+import com.zfb.current.domain.CurrentAccountTransaction;
+import com.zfb.current.dto.BulkCreateAccountRequest;
+import com.zfb.current.dto.CreateAccountRequest;
+import com.zfb.current.dto.CurrentAccountDto;
+import com.zfb.current.dto.CurrentTransactionDto;
+import com.zfb.current.dto.WithdrawRequest;
+import com.zfb.current.repository.CurrentAccountBalanceSlotRepository;
+import com.zfb.current.repository.CurrentAccountRepository;
+import com.zfb.current.repository.CurrentTransactionRepository;
+import com.zfb.datasource.ReadYourWritesTracker;
+import com.zfb.domain.BalanceUpdateMode;
+import com.zfb.dto.BulkItemResult;
+import com.zfb.exception.BusinessException;
+import com.zfb.outbox.OutboxWriter;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class CurrentAccountServiceTest {
+
+  private static final String UUID = "account-1";
+
+  private CurrentAccountRepository accountRepository;
+  private CurrentTransactionRepository transactionRepository;
+  private OutboxWriter outboxWriter;
+  private CurrentAccountBalanceSlotRepository balanceSlotRepository;
+  private AccountNumberGenerator accountNumberGenerator;
+  private PlatformTransactionManager transactionManager;
+  private CurrentAccountService accountService;
+
+  @BeforeEach
+  void setUp() {
+    accountRepository = mock(CurrentAccountRepository.class);
+    transactionRepository = mock(CurrentTransactionRepository.class);
+    outboxWriter = mock(OutboxWriter.class);
+    balanceSlotRepository = mock(CurrentAccountBalanceSlotRepository.class);
+    accountNumberGenerator = mock(AccountNumberGenerator.class);
+    transactionManager = mock(PlatformTransactionManager.class);
+    CacheManager cacheManager = mock(CacheManager.class);
+    when(cacheManager.getCache(anyString())).thenReturn(mock(Cache.class));
+    when(transactionRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+    accountService =
+        new CurrentAccountService(
+            accountRepository,
+            transactionRepository,
+            balanceSlotRepository,
+            cacheManager,
+            new TransactionTemplate(transactionManager),
+            mock(ReadYourWritesTracker.class),
+            accountNumberGenerator,
+            outboxWriter,
+            mock(EntityManager.class));
+    ReflectionTestUtils.setField(accountService, "balanceUpdateMode", BalanceUpdateMode.OPTIMISTIC);
+    ReflectionTestUtils.setField(accountService, "optimisticMaxAttempts", 3);
+    ReflectionTestUtils.setField(accountService, "transactionTopic", "current.transactions");
+    ReflectionTestUtils.setField(accountService, "bulkCreateChunkSize", 2);
+  }
+
+  @Test
+  @DisplayName("optimistic withdraw reads the account again after a concurrent change")
+  void withdraw_Optimistic_RetriesOnVersionConflict() {
+    // given
+    when(accountRepository.findBalanceByUuid(UUID))
+        .thenReturn(Optional.of(snapshot("100.00", 0, 1)))
+        .thenReturn(Optional.of(snapshot("80.00", 0, 2)));
+    when(accountRepository.withdrawIfVersion(eq(UUID), any(), eq(1L), any())).thenReturn(0);
+    when(accountRepository.withdrawIfVersion(eq(UUID), any(), eq(2L), any())).thenReturn(1);
+
+    // when
+    CurrentTransactionDto result = accountService.withdraw(UUID, withdrawRequest("30.00"));
+
+    // then
+    assertThat(result.getBalanceBefore()).isEqualByComparingTo("80.00");
+    assertThat(result.getBalanceAfter()).isEqualByComparingTo("50.00");
+    assertThat(result.getStatus()).isEqualTo("COMPLETED");
+    verify(accountRepository, never()).findByUuidWithLock(anyString());
+  }
+
+  @Test
+  @DisplayName("optimistic withdraw locks the row once the retries are exhausted")
+  void withdraw_Optimistic_FallsBackToLock() {
+    // given
+    when(accountRepository.findBalanceByUuid(UUID))
+        .thenReturn(Optional.of(snapshot("100.00", 0, 1)));
+    when(accountRepository.withdrawIfVersion(eq(UUID), any(), anyLong(), any())).thenReturn(0);
+    when(accountRepository.findByUuidWithLock(UUID))
+        .thenReturn(
+            Optional.of(CurrentAccount.builder().balance(new BigDecimal("100.00")).build()));
+
+    // when
+    CurrentTransactionDto result = accountService.withdraw(UUID, withdrawRequest("30.00"));
+
+    // then
+    assertThat(result.getBalanceAfter()).isEqualByComparingTo("70.00");
+    verify(accountRepository, times(3)).withdrawIfVersion(eq(UUID), any(), anyLong(), any());
+  }
+
+  @Test
+  @DisplayName("optimistic withdraw over the balance records a failed transaction")
+  void withdraw_Optimistic_InsufficientBalance() {
+    // given
+    when(accountRepository.findBalanceByUuid(UUID))
+        .thenReturn(Optional.of(snapshot("10.00", 0, 1)));
+
+    // when & then
+    assertThatThrownBy(() -> accountService.withdraw(UUID, withdrawRequest("30.00")))
+        .isInstanceOf(BusinessException.class)
+        .hasMessage("insufficient balance");
+    verify(accountRepository, never()).withdrawIfVersion(anyString(), any(), anyLong(), any());
+    verify(transactionRepository)
+        .save(
+            argThat(
+                (CurrentAccountTransaction transaction) ->
+                    transaction.getStatus() == CurrentAccountTransaction.TransactionStatus.FAILED));
+  }
+
+  @Test
+  @DisplayName("atomic withdraw derives the balance before from the balance read back")
+  void withdraw_Atomic_ReadsBalanceBack() {
+    // given
+    ReflectionTestUtils.setField(accountService, "balanceUpdateMode", BalanceUpdateMode.ATOMIC);
+    when(accountRepository.debit(eq(UUID), any(), eq(CurrentAccount.AccountStatus.ACTIVE), any()))
+        .thenReturn(1);
+    when(accountRepository.findBalanceByUuid(UUID))
+        .thenReturn(Optional.of(snapshot("70.00", 0, 2)));
+
+    // when
+    CurrentTransactionDto result = accountService.withdraw(UUID, withdrawRequest("30.00"));
+
+    // then
+    assertThat(result.getBalanceBefore()).isEqualByComparingTo("100.00");
+    assertThat(result.getBalanceAfter()).isEqualByComparingTo("70.00");
+    verify(accountRepository, never()).findByUuidWithLock(anyString());
+  }
+
+  @Test
+  @DisplayName("atomic withdraw from a hot account locks the row and its slots")
+  void withdraw_Atomic_HotAccountFallsBackToLock() {
+    // given
+    ReflectionTestUtils.setField(accountService, "balanceUpdateMode", BalanceUpdateMode.ATOMIC);
+    when(accountRepository.debit(eq(UUID), any(), any(), any())).thenReturn(0);
+    when(accountRepository.findBalanceByUuid(UUID))
+        .thenReturn(Optional.of(snapshot("10.00", 4, 1)));
+    CurrentAccount account = CurrentAccount.builder().balance(new BigDecimal("10.00")).build();
+    account.updateBalanceSlots(4);
+    when(accountRepository.findByUuidWithLock(UUID)).thenReturn(Optional.of(account));
+    when(balanceSlotRepository.findByAccountUuidAndSlotIndexWithLock(any(), eq(0)))
+        .thenReturn(Optional.of(new CurrentAccountBalanceSlot(UUID, 0, new BigDecimal("50.00"))));
+
+    // when
+    CurrentTransactionDto result = accountService.withdraw(UUID, withdrawRequest("30.00"));
+
+    // then
+    assertThat(result.getStatus()).isEqualTo("COMPLETED");
+    assertThat(result.getBalanceScope()).isEqualTo("ACCOUNT_ROW");
+    assertThat(result.getBalanceBefore()).isEqualByComparingTo("60.00");
+    assertThat(result.getBalanceAfter()).isEqualByComparingTo("30.00");
+    verify(accountRepository).findByUuidWithLock(UUID);
+  }
+
+  @Test
+  @DisplayName("completed transactions are appended to the outbox, failed ones are not")
+  void withdraw_AppendsCompletedToOutbox() {
+    // given
+    ReflectionTestUtils.setField(accountService, "balanceUpdateMode", BalanceUpdateMode.ATOMIC);
+    when(accountRepository.debit(eq(UUID), any(), any(), any())).thenReturn(1, 0);
+    when(accountRepository.findBalanceByUuid(UUID))
+        .thenReturn(Optional.of(snapshot("70.00", 0, 2)), Optional.of(snapshot("10.00", 0, 3)));
+
+    // when
+    CurrentTransactionDto result = accountService.withdraw(UUID, withdrawRequest("30.00"));
+    assertThatThrownBy(() -> accountService.withdraw(UUID, withdrawRequest("30.00")))
+        .isInstanceOf(BusinessException.class);
+
+    // then
+    verify(outboxWriter).append("current.transactions", UUID, result);
+    verify(outboxWriter, times(1)).append(anyString(), anyString(), any());
+  }
+
+  @Test
+  @DisplayName("account number is allocated before the insert transaction starts")
+  void createAccount_AllocatesNumberOutsideTransaction() {
+    // given
+    when(accountNumberGenerator.next()).thenReturn("1000-0000-0000-007");
+    when(accountRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    CreateAccountRequest request = new CreateAccountRequest();
+    ReflectionTestUtils.setField(request, "userUuid", "user-1");
+
+    // when
+    CurrentAccountDto result = accountService.createAccount(request);
+
+    // then
+    assertThat(result.getAccountNumber()).isEqualTo("1000-0000-0000-007");
+    InOrder inOrder = inOrder(accountNumberGenerator, transactionManager, accountRepository);
+    inOrder.verify(accountNumberGenerator).next();
+    inOrder.verify(transactionManager).getTransaction(any());
+    inOrder.verify(accountRepository).save(any());
+  }
+
+  @Test
+  @DisplayName("bulk creation reports the items of a failed chunk without undoing earlier chunks")
+  void createAccounts_ChunkFailureReportedPerItem() {
+    // given
+    when(accountNumberGenerator.next(2))
+        .thenReturn(List.of("1000-0000-0000-007", "1000-0000-0001-004"));
+    when(accountNumberGenerator.next(1))
+        .thenThrow(new BusinessException("sequence current-account-number is exhausted"));
+    when(accountRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+    // when
+    List<BulkItemResult<CurrentAccountDto>> results =
+        accountService.createAccounts(bulkRequest("user-1", "user-2", "user-3"));
+
+    // then
+    assertThat(results)
+        .extracting(BulkItemResult::getIndex, BulkItemResult::getStatus)
+        .containsExactly(
+            tuple(0, BulkItemResult.Status.CREATED),
+            tuple(1, BulkItemResult.Status.CREATED),
+            tuple(2, BulkItemResult.Status.FAILED));
+    assertThat(results.get(1).getItem().getAccountNumber()).isEqualTo("1000-0000-0001-004");
+    assertThat(results.get(2).getError()).contains("exhausted");
+    verify(accountRepository, times(1)).saveAll(any());
+    verify(transactionManager, times(1)).getTransaction(any());
+  }
+
+  private static CurrentAccountBalance snapshot(String balance, int balanceSlots, long version) {
+    return new CurrentAccountBalance(
+        UUID,
+        "100-1234-567",
+        "user-1",
+        new BigDecimal(balance),
+        CurrentAccount.AccountStatus.ACTIVE,
+        balanceSlots,
+        version);
+  }
+
+  private static BulkCreateAccountRequest bulkRequest(String... userUuids) {
+    List<CreateAccountRequest> accounts = new ArrayList<>();
+    for (String userUuid : userUuids) {
+      CreateAccountRequest account = new CreateAccountRequest();
+      ReflectionTestUtils.setField(account, "userUuid", userUuid);
+      accounts.add(account);
+    }
+    BulkCreateAccountRequest request = new BulkCreateAccountRequest();
+    ReflectionTestUtils.setField(request, "accounts", accounts);
+    return request;
+  }
+
+  private static WithdrawRequest withdrawRequest(String amount) {
+    WithdrawRequest request = new WithdrawRequest();
+    ReflectionTestUtils.setField(request, "amount", new BigDecimal(amount));
+    return request;
+  }
+}
@@ -5,9 +5,12 @@ import com.zfb.customer.domain.CustomerStatus;
 import com.zfb.customer.dto.CustomerDto;
 import com.zfb.customer.dto.RegisterRequest;
 import com.zfb.customer.repository.CustomerRepository;
+import com.zfb.datasource.ReadYourWrites;
+import com.zfb.datasource.ReadYourWritesTracker;
 import com.zfb.exception.BusinessException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,8 +20,11 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 public class CustomerService {
 
+  public static final String CUSTOMER_CACHE = "customer:profile";
+
   private final CustomerRepository customerRepository;
   private final PasswordEncoder passwordEncoder;
+  private final ReadYourWritesTracker readYourWritesTracker;
 
   @Transactional
   public CustomerDto register(RegisterRequest request) {
@@ -45,11 +51,15 @@ public class CustomerService {
             .build();
 
     Customer saved = customerRepository.save(customer);
+    readYourWritesTracker.markWritten(saved.getUuid());
+    readYourWritesTracker.markWritten(saved.getEmail());
     log.info("customer registered successfully: id={}, email={}", saved.getId(), saved.getEmail());
 
     return CustomerDto.from(saved);
   }
 
+  @Cacheable(cacheNames = CUSTOMER_CACHE, key = "#uuid")
+  @ReadYourWrites(key = "#uuid")
   @Transactional(readOnly = true)
   public CustomerDto getCustomerByUuid(String uuid) {
     Customer customer =
@@ -60,6 +70,7 @@ public class CustomerService {
     return CustomerDto.from(customer);
   }
 
+  @ReadYourWrites(key = "#email")
   @Transactional(readOnly = true)
   public CustomerDto getCustomerByEmail(String email) {
     Customer customer =
@@ -70,6 +81,7 @@ public class CustomerService {
     return CustomerDto.from(customer);
   }
 
+  @ReadYourWrites(key = "#email")
   @Transactional(readOnly = true)
   public boolean validatePassword(String email, String rawPassword) {
     Customer customer =
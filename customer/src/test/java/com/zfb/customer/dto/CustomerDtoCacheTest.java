@@ -0,0 +1,39 @@
+package com.zfb.customer.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.zfb.config.CacheConfig;
+import com.zfb.customer.domain.Customer;
+import com.zfb.customer.domain.CustomerStatus;
+import java.time.LocalDate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+class CustomerDtoCacheTest {
+
+  private final RedisSerializer<Object> serializer = CacheConfig.valueSerializer();
+
+  @Test
+  @DisplayName("cached customer survives redis serialization")
+  void customer_RoundTrip() {
+    // given
+    CustomerDto customer =
+        CustomerDto.from(
+            Customer.builder()
+                .email("test@example.com")
+                .username("tester")
+                .password("encoded")
+                .name("Tester")
+                .dateOfBirth(LocalDate.of(1990, 5, 17))
+                .build());
+
+    // when
+    CustomerDto restored = (CustomerDto) serializer.deserialize(serializer.serialize(customer));
+
+    // then
+    assertThat(restored.getEmail()).isEqualTo("test@example.com");
+    assertThat(restored.getDateOfBirth()).isEqualTo(LocalDate.of(1990, 5, 17));
+    assertThat(restored.getStatus()).isEqualTo(CustomerStatus.ACTIVE);
+  }
+}
@@ -1,54 +0,0 @@
-package com.zfb.forex.config;
-
-import com.zaxxer.hikari.HikariDataSource;
-import java.util.HashMap;
-import java.util.Map;
-import javax.sql.DataSource;
-import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.boot.context.properties.ConfigurationProperties;
-import org.springframework.boot.jdbc.DataSourceBuilder;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.context.annotation.Primary;
-import org.springframework.context.annotation.Profile;
-import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
-
-@Configuration
-@Profile("prod")
-public class DataSourceConfig {
-
-  @Bean
-  @ConfigurationProperties(prefix = "spring.datasource.master")
-  public DataSource masterDataSource() {
-    return DataSourceBuilder.create().type(HikariDataSource.class).build();
-  }
-
-  @Bean
-  @ConfigurationProperties(prefix = "spring.datasource.replica")
-  public DataSource replicaDataSource() {
-    return DataSourceBuilder.create().type(HikariDataSource.class).build();
-  }
-
-  @Bean
-  public DataSource routingDataSource(
-      @Qualifier("masterDataSource") DataSource masterDataSource,
-      @Qualifier("replicaDataSource") DataSource replicaDataSource) {
-
-    RoutingDataSource routingDataSource = new RoutingDataSource();
-
-    Map<Object, Object> dataSourceMap = new HashMap<>();
-    dataSourceMap.put(DataSourceType.MASTER, masterDataSource);
-    dataSourceMap.put(DataSourceType.REPLICA, replicaDataSource);
-
-    routingDataSource.setTargetDataSources(dataSourceMap);
-    routingDataSource.setDefaultTargetDataSource(masterDataSource);
-
-    return routingDataSource;
-  }
-
-  @Primary
-  @Bean
-  public DataSource dataSource(@Qualifier("routingDataSource") DataSource routingDataSource) {
-    return new LazyConnectionDataSourceProxy(routingDataSource);
-  }
-}
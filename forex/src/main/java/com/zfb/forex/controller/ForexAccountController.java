@@ -1,17 +1,29 @@
 package com.zfb.forex.controller;
 
 import com.zfb.dto.ApiResponse;
+import com.zfb.dto.BulkItemResult;
+import com.zfb.dto.CursorSlice;
+import com.zfb.export.StatementFormat;
+import com.zfb.export.StatementPeriod;
+import com.zfb.export.StatementWriter;
 import com.zfb.forex.dto.*;
+import com.zfb.forex.service.FencedForexWriter;
 import com.zfb.forex.service.ForexService;
 import jakarta.validation.Valid;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
 
 @RestController
 @RequestMapping("/api/forex/accounts")
@@ -19,6 +31,8 @@ import org.springframework.web.bind.annotation.*;
 public class ForexAccountController {
 
   private final ForexService accountService;
+  private final FencedForexWriter fencedWriter;
+  private final JsonMapper jsonMapper;
 
   @PostMapping
   public ResponseEntity<ApiResponse<ForexAccountDto>> createAccount(
@@ -27,6 +41,13 @@ public class ForexAccountController {
     return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.of(account));
   }
 
+  @PostMapping("/batch")
+  public ResponseEntity<ApiResponse<List<BulkItemResult<ForexAccountDto>>>> createAccounts(
+      @Valid @RequestBody BulkCreateAccountRequest request) {
+    List<BulkItemResult<ForexAccountDto>> results = accountService.createAccounts(request);
+    return ResponseEntity.ok(ApiResponse.of(results));
+  }
+
   @GetMapping("/{uuid}")
   public ResponseEntity<ApiResponse<ForexAccountDto>> getAccount(@PathVariable String uuid) {
     ForexAccountDto account = accountService.getAccount(uuid);
@@ -49,17 +70,24 @@ public class ForexAccountController {
   @PostMapping("/{uuid}/withdraw")
   public ResponseEntity<ApiResponse<ForexTransactionDto>> withdraw(
       @PathVariable String uuid, @Valid @RequestBody WithdrawRequest request) {
-    ForexTransactionDto transaction = accountService.withdraw(uuid, request);
+    ForexTransactionDto transaction = fencedWriter.withdraw(uuid, request);
     return ResponseEntity.ok(ApiResponse.of(transaction));
   }
 
   @PostMapping("/{uuid}/deposit")
   public ResponseEntity<ApiResponse<ForexTransactionDto>> deposit(
       @PathVariable String uuid, @Valid @RequestBody DepositRequest request) {
-    ForexTransactionDto transaction = accountService.deposit(uuid, request);
+    ForexTransactionDto transaction = fencedWriter.deposit(uuid, request);
     return ResponseEntity.ok(ApiResponse.of(transaction));
   }
 
+  @PostMapping("/deposits:batch")
+  public ResponseEntity<ApiResponse<List<ForexTransactionDto>>> depositBatch(
+      @Valid @RequestBody BatchDepositRequest request) {
+    List<ForexTransactionDto> transactions = accountService.depositBatch(request);
+    return ResponseEntity.ok(ApiResponse.of(transactions));
+  }
+
   @PostMapping("/transactions/{transactionUuid}/refund")
   public ResponseEntity<ApiResponse<ForexTransactionDto>> refund(
       @PathVariable String transactionUuid, @RequestParam String reason) {
@@ -70,11 +98,47 @@ public class ForexAccountController {
   @GetMapping("/{uuid}/transactions")
   public ResponseEntity<ApiResponse<Page<ForexTransactionDto>>> getTransactionHistory(
       @PathVariable String uuid, Pageable pageable) {
-    Page<ForexTransactionDto> transactions =
-        accountService.getTransactionHistory(uuid, pageable);
+    Page<ForexTransactionDto> transactions = accountService.getTransactionHistory(uuid, pageable);
     return ResponseEntity.ok(ApiResponse.of(transactions));
   }
 
+  @GetMapping("/{uuid}/transactions/cursor")
+  public ResponseEntity<ApiResponse<CursorSlice<ForexTransactionDto>>>
+      getTransactionHistoryByCursor(
+          @PathVariable String uuid,
+          @RequestParam(required = false) String cursor,
+          @RequestParam(defaultValue = "20") int size) {
+    CursorSlice<ForexTransactionDto> transactions =
+        accountService.getTransactionHistory(uuid, cursor, size);
+    return ResponseEntity.ok(ApiResponse.of(transactions));
+  }
+
+  @GetMapping("/{uuid}/statement")
+  public ResponseEntity<StreamingResponseBody> exportStatement(
+      @PathVariable String uuid,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+      @RequestParam(defaultValue = "NDJSON") StatementFormat format) {
+    StatementPeriod period = new StatementPeriod(from, to);
+    accountService.getAccount(uuid);
+
+    StreamingResponseBody body =
+        out -> {
+          try (StatementWriter<ForexTransactionDto> writer =
+              new StatementWriter<>(
+                  out, format, jsonMapper, ForexTransactionDto.STATEMENT_COLUMNS)) {
+            accountService.exportStatement(uuid, period, writer::write);
+          }
+        };
+    String filename = "statement-" + uuid + "-" + from + "-" + to + "." + format.getExtension();
+    return ResponseEntity.ok()
+        .contentType(format.getMediaType())
+        .header(
+            HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename(filename).build().toString())
+        .body(body);
+  }
+
   @GetMapping("/transactions/{transactionUuid}/verify")
   public ResponseEntity<ApiResponse<TransactionVerification>> verifyTransaction(
       @PathVariable String transactionUuid) {
@@ -7,6 +7,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.math.BigDecimal;
 import lombok.AccessLevel;
 import lombok.Builder;
@@ -36,6 +37,13 @@ public class ForexAccount extends BaseColumn {
   @Column(nullable = false, length = 20)
   private AccountStatus status;
 
+  /** highest lock fencing token that has written this account */
+  @Column private Long fencingToken;
+
+  @Version
+  @Column(nullable = false)
+  private long version;
+
   @Builder
   public ForexAccount(
       String accountNumber,
@@ -73,6 +81,19 @@ public class ForexAccount extends BaseColumn {
     this.balance = this.balance.add(amount);
   }
 
+  /**
+   * accept a write from the holder of the account lock with the given fencing token. a token lower
+   * than one already seen comes from a holder that has lost the lock since.
+   *
+   * @param fencingToken token of the lock held by the writer
+   */
+  public void acceptFencingToken(long fencingToken) {
+    if (this.fencingToken != null && fencingToken < this.fencingToken) {
+      throw new IllegalStateException("stale fencing token");
+    }
+    this.fencingToken = fencingToken;
+  }
+
   public void updateStatus(AccountStatus status) {
     this.status = status;
   }
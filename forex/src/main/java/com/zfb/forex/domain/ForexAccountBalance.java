@@ -0,0 +1,37 @@
+package com.zfb.forex.domain;
+
+import java.math.BigDecimal;
+
+/**
+ * Balance, status and version of a forex account read without a lock and outside the persistence
+ * context, so every read sees the latest committed row.
+ */
+public record ForexAccountBalance(
+    String uuid, BigDecimal balance, ForexAccount.AccountStatus status, long version) {
+
+  /**
+   * check that the amount can be withdrawn at this snapshot
+   *
+   * @param amount the amount to withdraw
+   */
+  public void checkWithdraw(BigDecimal amount) {
+    checkDeposit(amount);
+    if (balance.compareTo(amount) < 0) {
+      throw new IllegalStateException("insufficient balance");
+    }
+  }
+
+  /**
+   * check that the amount can be deposited at this snapshot
+   *
+   * @param amount the amount to deposit
+   */
+  public void checkDeposit(BigDecimal amount) {
+    if (status != ForexAccount.AccountStatus.ACTIVE) {
+      throw new IllegalStateException("account is not active");
+    }
+    if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+      throw new IllegalArgumentException("amount must be positive");
+    }
+  }
+}
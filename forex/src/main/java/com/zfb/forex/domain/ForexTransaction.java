@@ -1,7 +1,10 @@
 package com.zfb.forex.domain;
 
 import com.zfb.domain.BaseColumn;
+import com.zfb.domain.UuidBinaryConverter;
+import jakarta.persistence.AttributeOverride;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -17,14 +20,34 @@ import lombok.NoArgsConstructor;
 @Table(
     name = "forex_transactions",
     indexes = {
-      @Index(name = "idx_account_uuid", columnList = "accountUuid"),
-      @Index(name = "idx_client_request_id", columnList = "clientRequestId"),
+      @Index(name = "idx_account_created_id", columnList = "accountUuid,created_at,id"),
+      @Index(
+          name = "idx_client_request_verification",
+          columnList =
+              "clientRequestId,uuid,accountUuid,type,status,amount,balanceBefore,balanceAfter,"
+                  + "sagaId,created_at"),
+      @Index(
+          name = "idx_uuid_verification",
+          columnList =
+              "uuid,accountUuid,type,status,amount,balanceBefore,balanceAfter,clientRequestId,"
+                  + "sagaId,created_at"),
       @Index(name = "idx_status_created", columnList = "status,createdAt")
     })
+@AttributeOverride(
+    name = "uuid",
+    column =
+        @Column(
+            name = "uuid",
+            unique = true,
+            nullable = false,
+            updatable = false,
+            columnDefinition = "BINARY(16)"))
+@Convert(attributeName = "uuid", converter = UuidBinaryConverter.class)
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class ForexTransaction extends BaseColumn {
-  @Column(nullable = false, length = 36)
+  @Convert(converter = UuidBinaryConverter.class)
+  @Column(nullable = false, columnDefinition = "BINARY(16)")
   private String accountUuid;
 
   @Enumerated(EnumType.STRING)
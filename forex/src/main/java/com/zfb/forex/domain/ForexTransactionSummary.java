@@ -0,0 +1,21 @@
+package com.zfb.forex.domain;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Fields of a forex transaction needed to verify it, read without the description and outside the
+ * persistence context. Every field is in the verification indexes, so the row itself is not read.
+ */
+public record ForexTransactionSummary(
+    Long id,
+    String uuid,
+    String accountUuid,
+    ForexTransaction.TransactionType type,
+    ForexTransaction.TransactionStatus status,
+    BigDecimal amount,
+    BigDecimal balanceBefore,
+    BigDecimal balanceAfter,
+    String clientRequestId,
+    String sagaId,
+    LocalDateTime createdAt) {}
@@ -0,0 +1,39 @@
+package com.zfb.forex.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.math.BigDecimal;
+import java.util.List;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+public class BatchDepositRequest {
+
+  @NotEmpty(message = "deposits are required")
+  @Size(max = 1000, message = "at most 1000 deposits per batch")
+  private List<@Valid Deposit> deposits;
+
+  @Getter
+  @NoArgsConstructor
+  public static class Deposit {
+
+    @NotBlank(message = "account uuid is required")
+    private String accountUuid;
+
+    @NotNull(message = "amount is required")
+    @DecimalMin(value = "0.01", message = "amount must be greater than 0")
+    private BigDecimal amount;
+
+    private String clientRequestId;
+
+    private String sagaId;
+
+    private String description;
+  }
+}
@@ -1,15 +1,35 @@
 package com.zfb.forex.dto;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.zfb.export.StatementColumn;
 import com.zfb.forex.domain.ForexTransaction;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 
 @Getter
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
 public class ForexTransactionDto {
+
+  /** columns of csv statements */
+  public static final List<StatementColumn<ForexTransactionDto>> STATEMENT_COLUMNS =
+      List.of(
+          new StatementColumn<>("uuid", ForexTransactionDto::getUuid),
+          new StatementColumn<>("createdAt", ForexTransactionDto::getCreatedAt),
+          new StatementColumn<>("type", ForexTransactionDto::getType),
+          new StatementColumn<>("status", ForexTransactionDto::getStatus),
+          new StatementColumn<>("amount", ForexTransactionDto::getAmount),
+          new StatementColumn<>("balanceBefore", ForexTransactionDto::getBalanceBefore),
+          new StatementColumn<>("balanceAfter", ForexTransactionDto::getBalanceAfter),
+          new StatementColumn<>("description", ForexTransactionDto::getDescription));
+
   @JsonIgnore private Long id;
   private String uuid;
   private String accountUuid;
@@ -1,14 +1,19 @@
 package com.zfb.forex.dto;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
-import com.zfb.forex.domain.ForexTransaction;
+import com.zfb.forex.domain.ForexTransactionSummary;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 
 @Getter
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
 public class TransactionVerification {
   @JsonIgnore private Long transactionId;
   private String transactionUuid;
@@ -23,27 +28,29 @@ public class TransactionVerification {
 
   @Getter
   @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor(access = AccessLevel.PRIVATE)
   public static class BalanceInfo {
     private BigDecimal before;
     private BigDecimal after;
   }
 
-  public static TransactionVerification from(ForexTransaction transaction) {
+  public static TransactionVerification from(ForexTransactionSummary transaction) {
     return TransactionVerification.builder()
-        .transactionId(transaction.getId())
-        .transactionUuid(transaction.getUuid())
-        .clientRequestId(transaction.getClientRequestId())
-        .status(transaction.getStatus().name())
-        .type(transaction.getType().name())
-        .amount(transaction.getAmount())
-        .accountUuid(transaction.getAccountUuid())
+        .transactionId(transaction.id())
+        .transactionUuid(transaction.uuid())
+        .clientRequestId(transaction.clientRequestId())
+        .status(transaction.status().name())
+        .type(transaction.type().name())
+        .amount(transaction.amount())
+        .accountUuid(transaction.accountUuid())
         .balance(
             BalanceInfo.builder()
-                .before(transaction.getBalanceBefore())
-                .after(transaction.getBalanceAfter())
+                .before(transaction.balanceBefore())
+                .after(transaction.balanceAfter())
                 .build())
-        .timestamp(transaction.getCreatedAt())
-        .sagaId(transaction.getSagaId())
+        .timestamp(transaction.createdAt())
+        .sagaId(transaction.sagaId())
         .build();
   }
 
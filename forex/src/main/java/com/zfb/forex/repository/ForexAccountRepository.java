@@ -1,10 +1,15 @@
 package com.zfb.forex.repository;
 
 import com.zfb.forex.domain.ForexAccount;
+import com.zfb.forex.domain.ForexAccountBalance;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -17,4 +22,72 @@ public interface ForexAccountRepository extends JpaRepository<ForexAccount, Long
   @Lock(jakarta.persistence.LockModeType.PESSIMISTIC_WRITE)
   @Query("SELECT a FROM ForexAccount a WHERE a.uuid = :uuid")
   Optional<ForexAccount> findByUuidForUpdate(@Param("uuid") String uuid);
+
+  /**
+   * Rows are locked in uuid order, so concurrent batches touching the same accounts cannot
+   * deadlock.
+   */
+  @Lock(jakarta.persistence.LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT a FROM ForexAccount a WHERE a.uuid IN :uuids ORDER BY a.uuid")
+  List<ForexAccount> findAllByUuidInForUpdate(@Param("uuids") Collection<String> uuids);
+
+  @Query(
+      "SELECT new com.zfb.forex.domain.ForexAccountBalance(a.uuid, a.balance, a.status, a.version)"
+          + " FROM ForexAccount a WHERE a.uuid = :uuid")
+  Optional<ForexAccountBalance> findBalanceByUuid(@Param("uuid") String uuid);
+
+  @Query("SELECT a.balance FROM ForexAccount a WHERE a.uuid = :uuid")
+  Optional<BigDecimal> findCurrentBalanceByUuid(@Param("uuid") String uuid);
+
+  /** withdraw if the account is in the status and has enough balance; returns the rows updated */
+  @Modifying
+  @Query(
+      "UPDATE ForexAccount a SET a.balance = a.balance - :amount, a.version = a.version + 1,"
+          + " a.updatedAt = :now"
+          + " WHERE a.uuid = :uuid AND a.status = :status AND a.balance >= :amount")
+  int debit(
+      @Param("uuid") String uuid,
+      @Param("amount") BigDecimal amount,
+      @Param("status") ForexAccount.AccountStatus status,
+      @Param("now") LocalDateTime now);
+
+  /** deposit if the account is in the status; returns the rows updated */
+  @Modifying
+  @Query(
+      "UPDATE ForexAccount a SET a.balance = a.balance + :amount, a.version = a.version + 1,"
+          + " a.updatedAt = :now"
+          + " WHERE a.uuid = :uuid AND a.status = :status")
+  int credit(
+      @Param("uuid") String uuid,
+      @Param("amount") BigDecimal amount,
+      @Param("status") ForexAccount.AccountStatus status,
+      @Param("now") LocalDateTime now);
+
+  /** withdraw if the account is still at the version it was read at; returns the rows updated */
+  @Modifying
+  @Query(
+      "UPDATE ForexAccount a SET a.balance = a.balance - :amount, a.version = a.version + 1,"
+          + " a.updatedAt = :now"
+          + " WHERE a.uuid = :uuid AND a.balance >= :amount AND a.version = :version")
+  int withdrawIfVersion(
+      @Param("uuid") String uuid,
+      @Param("amount") BigDecimal amount,
+      @Param("version") long version,
+      @Param("now") LocalDateTime now);
+
+  /** deposit if the account is still at the version it was read at; returns the rows updated */
+  @Modifying
+  @Query(
+      "UPDATE ForexAccount a SET a.balance = a.balance + :amount, a.version = a.version + 1,"
+          + " a.updatedAt = :now"
+          + " WHERE a.uuid = :uuid AND a.version = :version")
+  int depositIfVersion(
+      @Param("uuid") String uuid,
+      @Param("amount") BigDecimal amount,
+      @Param("version") long version,
+      @Param("now") LocalDateTime now);
+
+  @Query(
+      "SELECT a.accountNumber FROM ForexAccount a" + " WHERE a.accountNumber BETWEEN :from AND :to")
+  List<String> findAccountNumbersBetween(@Param("from") String from, @Param("to") String to);
 }
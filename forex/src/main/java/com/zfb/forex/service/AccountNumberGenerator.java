@@ -0,0 +1,87 @@
+package com.zfb.forex.service;
+
+import com.zfb.forex.repository.ForexAccountRepository;
+import com.zfb.id.SequenceBlockAllocator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Forex account numbers: {@code FX} followed by twelve digits taken from the {@value #SEQUENCE}
+ * sequence. Numbers come from blocks leased by {@link SequenceBlockAllocator}, so they are unique
+ * without a lookup per account. Numbers created from random uuids before the sequence existed are
+ * hexadecimal; the few made only of digits are skipped with one query per block.
+ */
+@Component
+public class AccountNumberGenerator {
+
+  static final String SEQUENCE = "forex-account-number";
+  static final String PREFIX = "FX";
+  static final long MAX_SEQUENCE = 999_999_999_999L;
+
+  private final SequenceBlockAllocator allocator;
+
+  public AccountNumberGenerator(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      ForexAccountRepository accountRepository,
+      @Value("${forex.account-number.block-size:1000}") int blockSize,
+      @Value("${common.sequence.initialize-schema:false}") boolean initializeSchema) {
+    this.allocator =
+        new SequenceBlockAllocator(
+            jdbcTemplate,
+            transactionManager,
+            SEQUENCE,
+            blockSize,
+            MAX_SEQUENCE,
+            (from, to) ->
+                taken(accountRepository.findAccountNumbersBetween(format(from), format(to - 1))));
+    if (initializeSchema) {
+      allocator.initializeSchema();
+    }
+  }
+
+  /**
+   * get a new account number
+   *
+   * @return account number
+   */
+  public String next() {
+    return format(allocator.next());
+  }
+
+  /**
+   * get new account numbers for a bulk opening
+   *
+   * @param count number of account numbers
+   * @return account numbers
+   */
+  public List<String> next(int count) {
+    return allocator.next(count).stream().map(AccountNumberGenerator::format).toList();
+  }
+
+  /**
+   * format a sequence number as an account number
+   *
+   * @param sequence number between 0 and {@value #MAX_SEQUENCE}
+   * @return account number
+   */
+  static String format(long sequence) {
+    return PREFIX + String.format("%012d", sequence);
+  }
+
+  private static Set<Long> taken(List<String> accountNumbers) {
+    Set<Long> sequences = new HashSet<>();
+    for (String accountNumber : accountNumbers) {
+      String digits = accountNumber.substring(PREFIX.length());
+      if (digits.chars().allMatch(Character::isDigit)) {
+        sequences.add(Long.parseLong(digits));
+      }
+    }
+    return sequences;
+  }
+}
@@ -0,0 +1,58 @@
+package com.zfb.forex.service;
+
+import com.zfb.forex.dto.DepositRequest;
+import com.zfb.forex.dto.ForexTransactionDto;
+import com.zfb.forex.dto.WithdrawRequest;
+import com.zfb.lock.DistributedLockService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs saga withdrawals and deposits under a fenced lock on the account. The lock is taken before
+ * the transaction of {@link ForexService} starts and released after it commits, and its token is
+ * checked against the account row, so a saga step retried by another instance after the first one
+ * lost the lock cannot land after a newer write. Tokens only ever come from the lock, never from a
+ * request. Writes outside a saga keep relying on the row lock and {@code
+ * forex.balance-update.mode}, and so do saga deposits sent through the batch endpoint.
+ */
+@Service
+@RequiredArgsConstructor
+public class FencedForexWriter {
+
+  private final DistributedLockService lockService;
+  private final ForexService forexService;
+
+  @Value("${forex.fencing.saga-writes:true}")
+  private boolean fenceSagaWrites;
+
+  /**
+   * lock key of an account
+   *
+   * @param accountUuid account uuid
+   * @return lock key
+   */
+  public static String lockKey(String accountUuid) {
+    return "forex-account:" + accountUuid;
+  }
+
+  public ForexTransactionDto withdraw(String uuid, WithdrawRequest request) {
+    if (!fenced(request.getSagaId())) {
+      return forexService.withdraw(uuid, request, null);
+    }
+    return lockService.executeWithFencedLock(
+        lockKey(uuid), token -> forexService.withdraw(uuid, request, token));
+  }
+
+  public ForexTransactionDto deposit(String uuid, DepositRequest request) {
+    if (!fenced(request.getSagaId())) {
+      return forexService.deposit(uuid, request, null);
+    }
+    return lockService.executeWithFencedLock(
+        lockKey(uuid), token -> forexService.deposit(uuid, request, token));
+  }
+
+  private boolean fenced(String sagaId) {
+    return fenceSagaWrites && sagaId != null;
+  }
+}
@@ -1,33 +1,81 @@
 package com.zfb.forex.service;
 
+import com.zfb.datasource.ReadYourWrites;
+import com.zfb.datasource.ReadYourWritesTracker;
+import com.zfb.domain.BalanceUpdateMode;
+import com.zfb.domain.UuidBinaryConverter;
+import com.zfb.dto.BulkItemResult;
+import com.zfb.dto.CursorSlice;
+import com.zfb.dto.KeysetCursor;
 import com.zfb.exception.BusinessException;
+import com.zfb.export.StatementPeriod;
 import com.zfb.forex.domain.ForexAccount;
+import com.zfb.forex.domain.ForexAccountBalance;
 import com.zfb.forex.domain.ForexTransaction;
 import com.zfb.forex.dto.*;
 import com.zfb.forex.repository.ForexAccountRepository;
 import com.zfb.forex.repository.ForexTransactionRepository;
+import com.zfb.idempotency.Idempotent;
+import com.zfb.outbox.OutboxWriter;
+import jakarta.persistence.EntityManager;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ForexService {
 
+  public static final String ACCOUNT_CACHE = "forex:account";
+  public static final String BALANCE_CACHE = "forex:balance";
+  public static final String VERIFICATION_CACHE = "forex:verification";
+  public static final int MAX_HISTORY_PAGE_SIZE = 100;
+
   private final ForexAccountRepository accountRepository;
   private final ForexTransactionRepository transactionRepository;
+  private final CacheManager cacheManager;
+  private final TransactionTemplate transactionTemplate;
+  private final ReadYourWritesTracker readYourWritesTracker;
+  private final AccountNumberGenerator accountNumberGenerator;
+  private final OutboxWriter outboxWriter;
+  private final EntityManager entityManager;
+
+  @Value("${forex.balance-update.mode:ATOMIC}")
+  private BalanceUpdateMode balanceUpdateMode;
+
+  @Value("${forex.balance-update.max-attempts:3}")
+  private int optimisticMaxAttempts;
+
+  @Value("${forex.outbox.topic:forex.transactions}")
+  private String transactionTopic;
+
+  @Value("${forex.bulk-create.chunk-size:500}")
+  private int bulkCreateChunkSize;
 
-  @Transactional
   public ForexAccountDto createAccount(CreateAccountRequest request) {
-    String accountNumber = generateAccountNumber();
+    String accountNumber = accountNumberGenerator.next();
 
     ForexAccount account =
         ForexAccount.builder()
@@ -38,12 +86,78 @@ public class ForexService {
             .status(ForexAccount.AccountStatus.ACTIVE)
             .build();
 
-    ForexAccount saved = accountRepository.save(account);
+    ForexAccount saved =
+        transactionTemplate.execute(
+            status -> {
+              ForexAccount created = accountRepository.save(account);
+              readYourWritesTracker.markWritten(created.getUuid());
+              return created;
+            });
     log.info("created forex account: {}", saved.getAccountNumber());
 
     return ForexAccountDto.from(saved);
   }
 
+  /**
+   * create many forex accounts, e.g. payroll accounts for a whole company. Requests are processed
+   * in chunks of {@code forex.bulk-create.chunk-size}, each in its own transaction, with the
+   * account numbers of a chunk allocated at once before its transaction starts and the rows
+   * inserted in JDBC batches. A failed chunk does not undo the chunks before it; its items are
+   * reported as failed.
+   *
+   * @param request bulk create request
+   * @return result of each request, in request order
+   */
+  public List<BulkItemResult<ForexAccountDto>> createAccounts(BulkCreateAccountRequest request) {
+    List<CreateAccountRequest> requests = request.getAccounts();
+    List<BulkItemResult<ForexAccountDto>> results = new ArrayList<>(requests.size());
+    int created = 0;
+    for (int from = 0; from < requests.size(); from += bulkCreateChunkSize) {
+      List<CreateAccountRequest> chunk =
+          requests.subList(from, Math.min(from + bulkCreateChunkSize, requests.size()));
+      try {
+        List<String> accountNumbers = accountNumberGenerator.next(chunk.size());
+        List<ForexAccount> saved =
+            transactionTemplate.execute(status -> createChunk(chunk, accountNumbers));
+        for (int i = 0; i < saved.size(); i++) {
+          results.add(BulkItemResult.created(from + i, ForexAccountDto.from(saved.get(i))));
+        }
+        created += saved.size();
+      } catch (RuntimeException e) {
+        log.error("bulk account creation failed: from={}, size={}", from, chunk.size(), e);
+        String error =
+            e instanceof BusinessException ? e.getMessage() : "account could not be created";
+        for (int i = 0; i < chunk.size(); i++) {
+          results.add(BulkItemResult.failed(from + i, error));
+        }
+      }
+    }
+
+    log.info("bulk account creation completed: requested={}, created={}", requests.size(), created);
+    return results;
+  }
+
+  private List<ForexAccount> createChunk(
+      List<CreateAccountRequest> chunk, List<String> accountNumbers) {
+    List<ForexAccount> accounts = new ArrayList<>(chunk.size());
+    for (int i = 0; i < chunk.size(); i++) {
+      accounts.add(
+          ForexAccount.builder()
+              .accountNumber(accountNumbers.get(i))
+              .userId(chunk.get(i).getUserId())
+              .balance(BigDecimal.ZERO)
+              .currency(chunk.get(i).getCurrency())
+              .status(ForexAccount.AccountStatus.ACTIVE)
+              .build());
+    }
+
+    List<ForexAccount> saved = accountRepository.saveAll(accounts);
+    saved.forEach(account -> readYourWritesTracker.markWritten(account.getUuid()));
+    return saved;
+  }
+
+  @Cacheable(cacheNames = ACCOUNT_CACHE, key = "#uuid")
+  @ReadYourWrites(key = "#uuid")
   @Transactional(readOnly = true)
   public ForexAccountDto getAccount(String uuid) {
     ForexAccount account =
@@ -61,6 +175,8 @@ public class ForexService {
         .collect(Collectors.toList());
   }
 
+  @Cacheable(cacheNames = BALANCE_CACHE, key = "#uuid")
+  @ReadYourWrites(key = "#uuid")
   @Transactional(readOnly = true)
   public BigDecimal getBalance(String uuid) {
     ForexAccount account =
@@ -71,8 +187,18 @@ public class ForexService {
     return account.getBalance();
   }
 
-  @Transactional
-  public ForexTransactionDto withdraw(String uuid, WithdrawRequest request) {
+  /**
+   * withdraw from an account. A fenced write locks the account row and is rejected if a newer
+   * holder of the account lock has written the account since.
+   *
+   * @param uuid account uuid
+   * @param request withdraw request
+   * @param fencingToken token of the account lock held by {@link FencedForexWriter}, or null
+   * @return transaction dto
+   */
+  @Idempotent(key = "#request.clientRequestId")
+  @Transactional(isolation = Isolation.READ_COMMITTED)
+  public ForexTransactionDto withdraw(String uuid, WithdrawRequest request, Long fencingToken) {
     String clientRequestId = request.getClientRequestId();
 
     if (clientRequestId != null) {
@@ -84,15 +210,39 @@ public class ForexService {
       }
     }
 
+    if (balanceUpdateMode != BalanceUpdateMode.PESSIMISTIC && fencingToken == null) {
+      ForexTransactionDto result =
+          balanceUpdateMode == BalanceUpdateMode.ATOMIC
+              ? updateAtomic(
+                  uuid,
+                  ForexTransaction.TransactionType.WITHDRAW,
+                  request.getAmount(),
+                  clientRequestId,
+                  request.getSagaId(),
+                  request.getDescription())
+              : updateOptimistic(
+                  uuid,
+                  ForexTransaction.TransactionType.WITHDRAW,
+                  request.getAmount(),
+                  clientRequestId,
+                  request.getSagaId(),
+                  request.getDescription());
+      if (result != null) {
+        return result;
+      }
+    }
+
     ForexAccount account =
         accountRepository
             .findByUuidForUpdate(uuid)
             .orElseThrow(() -> new BusinessException("account not found"));
+    checkFencingToken(account, fencingToken);
 
     BigDecimal balanceBefore = account.getBalance();
 
     try {
       account.withdraw(request.getAmount());
+      accountWritten(account.getUuid());
 
       ForexTransaction transaction =
           ForexTransaction.builder()
@@ -116,7 +266,7 @@ public class ForexService {
           request.getAmount(),
           saved.getUuid());
 
-      return ForexTransactionDto.from(saved);
+      return published(saved);
 
     } catch (Exception e) {
       log.error("withdraw failed: accountUuid={}, amount={}", uuid, request.getAmount(), e);
@@ -141,8 +291,18 @@ public class ForexService {
     }
   }
 
-  @Transactional
-  public ForexTransactionDto deposit(String uuid, DepositRequest request) {
+  /**
+   * deposit to an account. A fenced write locks the account row and is rejected if a newer holder
+   * of the account lock has written the account since.
+   *
+   * @param uuid account uuid
+   * @param request deposit request
+   * @param fencingToken token of the account lock held by {@link FencedForexWriter}, or null
+   * @return transaction dto
+   */
+  @Idempotent(key = "#request.clientRequestId")
+  @Transactional(isolation = Isolation.READ_COMMITTED)
+  public ForexTransactionDto deposit(String uuid, DepositRequest request, Long fencingToken) {
     String clientRequestId = request.getClientRequestId();
 
     if (clientRequestId != null) {
@@ -154,15 +314,39 @@ public class ForexService {
       }
     }
 
+    if (balanceUpdateMode != BalanceUpdateMode.PESSIMISTIC && fencingToken == null) {
+      ForexTransactionDto result =
+          balanceUpdateMode == BalanceUpdateMode.ATOMIC
+              ? updateAtomic(
+                  uuid,
+                  ForexTransaction.TransactionType.DEPOSIT,
+                  request.getAmount(),
+                  clientRequestId,
+                  request.getSagaId(),
+                  request.getDescription())
+              : updateOptimistic(
+                  uuid,
+                  ForexTransaction.TransactionType.DEPOSIT,
+                  request.getAmount(),
+                  clientRequestId,
+                  request.getSagaId(),
+                  request.getDescription());
+      if (result != null) {
+        return result;
+      }
+    }
+
     ForexAccount account =
         accountRepository
             .findByUuidForUpdate(uuid)
             .orElseThrow(() -> new BusinessException("account not found"));
+    checkFencingToken(account, fencingToken);
 
     BigDecimal balanceBefore = account.getBalance();
 
     try {
       account.deposit(request.getAmount());
+      accountWritten(account.getUuid());
 
       ForexTransaction transaction =
           ForexTransaction.builder()
@@ -186,7 +370,7 @@ public class ForexService {
           request.getAmount(),
           saved.getUuid());
 
-      return ForexTransactionDto.from(saved);
+      return published(saved);
 
     } catch (Exception e) {
       log.error("deposit failed: accountUuid={}, amount={}", uuid, request.getAmount(), e);
@@ -211,8 +395,109 @@ public class ForexService {
     }
   }
 
+  /**
+   * Apply many deposits in one transaction. Each account is locked once, in uuid order, and all its
+   * deposits are applied in memory; the transaction rows are inserted in JDBC batches. Deposits
+   * whose client request id was already processed return the existing transaction. The batch is all
+   * or nothing: an unknown or inactive account fails every deposit in it.
+   *
+   * @param request batch deposit request
+   * @return transactions in request order
+   */
+  @Transactional
+  public List<ForexTransactionDto> depositBatch(BatchDepositRequest request) {
+    List<BatchDepositRequest.Deposit> deposits = request.getDeposits();
+
+    Map<String, ForexTransaction> processed = new HashMap<>();
+    List<String> clientRequestIds =
+        deposits.stream()
+            .map(BatchDepositRequest.Deposit::getClientRequestId)
+            .filter(Objects::nonNull)
+            .distinct()
+            .toList();
+    if (!clientRequestIds.isEmpty()) {
+      for (ForexTransaction existing :
+          transactionRepository.findByClientRequestIdIn(clientRequestIds)) {
+        processed.put(existing.getClientRequestId(), existing);
+      }
+    }
+
+    List<String> accountUuids =
+        deposits.stream()
+            .filter(deposit -> !processed.containsKey(deposit.getClientRequestId()))
+            .map(BatchDepositRequest.Deposit::getAccountUuid)
+            .distinct()
+            .toList();
+    Map<String, ForexAccount> accounts =
+        accountUuids.isEmpty()
+            ? Map.of()
+            : accountRepository.findAllByUuidInForUpdate(accountUuids).stream()
+                .collect(Collectors.toMap(ForexAccount::getUuid, Function.identity()));
+
+    List<ForexTransaction> transactions = new ArrayList<>();
+    List<ForexTransaction> results = new ArrayList<>(deposits.size());
+    for (BatchDepositRequest.Deposit deposit : deposits) {
+      String clientRequestId = deposit.getClientRequestId();
+      if (clientRequestId != null && processed.containsKey(clientRequestId)) {
+        log.info("duplicate deposit request detected: {}", clientRequestId);
+        results.add(processed.get(clientRequestId));
+        continue;
+      }
+
+      ForexAccount account = accounts.get(deposit.getAccountUuid());
+      if (account == null) {
+        throw new BusinessException("account not found");
+      }
+
+      BigDecimal balanceBefore = account.getBalance();
+      try {
+        account.deposit(deposit.getAmount());
+      } catch (IllegalStateException | IllegalArgumentException e) {
+        log.error(
+            "batch deposit failed: accountUuid={}, amount={}",
+            account.getUuid(),
+            deposit.getAmount(),
+            e);
+        throw new BusinessException(e.getMessage());
+      }
+
+      ForexTransaction transaction =
+          ForexTransaction.builder()
+              .accountUuid(account.getUuid())
+              .type(ForexTransaction.TransactionType.DEPOSIT)
+              .amount(deposit.getAmount())
+              .balanceBefore(balanceBefore)
+              .balanceAfter(account.getBalance())
+              .status(ForexTransaction.TransactionStatus.COMPLETED)
+              .clientRequestId(clientRequestId)
+              .sagaId(deposit.getSagaId())
+              .description(deposit.getDescription())
+              .build();
+      transactions.add(transaction);
+      results.add(transaction);
+      if (clientRequestId != null) {
+        processed.put(clientRequestId, transaction);
+      }
+    }
+
+    transactionRepository.saveAll(transactions);
+    transactions.forEach(this::published);
+    accounts.keySet().forEach(this::accountWritten);
+
+    log.info(
+        "batch deposit completed: deposits={}, accounts={}, inserted={}",
+        deposits.size(),
+        accounts.size(),
+        transactions.size());
+
+    return results.stream().map(ForexTransactionDto::from).toList();
+  }
+
   @Transactional
   public ForexTransactionDto refund(String transactionUuid, String reason) {
+    if (!UuidBinaryConverter.isValid(transactionUuid)) {
+      throw new BusinessException("transaction not found");
+    }
     ForexTransaction originalTransaction =
         transactionRepository
             .findByUuid(transactionUuid)
@@ -233,6 +518,7 @@ public class ForexService {
 
     BigDecimal balanceBefore = account.getBalance();
     account.deposit(originalTransaction.getAmount());
+    accountWritten(account.getUuid());
 
     ForexTransaction refundTransaction =
         ForexTransaction.builder()
@@ -252,43 +538,363 @@ public class ForexService {
     log.info(
         "refund completed: originalTxUuid={}, refundTxUuid={}", transactionUuid, saved.getUuid());
 
-    return ForexTransactionDto.from(saved);
+    return published(saved);
   }
 
+  /**
+   * verify a transaction by transaction uuid. Found transactions never change, so they are cached
+   * for {@code common.cache.ttls.forex:verification}; NOT_FOUND is not cached so a poller sees the
+   * transaction as soon as it commits.
+   *
+   * @param transactionUuid transaction uuid
+   * @return transaction verification
+   */
+  @Cacheable(
+      cacheNames = VERIFICATION_CACHE,
+      key = "'uuid:' + #transactionUuid",
+      unless = "#result.status == 'NOT_FOUND'")
   @Transactional(readOnly = true)
   public TransactionVerification verifyTransaction(String transactionUuid) {
-    ForexTransaction transaction = transactionRepository.findByUuid(transactionUuid).orElse(null);
-
-    if (transaction == null) {
+    if (!UuidBinaryConverter.isValid(transactionUuid)) {
       return TransactionVerification.notFound();
     }
-
-    return TransactionVerification.from(transaction);
+    return transactionRepository
+        .findSummaryByUuid(transactionUuid)
+        .map(TransactionVerification::from)
+        .orElseGet(TransactionVerification::notFound);
   }
 
+  /**
+   * verify a transaction by client request id, cached like {@link #verifyTransaction}
+   *
+   * @param clientRequestId client request id
+   * @return transaction verification
+   */
+  @Cacheable(
+      cacheNames = VERIFICATION_CACHE,
+      key = "'client:' + #clientRequestId",
+      unless = "#result.status == 'NOT_FOUND'")
   @Transactional(readOnly = true)
   public TransactionVerification verifyByClientRequestId(String clientRequestId) {
-    ForexTransaction transaction =
-        transactionRepository.findByClientRequestId(clientRequestId).orElse(null);
-
-    if (transaction == null) {
-      return TransactionVerification.notFound();
-    }
-
-    return TransactionVerification.from(transaction);
+    return transactionRepository
+        .findSummaryByClientRequestId(clientRequestId)
+        .map(TransactionVerification::from)
+        .orElseGet(TransactionVerification::notFound);
   }
 
+  @ReadYourWrites(key = "#accountUuid")
   @Transactional(readOnly = true)
-  public Page<ForexTransactionDto> getTransactionHistory(
-      String accountUuid, Pageable pageable) {
+  public Page<ForexTransactionDto> getTransactionHistory(String accountUuid, Pageable pageable) {
+    requireAccountUuid(accountUuid);
     return transactionRepository
         .findByAccountUuidOrderByCreatedAtDesc(accountUuid, pageable)
         .map(ForexTransactionDto::from);
   }
 
-  private String generateAccountNumber() {
-    String prefix = "FX";
-    String uuid = UUID.randomUUID().toString().replace("-", "").substring(0, 12).toUpperCase();
-    return prefix + uuid;
+  /**
+   * get transaction history for an account, one keyset page at a time. Pages are read by seeking
+   * into the (accountUuid, createdAt, id) index after the cursor, without an offset or a count.
+   *
+   * @param accountUuid account uuid
+   * @param cursor nextCursor of the previous page, null for the first page
+   * @param size page size, at most {@value #MAX_HISTORY_PAGE_SIZE}
+   * @return slice of transactions, newest first
+   */
+  @ReadYourWrites(key = "#accountUuid")
+  @Transactional(readOnly = true)
+  public CursorSlice<ForexTransactionDto> getTransactionHistory(
+      String accountUuid, String cursor, int size) {
+    requireAccountUuid(accountUuid);
+    int pageSize = Math.clamp(size, 1, MAX_HISTORY_PAGE_SIZE);
+    Pageable limit = PageRequest.of(0, pageSize + 1);
+    List<ForexTransaction> rows;
+    if (cursor == null || cursor.isBlank()) {
+      rows = transactionRepository.findHistory(accountUuid, limit);
+    } else {
+      KeysetCursor position = KeysetCursor.decode(cursor);
+      rows =
+          transactionRepository.findHistoryBefore(
+              accountUuid, position.createdAt(), position.id(), limit);
+    }
+    return CursorSlice.of(rows, pageSize, ForexTransactionDto::from);
+  }
+
+  /**
+   * stream the statement of an account to a consumer, one transaction at a time. Rows are read with
+   * a forward-only cursor and detached once handed over, so memory stays flat whatever the size of
+   * the statement. The transaction timeout is {@code forex.statement.timeout} seconds instead of
+   * the default, which is too short for large accounts.
+   *
+   * @param accountUuid account uuid
+   * @param period statement period
+   * @param consumer receives the transactions, oldest first
+   * @return number of transactions
+   */
+  @Transactional(readOnly = true, timeoutString = "${forex.statement.timeout:600}")
+  public long exportStatement(
+      String accountUuid, StatementPeriod period, Consumer<ForexTransactionDto> consumer) {
+    requireAccountUuid(accountUuid);
+    long count = 0;
+    try (Stream<ForexTransaction> transactions =
+        transactionRepository.streamStatement(accountUuid, period.start(), period.end())) {
+      Iterator<ForexTransaction> iterator = transactions.iterator();
+      while (iterator.hasNext()) {
+        ForexTransaction transaction = iterator.next();
+        consumer.accept(ForexTransactionDto.from(transaction));
+        entityManager.detach(transaction);
+        count++;
+      }
+    }
+    log.info(
+        "statement exported: accountUuid={}, from={}, to={}, transactions={}",
+        accountUuid,
+        period.from(),
+        period.to(),
+        count);
+    return count;
+  }
+
+  /**
+   * reject an account uuid that cannot be bound to the binary accountUuid column, so a malformed
+   * path variable is a bad request instead of a conversion failure inside the query
+   *
+   * @param accountUuid account uuid
+   */
+  private static void requireAccountUuid(String accountUuid) {
+    if (!UuidBinaryConverter.isValid(accountUuid)) {
+      throw new BusinessException("invalid account uuid");
+    }
+  }
+
+  /**
+   * evict the cached account and balance and keep reads of the account on the master until the
+   * replicas catch up. Both are applied after commit; evictions are broadcast to the near caches of
+   * the other instances.
+   *
+   * @param accountUuid account uuid
+   */
+  private void accountWritten(String accountUuid) {
+    cacheManager.getCache(ACCOUNT_CACHE).evict(accountUuid);
+    cacheManager.getCache(BALANCE_CACHE).evict(accountUuid);
+    readYourWritesTracker.markWritten(accountUuid);
+  }
+
+  /**
+   * withdraw or deposit with a single update that only matches an active account with enough
+   * balance, then read the new balance back in the same transaction. The row is locked from the
+   * update to the commit only, and no entity is loaded. Writes carrying a fencing token always lock
+   * the row.
+   *
+   * @param uuid account uuid
+   * @param type WITHDRAW or DEPOSIT
+   * @param amount the amount to withdraw or deposit
+   * @param clientRequestId client request id
+   * @param sagaId saga id
+   * @param description description
+   * @return transaction dto, or null if the account changed between the update and the check of why
+   *     it did not match, and the row should be locked
+   */
+  private ForexTransactionDto updateAtomic(
+      String uuid,
+      ForexTransaction.TransactionType type,
+      BigDecimal amount,
+      String clientRequestId,
+      String sagaId,
+      String description) {
+    boolean withdraw = type == ForexTransaction.TransactionType.WITHDRAW;
+    LocalDateTime now = LocalDateTime.now();
+
+    int updated = 0;
+    if (amount.signum() > 0) {
+      updated =
+          withdraw
+              ? accountRepository.debit(uuid, amount, ForexAccount.AccountStatus.ACTIVE, now)
+              : accountRepository.credit(uuid, amount, ForexAccount.AccountStatus.ACTIVE, now);
+    }
+    if (updated == 0) {
+      // nothing changed, read the account to record why
+      ForexAccountBalance snapshot =
+          accountRepository
+              .findBalanceByUuid(uuid)
+              .orElseThrow(() -> new BusinessException("account not found"));
+      checkSnapshot(snapshot, type, amount, clientRequestId, sagaId, description);
+      return null;
+    }
+
+    BigDecimal balanceAfter =
+        accountRepository
+            .findCurrentBalanceByUuid(uuid)
+            .orElseThrow(() -> new BusinessException("account not found"));
+    BigDecimal balanceBefore = withdraw ? balanceAfter.add(amount) : balanceAfter.subtract(amount);
+    accountWritten(uuid);
+
+    return saveCompleted(
+        uuid, type, amount, balanceBefore, balanceAfter, clientRequestId, sagaId, description);
+  }
+
+  /**
+   * withdraw or deposit with an update conditional on the account version instead of a row lock.
+   * The account is read again when another transaction changed it in between, which needs read
+   * committed isolation. Writes carrying a fencing token always lock the row.
+   *
+   * @param uuid account uuid
+   * @param type WITHDRAW or DEPOSIT
+   * @param amount the amount to withdraw or deposit
+   * @param clientRequestId client request id
+   * @param sagaId saga id
+   * @param description description
+   * @return transaction dto, or null if the account kept changing and the row should be locked
+   */
+  private ForexTransactionDto updateOptimistic(
+      String uuid,
+      ForexTransaction.TransactionType type,
+      BigDecimal amount,
+      String clientRequestId,
+      String sagaId,
+      String description) {
+    boolean withdraw = type == ForexTransaction.TransactionType.WITHDRAW;
+
+    for (int attempt = 1; attempt <= optimisticMaxAttempts; attempt++) {
+      ForexAccountBalance snapshot =
+          accountRepository
+              .findBalanceByUuid(uuid)
+              .orElseThrow(() -> new BusinessException("account not found"));
+      checkSnapshot(snapshot, type, amount, clientRequestId, sagaId, description);
+
+      LocalDateTime now = LocalDateTime.now();
+      int updated =
+          withdraw
+              ? accountRepository.withdrawIfVersion(uuid, amount, snapshot.version(), now)
+              : accountRepository.depositIfVersion(uuid, amount, snapshot.version(), now);
+      if (updated == 0) {
+        log.debug("account changed concurrently: accountUuid={}, attempt={}", uuid, attempt);
+        continue;
+      }
+      accountWritten(uuid);
+
+      BigDecimal balanceBefore = snapshot.balance();
+      BigDecimal balanceAfter =
+          withdraw ? balanceBefore.subtract(amount) : balanceBefore.add(amount);
+      return saveCompleted(
+          uuid, type, amount, balanceBefore, balanceAfter, clientRequestId, sagaId, description);
+    }
+
+    log.info("{} retries exhausted, locking account: accountUuid={}", operation(type), uuid);
+    return null;
+  }
+
+  /**
+   * check a withdrawal or deposit against an account snapshot. A rejected one is recorded as a
+   * failed transaction.
+   */
+  private void checkSnapshot(
+      ForexAccountBalance snapshot,
+      ForexTransaction.TransactionType type,
+      BigDecimal amount,
+      String clientRequestId,
+      String sagaId,
+      String description) {
+    try {
+      if (type == ForexTransaction.TransactionType.WITHDRAW) {
+        snapshot.checkWithdraw(amount);
+      } else {
+        snapshot.checkDeposit(amount);
+      }
+    } catch (RuntimeException e) {
+      log.error(
+          "{} failed: accountUuid={}, amount={}", operation(type), snapshot.uuid(), amount, e);
+
+      ForexTransaction failedTransaction =
+          ForexTransaction.builder()
+              .accountUuid(snapshot.uuid())
+              .type(type)
+              .amount(amount)
+              .balanceBefore(snapshot.balance())
+              .balanceAfter(snapshot.balance())
+              .status(ForexTransaction.TransactionStatus.FAILED)
+              .clientRequestId(clientRequestId)
+              .sagaId(sagaId)
+              .description(description)
+              .build();
+
+      failedTransaction.fail(e.getMessage());
+      transactionRepository.save(failedTransaction);
+
+      throw e;
+    }
+  }
+
+  private ForexTransactionDto saveCompleted(
+      String uuid,
+      ForexTransaction.TransactionType type,
+      BigDecimal amount,
+      BigDecimal balanceBefore,
+      BigDecimal balanceAfter,
+      String clientRequestId,
+      String sagaId,
+      String description) {
+    ForexTransaction transaction =
+        ForexTransaction.builder()
+            .accountUuid(uuid)
+            .type(type)
+            .amount(amount)
+            .balanceBefore(balanceBefore)
+            .balanceAfter(balanceAfter)
+            .status(ForexTransaction.TransactionStatus.COMPLETED)
+            .clientRequestId(clientRequestId)
+            .sagaId(sagaId)
+            .description(description)
+            .build();
+
+    transaction.complete();
+    ForexTransaction saved = transactionRepository.save(transaction);
+
+    log.info(
+        "{} completed: accountUuid={}, amount={}, txUuid={}",
+        operation(type),
+        uuid,
+        amount,
+        saved.getUuid());
+
+    return published(saved);
+  }
+
+  private static String operation(ForexTransaction.TransactionType type) {
+    return type == ForexTransaction.TransactionType.WITHDRAW ? "withdraw" : "deposit";
+  }
+
+  /**
+   * reject a write made under a lock that has since been taken by another holder. the account row
+   * is locked, so the check and the token update are atomic.
+   *
+   * @param account account locked for update
+   * @param fencingToken fencing token of the caller's account lock, or null if not fenced
+   */
+  private void checkFencingToken(ForexAccount account, Long fencingToken) {
+    if (fencingToken == null) {
+      return;
+    }
+    try {
+      account.acceptFencingToken(fencingToken);
+    } catch (IllegalStateException e) {
+      log.warn(
+          "stale fencing token rejected: accountUuid={}, token={}, current={}",
+          account.getUuid(),
+          fencingToken,
+          account.getFencingToken());
+      throw new BusinessException(e.getMessage());
+    }
+  }
+
+  /**
+   * append a completed transaction to the outbox, in the current transaction
+   *
+   * @param transaction saved transaction
+   * @return transaction dto
+   */
+  private ForexTransactionDto published(ForexTransaction transaction) {
+    ForexTransactionDto dto = ForexTransactionDto.from(transaction);
+    outboxWriter.append(transactionTopic, dto.getAccountUuid(), dto);
+    return dto;
   }
 }
@@ -0,0 +1,86 @@
+package com.zfb.forex.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.zfb.config.CacheConfig;
+import com.zfb.forex.domain.ForexTransaction;
+import com.zfb.forex.domain.ForexTransactionSummary;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+class ForexAccountDtoCacheTest {
+
+  private final RedisSerializer<Object> serializer = CacheConfig.valueSerializer();
+
+  @Test
+  @DisplayName("cached account survives redis serialization")
+  void account_RoundTrip() {
+    // given
+    LocalDateTime createdAt = LocalDateTime.of(2025, 1, 2, 3, 4, 5);
+    ForexAccountDto account =
+        ForexAccountDto.builder()
+            .uuid("account-1")
+            .accountNumber("FX0123456789AB")
+            .userId(1L)
+            .balance(new BigDecimal("1250.50"))
+            .currency("USD")
+            .status("ACTIVE")
+            .createdAt(createdAt)
+            .updatedAt(createdAt)
+            .build();
+
+    // when
+    ForexAccountDto restored =
+        (ForexAccountDto) serializer.deserialize(serializer.serialize(account));
+
+    // then
+    assertThat(restored.getUuid()).isEqualTo("account-1");
+    assertThat(restored.getBalance()).isEqualTo(new BigDecimal("1250.50"));
+    assertThat(restored.getCreatedAt()).isEqualTo(createdAt);
+  }
+
+  @Test
+  @DisplayName("cached balance keeps its scale")
+  void balance_RoundTrip() {
+    // given
+    BigDecimal balance = new BigDecimal("100.00");
+
+    // when
+    Object restored = serializer.deserialize(serializer.serialize(balance));
+
+    // then
+    assertThat(restored).isEqualTo(balance);
+  }
+
+  @Test
+  @DisplayName("cached verification survives redis serialization")
+  void verification_RoundTrip() {
+    // given
+    TransactionVerification verification =
+        TransactionVerification.from(
+            new ForexTransactionSummary(
+                1L,
+                "transaction-1",
+                "account-1",
+                ForexTransaction.TransactionType.WITHDRAW,
+                ForexTransaction.TransactionStatus.COMPLETED,
+                new BigDecimal("30.00"),
+                new BigDecimal("100.00"),
+                new BigDecimal("70.00"),
+                "request-1",
+                "saga-1",
+                LocalDateTime.of(2025, 1, 2, 3, 4, 5)));
+
+    // when
+    Object restored = serializer.deserialize(serializer.serialize(verification));
+
+    // then
+    assertThat(restored).isInstanceOf(TransactionVerification.class);
+    TransactionVerification cached = (TransactionVerification) restored;
+    assertThat(cached.getStatus()).isEqualTo("COMPLETED");
+    assertThat(cached.getBalance().getAfter()).isEqualTo(new BigDecimal("70.00"));
+  }
+}
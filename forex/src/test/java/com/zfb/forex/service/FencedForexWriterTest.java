@@ -0,0 +1,61 @@
+package com.zfb.forex.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.zfb.forex.dto.DepositRequest;
+import com.zfb.lock.DistributedLockService;
+import java.math.BigDecimal;
+import java.util.function.LongFunction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class FencedForexWriterTest {
+
+  private static final String UUID = "account-1";
+
+  private DistributedLockService lockService;
+  private ForexService forexService;
+  private FencedForexWriter writer;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    lockService = mock(DistributedLockService.class);
+    forexService = mock(ForexService.class);
+    when(lockService.executeWithFencedLock(anyString(), any(LongFunction.class)))
+        .thenAnswer(invocation -> invocation.<LongFunction<?>>getArgument(1).apply(42L));
+    writer = new FencedForexWriter(lockService, forexService);
+    ReflectionTestUtils.setField(writer, "fenceSagaWrites", true);
+  }
+
+  @Test
+  @DisplayName("saga deposit runs under the account's fenced lock with its token")
+  void deposit_SagaWriteFenced() {
+    // when
+    writer.deposit(UUID, DepositRequest.builder().amount(BigDecimal.TEN).sagaId("saga-1").build());
+
+    // then
+    verify(lockService).executeWithFencedLock(eq("forex-account:" + UUID), any());
+    verify(forexService).deposit(eq(UUID), any(), eq(42L));
+  }
+
+  @Test
+  @DisplayName("deposit outside a saga is not locked or fenced")
+  void deposit_OutsideSagaNotFenced() {
+    // when
+    writer.deposit(UUID, DepositRequest.builder().amount(BigDecimal.TEN).build());
+
+    // then
+    verify(lockService, never()).executeWithFencedLock(anyString(), any());
+    verify(forexService).deposit(eq(UUID), any(), isNull());
+  }
+}
@@ -0,0 +1,239 @@
+package com.zfb.forex.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.zfb.datasource.ReadYourWritesTracker;
+import com.zfb.domain.BalanceUpdateMode;
+import com.zfb.domain.Currency;
+import com.zfb.exception.BusinessException;
+import com.zfb.forex.domain.ForexAccount;
+import com.zfb.forex.domain.ForexTransaction;
+import com.zfb.forex.dto.BatchDepositRequest;
+import com.zfb.forex.dto.ForexTransactionDto;
+import com.zfb.forex.dto.WithdrawRequest;
+import com.zfb.forex.repository.ForexAccountRepository;
+import com.zfb.forex.repository.ForexTransactionRepository;
+import com.zfb.outbox.OutboxWriter;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class ForexServiceTest {
+
+  private static final String UUID = "account-1";
+
+  private ForexAccountRepository accountRepository;
+  private ForexTransactionRepository transactionRepository;
+  private OutboxWriter outboxWriter;
+  private ForexService forexService;
+
+  @BeforeEach
+  void setUp() {
+    accountRepository = mock(ForexAccountRepository.class);
+    transactionRepository = mock(ForexTransactionRepository.class);
+    outboxWriter = mock(OutboxWriter.class);
+    CacheManager cacheManager = mock(CacheManager.class);
+    when(cacheManager.getCache(anyString())).thenReturn(mock(Cache.class));
+    when(transactionRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+    forexService =
+        new ForexService(
+            accountRepository,
+            transactionRepository,
+            cacheManager,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            mock(ReadYourWritesTracker.class),
+            mock(AccountNumberGenerator.class),
+            outboxWriter,
+            mock(EntityManager.class));
+    ReflectionTestUtils.setField(forexService, "balanceUpdateMode", BalanceUpdateMode.ATOMIC);
+    ReflectionTestUtils.setField(forexService, "transactionTopic", "forex.transactions");
+  }
+
+  @Test
+  @DisplayName("withdraw under a lock that was taken over since is rejected")
+  void withdraw_StaleFencingTokenRejected() {
+    // given
+    ForexAccount account = account("100.00");
+    account.acceptFencingToken(7L);
+    when(accountRepository.findByUuidForUpdate(UUID)).thenReturn(Optional.of(account));
+
+    // when & then
+    assertThatThrownBy(() -> forexService.withdraw(UUID, withdrawRequest("30.00"), 6L))
+        .isInstanceOf(BusinessException.class)
+        .hasMessage("stale fencing token");
+    assertThat(account.getBalance()).isEqualByComparingTo("100.00");
+    assertThat(account.getFencingToken()).isEqualTo(7L);
+    verify(transactionRepository, never()).save(any());
+  }
+
+  @Test
+  @DisplayName("withdraw with a newer fencing token locks the row and records the token")
+  void withdraw_NewerFencingTokenAccepted() {
+    // given
+    ForexAccount account = account("100.00");
+    account.acceptFencingToken(7L);
+    when(accountRepository.findByUuidForUpdate(UUID)).thenReturn(Optional.of(account));
+
+    // when
+    ForexTransactionDto result = forexService.withdraw(UUID, withdrawRequest("30.00"), 8L);
+
+    // then
+    assertThat(result.getBalanceAfter()).isEqualByComparingTo("70.00");
+    assertThat(account.getFencingToken()).isEqualTo(8L);
+    verify(accountRepository, never()).findBalanceByUuid(anyString());
+  }
+
+  @Test
+  @DisplayName("batch deposit applies a client request id repeated in the batch once")
+  @SuppressWarnings("unchecked")
+  void depositBatch_DeduplicatesWithinBatch() {
+    // given
+    ForexAccount account = account(UUID, "100.00");
+    when(accountRepository.findAllByUuidInForUpdate(List.of(UUID))).thenReturn(List.of(account));
+
+    // when
+    List<ForexTransactionDto> results =
+        forexService.depositBatch(
+            batchRequest(deposit(UUID, "10.00", "req-1"), deposit(UUID, "10.00", "req-1")));
+
+    // then
+    assertThat(results).hasSize(2);
+    assertThat(results.get(1).getBalanceAfter()).isEqualByComparingTo("110.00");
+    assertThat(account.getBalance()).isEqualByComparingTo("110.00");
+    ArgumentCaptor<List<ForexTransaction>> inserted = ArgumentCaptor.forClass(List.class);
+    verify(transactionRepository).saveAll(inserted.capture());
+    assertThat(inserted.getValue()).hasSize(1);
+  }
+
+  @Test
+  @DisplayName("batch deposit returns processed client request ids without locking their accounts")
+  void depositBatch_ReplaysProcessedRequests() {
+    // given
+    ForexTransaction existing =
+        ForexTransaction.builder()
+            .accountUuid(UUID)
+            .type(ForexTransaction.TransactionType.DEPOSIT)
+            .amount(new BigDecimal("10.00"))
+            .balanceBefore(new BigDecimal("90.00"))
+            .balanceAfter(new BigDecimal("100.00"))
+            .status(ForexTransaction.TransactionStatus.COMPLETED)
+            .clientRequestId("req-1")
+            .build();
+    when(transactionRepository.findByClientRequestIdIn(List.of("req-1")))
+        .thenReturn(List.of(existing));
+
+    // when
+    List<ForexTransactionDto> results =
+        forexService.depositBatch(batchRequest(deposit(UUID, "10.00", "req-1")));
+
+    // then
+    assertThat(results).hasSize(1);
+    assertThat(results.getFirst().getBalanceAfter()).isEqualByComparingTo("100.00");
+    verify(accountRepository, never()).findAllByUuidInForUpdate(any());
+    verify(transactionRepository).saveAll(List.of());
+    verify(outboxWriter, never()).append(anyString(), anyString(), any());
+  }
+
+  @Test
+  @DisplayName("batch deposit locks each account once, with one query ordered by uuid")
+  void depositBatch_LocksAccountsOnceInUuidOrder() throws Exception {
+    // given
+    ForexAccount first = account("account-a", "100.00");
+    ForexAccount second = account("account-b", "100.00");
+    when(accountRepository.findAllByUuidInForUpdate(any())).thenReturn(List.of(first, second));
+
+    // when
+    List<ForexTransactionDto> results =
+        forexService.depositBatch(
+            batchRequest(
+                deposit("account-b", "10.00", null),
+                deposit("account-a", "20.00", null),
+                deposit("account-b", "30.00", null)));
+
+    // then
+    assertThat(results)
+        .extracting(ForexTransactionDto::getAccountUuid)
+        .containsExactly("account-b", "account-a", "account-b");
+    assertThat(second.getBalance()).isEqualByComparingTo("140.00");
+    assertThat(first.getBalance()).isEqualByComparingTo("120.00");
+    verify(accountRepository).findAllByUuidInForUpdate(List.of("account-b", "account-a"));
+    Query lockQuery =
+        ForexAccountRepository.class
+            .getMethod("findAllByUuidInForUpdate", Collection.class)
+            .getAnnotation(Query.class);
+    assertThat(lockQuery.value()).endsWith("ORDER BY a.uuid");
+  }
+
+  @Test
+  @DisplayName("batch deposit to an unknown account fails the whole batch")
+  void depositBatch_UnknownAccountFailsBatch() {
+    // given
+    when(accountRepository.findAllByUuidInForUpdate(any()))
+        .thenReturn(List.of(account(UUID, "100.00")));
+
+    // when & then
+    assertThatThrownBy(
+            () ->
+                forexService.depositBatch(
+                    batchRequest(
+                        deposit(UUID, "10.00", "req-1"), deposit("account-x", "10.00", "req-2"))))
+        .isInstanceOf(BusinessException.class)
+        .hasMessage("account not found");
+    verify(transactionRepository, never()).saveAll(any());
+    verify(outboxWriter, never()).append(anyString(), anyString(), any());
+  }
+
+  private static ForexAccount account(String uuid, String balance) {
+    ForexAccount account = account(balance);
+    ReflectionTestUtils.setField(account, "uuid", uuid);
+    return account;
+  }
+
+  private static BatchDepositRequest.Deposit deposit(
+      String accountUuid, String amount, String clientRequestId) {
+    BatchDepositRequest.Deposit deposit = new BatchDepositRequest.Deposit();
+    ReflectionTestUtils.setField(deposit, "accountUuid", accountUuid);
+    ReflectionTestUtils.setField(deposit, "amount", new BigDecimal(amount));
+    ReflectionTestUtils.setField(deposit, "clientRequestId", clientRequestId);
+    return deposit;
+  }
+
+  private static BatchDepositRequest batchRequest(BatchDepositRequest.Deposit... deposits) {
+    BatchDepositRequest request = new BatchDepositRequest();
+    ReflectionTestUtils.setField(request, "deposits", List.of(deposits));
+    return request;
+  }
+
+  private static ForexAccount account(String balance) {
+    return ForexAccount.builder()
+        .accountNumber("200-0000-0001")
+        .userId(1L)
+        .balance(new BigDecimal(balance))
+        .currency(Currency.USD)
+        .build();
+  }
+
+  private static WithdrawRequest withdrawRequest(String amount) {
+    return WithdrawRequest.builder().amount(new BigDecimal(amount)).build();
+  }
+}